@@ -21,7 +21,7 @@ import es.urjc.etsii.grafo.exception.IllegalAlgorithmConfigException;
 import es.urjc.etsii.grafo.executors.Executor;
 import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.io.InstanceManager;
-import es.urjc.etsii.grafo.metrics.MetricUtil;
+import es.urjc.etsii.grafo.metrics.AreaUnderCurve;
 import es.urjc.etsii.grafo.metrics.Metrics;
 import es.urjc.etsii.grafo.orchestrator.AbstractOrchestrator;
 import es.urjc.etsii.grafo.services.ReflectiveSolutionBuilder;
@@ -91,6 +91,7 @@ public class IraceOrchestrator<S extends Solution<S, I>, I extends Instance> ext
 
     private boolean isAutoconfigEnabled;
     private boolean isFollower;
+    private IraceRacing racing;
     private int nIraceParameters = -1;
 
     /**
@@ -152,6 +153,7 @@ public class IraceOrchestrator<S extends Solution<S, I>, I extends Instance> ext
         } else {
             log.debug("SolutionValidator implementation found: {}", validator.get().getClass().getSimpleName());
         }
+        this.racing = createRacing();
         if(isFollower){
             this.integrationKey = solverConfig.getIntegrationKey();
             log.info("Mork is running in follower mode, waiting for commands...");
@@ -165,12 +167,28 @@ public class IraceOrchestrator<S extends Solution<S, I>, I extends Instance> ext
         try {
             launchIrace();
         } finally {
+            if (racing != null) {
+                racing.shutdown();
+            }
             long totalExecutionTime = System.nanoTime() - startTime;
             EventPublisher.getInstance().publishEvent(new ExecutionEndedEvent(totalExecutionTime));
             log.info("Total execution time: {} (s)", nanosToSecs(totalExecutionTime));
         }
     }
 
+    private IraceRacing createRacing() {
+        if (!isAutoconfigEnabled || !solverConfig.isRacing()) {
+            return null;
+        }
+        if (Context.getMainObjective().getFMode() != FMode.MINIMIZE) {
+            // The area of a maximized objective can always grow, so a running execution can never be discarded
+            log.warn("Racing is only available when the main objective is minimized, ignoring solver.racing");
+            return null;
+        }
+        log.info("Racing enabled, executions worse than the best {} executions on the same instance and seed will be stopped", solverConfig.getRacingElites());
+        return new IraceRacing(solverConfig.getRacingElites(), TimeUtil.convert(solverConfig.getRacingCheckMillis(), TimeUnit.MILLISECONDS, TimeUnit.NANOSECONDS));
+    }
+
     private void launchIrace() {
         log.info("Running experiment: IRACE autoconfig");
         EventPublisher.getInstance().publishEvent(new ExperimentStartedEvent(IRACE_EXPNAME, new ArrayList<>()));
@@ -277,7 +295,7 @@ public class IraceOrchestrator<S extends Solution<S, I>, I extends Instance> ext
         Context.Configurator.resetRandom(solverConfig.getRandomType(), seed);
 
         // Execute
-        return singleExecution(algorithm, instance);
+        return singleExecution(algorithm, instance, config.getSeed());
     }
 
     private synchronized void storeConfig(IraceRuntimeConfiguration config) {
@@ -324,7 +342,7 @@ public class IraceOrchestrator<S extends Solution<S, I>, I extends Instance> ext
         }
     }
 
-    private ExecuteResponse singleExecution(Algorithm<S, I> algorithm, I instance) {
+    private ExecuteResponse singleExecution(Algorithm<S, I> algorithm, I instance, String seed) {
         long maxExecTime = solverConfig.getIgnoreInitialMillis() + solverConfig.getIntervalDurationMillis();
         if (isAutoconfigEnabled) {
             // Autoconfig requires metrics to be enabled to track algorithm performance
@@ -340,38 +358,64 @@ public class IraceOrchestrator<S extends Solution<S, I>, I extends Instance> ext
             Metrics.resetMetrics();
         }
 
+        Objective<?,S,I> mainObj = Context.getMainObjective();
+        AreaUnderCurve area = null;
+        if (isAutoconfigEnabled) {
+            // Calculate the area while the algorithm runs, no need to keep the objective history
+            area = new AreaUnderCurve(mainObj.getFMode(),
+                    TimeUtil.convert(solverConfig.getIgnoreInitialMillis(), TimeUnit.MILLISECONDS, TimeUnit.NANOSECONDS),
+                    TimeUtil.convert(solverConfig.getIntervalDurationMillis(), TimeUnit.MILLISECONDS, TimeUnit.NANOSECONDS)
+            );
+            Metrics.get(mainObj.getName()).setRetention(area);
+        }
+        IraceRacing.Race race = null;
+        if (racing != null) {
+            race = racing.start(instance.getId(), seed, area, Metrics.getCurrentThreadMetrics().getReferenceNanoTime());
+        }
+
         long startTime = System.nanoTime();
-        var solution = algorithm.algorithm(instance);
-        long endTime = System.nanoTime();
+        long endTime;
+        double score;
+        // Time control and racing must be released even if the algorithm, validation or scoring fail
+        try {
+            S solution = algorithm.algorithm(instance);
+            endTime = System.nanoTime();
+            // Stop racing as soon as the algorithm ends, validation time must not count against it
+            boolean cancelled = race != null && race.stop();
 
-        // If the user has implemented a solution validator, check solution correctness
-        validator.ifPresent(v -> v.validate(solution).throwIfFail());
+            // If the user has implemented a solution validator, check solution correctness
+            validator.ifPresent(v -> v.validate(solution).throwIfFail());
 
-        double score;
-        Objective<?,S,I> mainObj = Context.getMainObjective();
-        if (isAutoconfigEnabled) {
-            checkExecutionTime(algorithm, instance);
-            TimeControl.remove();
-            try {
-                score = MetricUtil.areaUnderCurve(mainObj,
-                        TimeUtil.convert(solverConfig.getIgnoreInitialMillis(), TimeUnit.MILLISECONDS, TimeUnit.NANOSECONDS),
-                        TimeUtil.convert(solverConfig.getIntervalDurationMillis(), TimeUnit.MILLISECONDS, TimeUnit.NANOSECONDS),
-                        solverConfig.isLogScaleArea()
-                );
-                if(!solverConfig.isLogScaleArea()){
-                    // If not using log scaling, divide by NANOS_IN_MILLISECOND to get an acceptable range
-                    score /= TimeUtil.NANOS_IN_MILLISECOND;
+            if (isAutoconfigEnabled) {
+                checkExecutionTime(algorithm, instance);
+                try {
+                    if (race != null && !cancelled) {
+                        // Cancelled executions cannot be elites, and their area is penalized
+                        racing.completed(instance.getId(), seed, area.getArea(false));
+                    }
+                    score = area.getArea(solverConfig.isLogScaleArea());
+                    if(!solverConfig.isLogScaleArea()){
+                        // If not using log scaling, divide by NANOS_IN_MILLISECOND to get an acceptable range
+                        score /= TimeUtil.NANOS_IN_MILLISECOND;
+                    }
+
+                } catch (IllegalArgumentException e) {
+                    // Failure to calculate AUC --> Invalid algorithm, one cause may be algorithm too complex for instance and cannot generate results in time.
+                    log.debug("Error while calculating AUC: ", e);
+                    this.rejectedThings.add(algorithm.toString());
+                    return new ExecuteResponse();
                 }
 
-            } catch (IllegalArgumentException e) {
-                // Failure to calculate AUC --> Invalid algorithm, one cause may be algorithm too complex for instance and cannot generate results in time.
-                log.debug("Error while calculating AUC: ", e);
-                this.rejectedThings.add(algorithm.toString());
-                return new ExecuteResponse();
+            } else {
+                score = mainObj.evalSol(solution);
+            }
+        } finally {
+            if (race != null) {
+                race.stop();
+            }
+            if (isAutoconfigEnabled) {
+                TimeControl.remove();
             }
-
-        } else {
-            score = mainObj.evalSol(solution);
         }
 
         if (Context.getMainObjective().getFMode() == FMode.MAXIMIZE) {
@@ -0,0 +1,167 @@
+package es.urjc.etsii.grafo.autoconfig.irace;
+
+import es.urjc.etsii.grafo.metrics.AreaUnderCurve;
+import es.urjc.etsii.grafo.util.TimeControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops autoconfig executions that can no longer beat the best executions on the same instance and seed.
+ * For each instance and seed, the areas of the best completed executions are kept. While an execution runs,
+ * the area it has already accrued is periodically compared against them, and the execution is cancelled
+ * once it is greater than all of them. As the objective is minimized and never negative,
+ * the final area can only be greater than the accrued area, so a cancelled execution could not have won.
+ * Cancelled executions are scored as if they did not improve any more, which is always worse than the elite executions.
+ */
+public class IraceRacing {
+
+    private static final Logger log = LoggerFactory.getLogger(IraceRacing.class);
+
+    private final int nElites;
+    private final long checkIntervalNanos;
+    private final Map<String, double[]> elites = new HashMap<>();
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Create a new racing policy
+     *
+     * @param nElites            number of best areas kept for each instance and seed
+     * @param checkIntervalNanos how often running executions are checked, in nanoseconds
+     */
+    public IraceRacing(int nElites, long checkIntervalNanos) {
+        if (nElites < 1) {
+            throw new IllegalArgumentException("Number of elites must be greater than 0, got " + nElites);
+        }
+        if (checkIntervalNanos < 1) {
+            throw new IllegalArgumentException("Racing check interval must be positive, got " + checkIntervalNanos);
+        }
+        this.nElites = nElites;
+        this.checkIntervalNanos = checkIntervalNanos;
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            // Created lazily by the first raced execution, must not inherit and consume its random state
+            var thread = new Thread(null, r, "IraceRacing-timer", 0, false);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    private static String key(String instanceId, String seed) {
+        return instanceId + "\u0000" + seed;
+    }
+
+    /**
+     * Area an execution must stay below to have any chance of being one of the best executions
+     *
+     * @param instanceId instance id
+     * @param seed         execution seed
+     * @return greatest elite area, or positive infinity if there are not enough completed executions yet
+     */
+    public synchronized double threshold(String instanceId, String seed) {
+        var areas = elites.get(key(instanceId, seed));
+        if (areas == null || areas.length < nElites) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return areas[areas.length - 1];
+    }
+
+    /**
+     * Record the area of an execution that was not cancelled
+     *
+     * @param instanceId instance id
+     * @param seed         execution seed
+     * @param area         area under curve without log scaling
+     */
+    public synchronized void completed(String instanceId, String seed, double area) {
+        var areas = elites.getOrDefault(key(instanceId, seed), new double[0]);
+        int position = Arrays.binarySearch(areas, area);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (position >= nElites) {
+            return;
+        }
+        int newLength = Math.min(areas.length + 1, nElites);
+        var newAreas = new double[newLength];
+        System.arraycopy(areas, 0, newAreas, 0, position);
+        newAreas[position] = area;
+        System.arraycopy(areas, position, newAreas, position + 1, newLength - position - 1);
+        elites.put(key(instanceId, seed), newAreas);
+    }
+
+    /**
+     * Start checking a running execution, must be called from the thread that executes the algorithm,
+     * after its time control has been started.
+     *
+     * @param instanceId    instance id
+     * @param seed          execution seed
+     * @param area          area accumulator of the execution
+     * @param referenceTime metric reference instant, as returned by System.nanoTime()
+     * @return race handle, must be stopped when the algorithm ends
+     */
+    public Race start(String instanceId, String seed, AreaUnderCurve area, long referenceTime) {
+        var race = new Race(instanceId, seed, area, referenceTime, TimeControl.deadline());
+        race.check = timer.scheduleAtFixedRate(race::check, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+        return race;
+    }
+
+    /**
+     * Release the timer thread
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Running execution checked by a racing policy
+     */
+    public final class Race {
+        private final String instanceId;
+        private final String seed;
+        private final AreaUnderCurve area;
+        private final long referenceTime;
+        private final TimeControl.Deadline deadline;
+        private volatile ScheduledFuture<?> check;
+        private volatile boolean cancelled;
+
+        private Race(String instanceId, String seed, AreaUnderCurve area, long referenceTime, TimeControl.Deadline deadline) {
+            this.instanceId = instanceId;
+            this.seed = seed;
+            this.area = area;
+            this.referenceTime = referenceTime;
+            this.deadline = deadline;
+        }
+
+        private void check() {
+            if (cancelled) {
+                return;
+            }
+            double accrued = area.getAccruedArea(System.nanoTime() - referenceTime);
+            double threshold = threshold(instanceId, seed);
+            if (accrued > threshold) {
+                log.debug("Cancelling execution in instance {} with seed {}, accrued area {} > {}", instanceId, seed, accrued, threshold);
+                cancelled = true;
+                deadline.cancel();
+                var future = check;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        /**
+         * Stop checking the execution
+         *
+         * @return true if the execution was cancelled because it could not win, false otherwise
+         */
+        public boolean stop() {
+            check.cancel(false);
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package es.urjc.etsii.grafo.autoconfig.irace;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.metrics.AreaUnderCurve;
+import es.urjc.etsii.grafo.metrics.DeclaredObjective;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.TimeControl;
+import es.urjc.etsii.grafo.util.random.RandomType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IraceRacingTest {
+
+    @AfterEach
+    void cleanup() {
+        TimeControl.remove();
+    }
+
+    @Test
+    void keepBestAreas() {
+        var racing = new IraceRacing(2, 1);
+        assertEquals(Double.POSITIVE_INFINITY, racing.threshold("inst", "1"));
+        racing.completed("inst", "1", 50);
+        assertEquals(Double.POSITIVE_INFINITY, racing.threshold("inst", "1"));
+        racing.completed("inst", "1", 30);
+        assertEquals(50, racing.threshold("inst", "1"));
+        racing.completed("inst", "1", 80);
+        assertEquals(50, racing.threshold("inst", "1"));
+        racing.completed("inst", "1", 10);
+        assertEquals(30, racing.threshold("inst", "1"));
+
+        // Different instance or seed
+        assertEquals(Double.POSITIVE_INFINITY, racing.threshold("inst", "2"));
+        assertEquals(Double.POSITIVE_INFINITY, racing.threshold("other", "1"));
+        racing.shutdown();
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new IraceRacing(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new IraceRacing(1, 0));
+    }
+
+    @Test
+    void cancelHopelessExecution() throws InterruptedException {
+        var racing = new IraceRacing(1, TimeUnit.MILLISECONDS.toNanos(1));
+        racing.completed("inst", "1", 1_000);
+
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        long ref = System.nanoTime();
+        var area = new AreaUnderCurve(FMode.MINIMIZE, 0, TimeUnit.MINUTES.toNanos(1));
+        var metric = new DeclaredObjective("Test", FMode.MINIMIZE, ref);
+        metric.setRetention(area);
+        metric.add(ref, 10);
+
+        var race = racing.start("inst", "1", area, ref);
+        // Accrues 10 per nanosecond, must be cancelled almost immediately
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!TimeControl.isTimeUp() && System.nanoTime() < waitUntil) {
+            Thread.sleep(1);
+        }
+        assertTrue(TimeControl.isTimeUp());
+        assertTrue(race.stop());
+        // Penalized as if it did not improve any more
+        assertEquals(10.0 * TimeUnit.MINUTES.toNanos(1), area.getArea(false));
+        racing.shutdown();
+    }
+
+    @Test
+    void keepPromisingExecution() throws InterruptedException {
+        var racing = new IraceRacing(1, TimeUnit.MILLISECONDS.toNanos(1));
+        racing.completed("inst", "1", Double.MAX_VALUE);
+
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        long ref = System.nanoTime();
+        var area = new AreaUnderCurve(FMode.MINIMIZE, 0, TimeUnit.MINUTES.toNanos(1));
+        var metric = new DeclaredObjective("Test", FMode.MINIMIZE, ref);
+        metric.setRetention(area);
+        metric.add(ref, 10);
+
+        var race = racing.start("inst", "1", area, ref);
+        Thread.sleep(20);
+        assertFalse(race.stop());
+        assertFalse(TimeControl.isTimeUp());
+        racing.shutdown();
+    }
+
+    @Test
+    void racingKeepsCallerRandom() {
+        var racing = new IraceRacing(1, TimeUnit.MINUTES.toNanos(1));
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 1234);
+        var expected = ((RandomGenerator.JumpableGenerator) Context.getRandom()).copy();
+
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        long ref = System.nanoTime();
+        var area = new AreaUnderCurve(FMode.MINIMIZE, 0, TimeUnit.MINUTES.toNanos(1));
+        // Creates the timer thread, which must not consume the random state of the execution
+        var race = racing.start("inst", "1", area, ref);
+        assertFalse(race.stop());
+        assertEquals(expected.nextLong(), Context.getRandom().nextLong());
+        racing.shutdown();
+    }
+}
@@ -53,32 +53,35 @@ public class IteratedGreedy<S extends Solution<S, I>, I extends Instance> extend
 
     private static final Logger logger = LoggerFactory.getLogger(IteratedGreedy.class);
 
-    private Objective<?,S,I> objective;
+    /**
+     * Objective function to optimize
+     */
+    protected Objective<?,S,I> objective;
 
     /**
      * Constructive procedure
      */
-    private Constructive<S, I> constructive;
+    protected Constructive<S, I> constructive;
 
     /**
      * Destructive and reconstructive procedure
      */
-    private Shake<S, I> destructionReconstruction;
+    protected Shake<S, I> destructionReconstruction;
 
     /**
      * Improving procedures
      */
-    private Improver<S, I> improver;
+    protected Improver<S, I> improver;
 
     /**
      * Maximum number of iterations the algorithm could be executed.
      */
-    private int maxIterations;
+    protected int maxIterations;
 
     /**
      * Maximum number of iterations without improving the algorithm could be executed.
      */
-    private int stopIfNotImprovedIn;
+    protected int stopIfNotImprovedIn;
 
     /**
      *  Iterated Greedy Algorithm constructor
@@ -211,7 +214,7 @@ public class IteratedGreedy<S extends Solution<S, I>, I extends Instance> extend
      * @param solution initial solution  of the procedure
      * @return the improved solution
      */
-    private S ls(S solution) {
+    protected S ls(S solution) {
         if (improver != null){
             solution = improver.improve(solution);
         }
@@ -0,0 +1,163 @@
+package es.urjc.etsii.grafo.algorithms;
+
+import es.urjc.etsii.grafo.create.Constructive;
+import es.urjc.etsii.grafo.create.Reconstructive;
+import es.urjc.etsii.grafo.exception.IllegalAlgorithmConfigException;
+import es.urjc.etsii.grafo.improve.Improver;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.shake.DestroyRebuild;
+import es.urjc.etsii.grafo.shake.Destructive;
+import es.urjc.etsii.grafo.shake.Shake;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.StringUtil;
+import es.urjc.etsii.grafo.util.TimeControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Iterated Greedy that destroys, rebuilds and improves a batch of copies of the incumbent solution at the same time,
+ * using a dedicated pool, and accepts the best one if it improves the incumbent.
+ * Each candidate counts as an iteration: batches are never larger than the remaining number of iterations,
+ * nor than the number of iterations left before stopping due to not improving,
+ * so both termination criteria stop after the same number of iterations as the sequential version.
+ * Each candidate uses its own random generator, jumped from the random generator of the calling thread,
+ * so results for a given seed are reproducible if no time limit is reached.
+ * Destruction, reconstruction and improvement methods must be thread safe.
+ *
+ * @param <S> the type of the problem solution
+ * @param <I> the type of problem instances
+ */
+public class ParallelIteratedGreedy<S extends Solution<S, I>, I extends Instance> extends IteratedGreedy<S, I> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelIteratedGreedy.class);
+
+    /**
+     * Maximum number of candidates generated in parallel in each batch
+     */
+    protected final int batchSize;
+
+    /**
+     * Parallel Iterated Greedy constructor
+     *
+     * @param name                      Algorithm name, uniquely identifies the current algorithm. Tip: If you dont care about the name, generate a random one using {@link StringUtil#randomAlgorithmName()}
+     * @param objective                 objective to optimize
+     * @param maxIterations             maximum number of iterations the algorithm could be executed.
+     * @param stopIfNotImprovedIn       maximum number of iterations without improving the algorithm could be executed.
+     * @param constructive              constructive procedure to generate the initial solution of the algorithm
+     * @param destructionReconstruction destruction and reconstruction procedures, must be thread safe
+     * @param improver                  improving procedures, must be thread safe
+     * @param batchSize                 number of candidates generated in parallel, each one in its own thread
+     */
+    public ParallelIteratedGreedy(
+            String name,
+            Objective<?, S, I> objective,
+            int maxIterations,
+            int stopIfNotImprovedIn,
+            Constructive<S, I> constructive,
+            Shake<S, I> destructionReconstruction,
+            Improver<S, I> improver,
+            int batchSize
+    ) {
+        super(name, objective, maxIterations, stopIfNotImprovedIn, constructive, destructionReconstruction, improver);
+        if (batchSize <= 0) {
+            throw new IllegalAlgorithmConfigException("The batch size should be greater than 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Parallel Iterated Greedy constructor: uses one constructive
+     * method when building the initial solution and another one when reconstructing
+     *
+     * @param name                Algorithm name, uniquely identifies the current algorithm. Tip: If you dont care about the name, generate a random one using {@link StringUtil#randomAlgorithmName()}
+     * @param maxIterations       maximum number of iterations the algorithm could be executed.
+     * @param stopIfNotImprovedIn maximum number of iterations without improving the algorithm could be executed.
+     * @param constructive        constructive procedure to generate the initial solution of the algorithm, solution is NOT rebuilt using this component
+     * @param destructive         destructive method called before the reconstructive, must be thread safe
+     * @param reconstructive      reconstructive procedure to rebuild the solution, must be thread safe
+     * @param improver            improving procedures, must be thread safe
+     * @param batchSize           number of candidates generated in parallel, each one in its own thread
+     */
+    public ParallelIteratedGreedy(String name, int maxIterations, int stopIfNotImprovedIn, Constructive<S, I> constructive, Destructive<S, I> destructive, Reconstructive<S, I> reconstructive, Improver<S, I> improver, int batchSize) {
+        this(name, Context.getMainObjective(), maxIterations, stopIfNotImprovedIn, constructive, new DestroyRebuild<>(reconstructive, destructive), improver, batchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Candidates are generated in batches, see class documentation.
+     */
+    @Override
+    public S algorithm(I instance) {
+        S solution = this.newSolution(instance);
+        solution = this.constructive.construct(solution);
+        Metrics.addCurrentObjectives(solution);
+        if (TimeControl.isTimeUp()) {
+            return solution;
+        }
+        solution = ls(solution);
+        double bestScore = this.objective.evalSol(solution);
+        logger.debug("Initial solution: {} - {}", bestScore, solution);
+
+        var pool = new ForkJoinPool(batchSize, Context.workerThreadFactory(), null, false);
+        try {
+            int iterationsWithoutImprovement = 0;
+            int i = 0;
+            while (i < maxIterations) {
+                if (TimeControl.isTimeUp()) {
+                    return solution;
+                }
+                int size = Math.min(batchSize, Math.min(maxIterations - i, stopIfNotImprovedIn - iterationsWithoutImprovement));
+                var incumbent = solution;
+                var candidates = ConcurrencyUtil.reproducibleMap(pool, size, j -> {
+                    S copy = incumbent.cloneSolution();
+                    copy = this.destructionReconstruction.shake(copy, 1);
+                    return ls(copy);
+                });
+                i += size;
+
+                // Ties are resolved in favour of the first candidate, as if candidates had been evaluated in order
+                S best = candidates.get(0);
+                for (int j = 1; j < candidates.size(); j++) {
+                    if (objective.isBetter(candidates.get(j), best)) {
+                        best = candidates.get(j);
+                    }
+                }
+
+                if (!objective.isBetter(best, bestScore)) {
+                    iterationsWithoutImprovement += size;
+                    if (iterationsWithoutImprovement >= this.stopIfNotImprovedIn) {
+                        logger.debug("Not improved after {} iterations, stopping in iteration {}. Current score {} - {}", stopIfNotImprovedIn, i - 1, bestScore, solution);
+                        break;
+                    }
+                } else {
+                    solution = best;
+                    bestScore = this.objective.evalSol(solution);
+                    logger.debug("Improved at iteration {}: {} - {}", i - 1, bestScore, solution);
+                    Metrics.addCurrentObjectives(solution);
+                    iterationsWithoutImprovement = 0;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return solution;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "ParallelIteratedGreedy{" +
+                "constructive=" + constructive +
+                ", shake=" + destructionReconstruction +
+                ", improver=" + improver +
+                ", batchSize=" + batchSize +
+                '}';
+    }
+}
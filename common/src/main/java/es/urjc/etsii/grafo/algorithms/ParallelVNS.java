@@ -0,0 +1,177 @@
+package es.urjc.etsii.grafo.algorithms;
+
+import es.urjc.etsii.grafo.create.Constructive;
+import es.urjc.etsii.grafo.exception.IllegalAlgorithmConfigException;
+import es.urjc.etsii.grafo.improve.Improver;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.shake.Shake;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.TimeControl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * VNS variant that shakes and improves several copies of the incumbent solution at the same time, using a dedicated pool.
+ * In each step, nThreads candidates are generated from the current solution, and the best one is accepted if it improves
+ * the current solution. Depending on the {@link Strategy}, candidates use consecutive k values or the same k value.
+ * Each candidate uses its own random generator, jumped from the random generator of the calling thread,
+ * so results for a given seed are reproducible if no time limit is reached.
+ * Shake and improver implementations must be thread safe.
+ *
+ * @param <S> type of the problem solution
+ * @param <I> type of the problem instance
+ * @see VNSBuilder#withParallelism(int, Strategy)
+ */
+public class ParallelVNS<S extends Solution<S, I>, I extends Instance> extends VNS<S, I> {
+
+    /**
+     * How k values are assigned to the candidates generated in each step
+     */
+    public enum Strategy {
+        /**
+         * Candidate i uses internal k value k+i, where k is the current internal k value.
+         * If no candidate improves, the internal k value is incremented by the number of evaluated k values,
+         * as if they had been explored sequentially.
+         */
+        CONSECUTIVE_K,
+        /**
+         * All candidates use the current k value, with different random shakes.
+         * If no candidate improves, the internal k value is incremented by 1.
+         */
+        SAME_K
+    }
+
+    /**
+     * Number of candidates generated and improved in parallel in each step
+     */
+    protected final int nThreads;
+
+    /**
+     * How k values are assigned to candidates
+     */
+    protected final Strategy strategy;
+
+    /**
+     * Create a new parallel VNS
+     *
+     * @param algorithmName Algorithm name, example: "ParallelVNSWithRandomConstructive"
+     * @param objective     objective to optimize
+     * @param kMapper       k value provider, @see VNS.KMapper
+     * @param constructive  Constructive method
+     * @param shake         Perturbation method, must be thread safe
+     * @param improver      Improver method, must be thread safe
+     * @param nThreads      number of candidates generated in parallel in each step
+     * @param strategy      how k values are assigned to candidates
+     */
+    public ParallelVNS(String algorithmName, Objective<?, S, I> objective, KMapper<S, I> kMapper, Constructive<S, I> constructive, Shake<S, I> shake, Improver<S, I> improver, int nThreads, Strategy strategy) {
+        super(algorithmName, objective, kMapper, constructive, shake, improver);
+        if (nThreads <= 0) {
+            throw new IllegalAlgorithmConfigException("The number of threads should be greater than 0");
+        }
+        this.nThreads = nThreads;
+        this.strategy = Objects.requireNonNull(strategy);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Several candidates are shaken and improved concurrently in each step, see class documentation.
+     */
+    @Override
+    public S algorithm(I instance) {
+        var solution = this.newSolution(instance);
+        solution = constructive.construct(solution);
+        Metrics.addCurrentObjectives(solution);
+        solution = improver.improve(solution);
+        Metrics.addCurrentObjectives(solution);
+
+        var pool = new ForkJoinPool(nThreads, Context.workerThreadFactory(), null, false);
+        try {
+            int internalK = 0;
+            while (!TimeControl.isTimeUp()) {
+                int[] ks = mapKs(solution, internalK);
+                if (ks.length == 0) {
+                    printStatus(internalK, KMapper.STOPNOW, solution);
+                    break;
+                }
+                for (int i = 0; i < ks.length; i++) {
+                    printStatus(strategy == Strategy.CONSECUTIVE_K ? internalK + i : internalK, ks[i], solution);
+                }
+
+                var incumbent = solution;
+                var candidates = ConcurrencyUtil.reproducibleMap(pool, ks.length, i -> {
+                    S copy = incumbent.cloneSolution();
+                    copy = shake.shake(copy, ks[i]);
+                    return improver.improve(copy);
+                });
+
+                // Ties are resolved in favour of the lowest candidate index, ie the lowest k value
+                S best = null;
+                for (var candidate : candidates) {
+                    if (best == null || objective.isBetter(candidate, best)) {
+                        best = candidate;
+                    }
+                }
+                if (objective.isBetter(best, solution)) {
+                    solution = best;
+                    internalK = 0;
+                    // Only accepted solutions are reported, from the calling thread, as in the sequential version
+                    Metrics.addCurrentObjectives(solution);
+                } else {
+                    internalK += strategy == Strategy.CONSECUTIVE_K ? ks.length : 1;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return solution;
+    }
+
+    /**
+     * Calculate the k value of each candidate for the current step
+     *
+     * @param solution  current solution
+     * @param internalK current internal k value
+     * @return k values, one per candidate, or an empty array if the VNS should stop
+     */
+    private int[] mapKs(S solution, int internalK) {
+        int userK = kMapper.apply(solution, internalK);
+        if (userK == KMapper.STOPNOW) {
+            return new int[0];
+        }
+        int[] ks = new int[nThreads];
+        Arrays.fill(ks, userK);
+        if (strategy == Strategy.SAME_K) {
+            return ks;
+        }
+        for (int i = 1; i < nThreads; i++) {
+            int nextK = kMapper.apply(solution, internalK + i);
+            if (nextK == KMapper.STOPNOW) {
+                return Arrays.copyOf(ks, i);
+            }
+            ks[i] = nextK;
+        }
+        return ks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ParallelVNS{" +
+                "improvers=" + improver +
+                ", constructive=" + constructive +
+                ", shakes=" + shake +
+                ", kmap=" + kMapper +
+                ", nThreads=" + nThreads +
+                ", strategy=" + strategy +
+                '}';
+    }
+}
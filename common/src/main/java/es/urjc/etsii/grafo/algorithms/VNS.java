@@ -46,6 +46,7 @@ import java.util.function.BiFunction;
  *
  * @param <S> type of the problem solution
  * @param <I> type of the problem instance
+ * @see VNSBuilder
  */
 public class VNS<S extends Solution<S, I>, I extends Instance> extends Algorithm<S, I> {
 
@@ -176,7 +177,7 @@ public class VNS<S extends Solution<S, I>, I extends Instance> extends Algorithm
      * @param mappedK   external K value used for custom shake methods
      * @param solution  solution
      */
-    private void printStatus(int internalK, int mappedK, S solution) {
+    protected void printStatus(int internalK, int mappedK, S solution) {
         log.debug("{}:{} -> \t{}", internalK, mappedK, solution);
     }
 
@@ -225,7 +226,7 @@ public class VNS<S extends Solution<S, I>, I extends Instance> extends Algorithm
         Integer apply(S solution, Integer originalK);
     }
 
-    private static <S extends Solution<S, I>, I extends Instance> KMapper<S, I> getDefaultKMapper(int maxK) {
+    static <S extends Solution<S, I>, I extends Instance> KMapper<S, I> getDefaultKMapper(int maxK) {
         return (solution, originalK) -> originalK >= maxK ? KMapper.STOPNOW : originalK;
     }
 }
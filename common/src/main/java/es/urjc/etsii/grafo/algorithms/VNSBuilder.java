@@ -0,0 +1,178 @@
+package es.urjc.etsii.grafo.algorithms;
+
+import es.urjc.etsii.grafo.create.Constructive;
+import es.urjc.etsii.grafo.improve.Improver;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.shake.Shake;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.StringUtil;
+
+import java.util.Objects;
+
+/**
+ * VNS builder based on Java Builder Pattern
+ *
+ * @param <S> type of the solution of the problem
+ * @param <I> type of the instance of the problem
+ */
+public class VNSBuilder<S extends Solution<S, I>, I extends Instance> {
+
+    /**
+     * Default maximum k value, used if no k mapper is provided
+     */
+    public static final int DEFAULT_MAX_K = 5;
+
+    private String name;
+    private Objective<?, S, I> objective;
+    private VNS.KMapper<S, I> kMapper;
+    private Constructive<S, I> constructive;
+    private Shake<S, I> shake;
+    private Improver<S, I> improver = Improver.nul();
+    private int nThreads = 1;
+    private ParallelVNS.Strategy strategy = ParallelVNS.Strategy.CONSECUTIVE_K;
+
+    /**
+     * Builder for {@link VNS}
+     */
+    public VNSBuilder() {}
+
+    /**
+     * <p>withAlgorithmName.</p>
+     *
+     * @param name name of the algorithm
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withAlgorithmName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * <p>withObjective.</p>
+     *
+     * @param objective objective to optimize
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withObjective(Objective<?, S, I> objective) {
+        this.objective = objective;
+        return this;
+    }
+
+    /**
+     * Use the default k mapper, which increments k by 1 each time the solution does not improve and stops when k >= maxK.
+     * Overrides any k mapper set using {@link #withKMapper(VNS.KMapper)}.
+     *
+     * @param maxK maximum k value, must be positive
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withMaxK(int maxK) {
+        if (maxK < 1) {
+            throw new IllegalArgumentException("maxK must be positive, got " + maxK);
+        }
+        this.kMapper = VNS.getDefaultKMapper(maxK);
+        return this;
+    }
+
+    /**
+     * <p>withKMapper.</p>
+     *
+     * @param kMapper k value provider, see {@link VNS.KMapper}
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withKMapper(VNS.KMapper<S, I> kMapper) {
+        this.kMapper = Objects.requireNonNull(kMapper);
+        return this;
+    }
+
+    /**
+     * <p>withConstructive.</p>
+     *
+     * @param constructive constructive method
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withConstructive(Constructive<S, I> constructive) {
+        this.constructive = constructive;
+        return this;
+    }
+
+    /**
+     * <p>withShake.</p>
+     *
+     * @param shake perturbation method
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withShake(Shake<S, I> shake) {
+        this.shake = shake;
+        return this;
+    }
+
+    /**
+     * <p>withImprover.</p>
+     *
+     * @param improver improver method, if not set solutions are not improved after each shake
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withImprover(Improver<S, I> improver) {
+        this.improver = improver;
+        return this;
+    }
+
+    /**
+     * <p>withParallelism.</p>
+     * Shake and improve several candidates at the same time using consecutive k values, see {@link ParallelVNS}.
+     *
+     * @param nThreads number of candidates generated in parallel in each step, if greater than one a parallel VNS is built
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withParallelism(int nThreads) {
+        return withParallelism(nThreads, ParallelVNS.Strategy.CONSECUTIVE_K);
+    }
+
+    /**
+     * <p>withParallelism.</p>
+     * Shake and improve several candidates at the same time, see {@link ParallelVNS}.
+     *
+     * @param nThreads number of candidates generated in parallel in each step, if greater than one a parallel VNS is built
+     * @param strategy how k values are assigned to candidates
+     * @return VNSBuilder
+     */
+    public VNSBuilder<S, I> withParallelism(int nThreads, ParallelVNS.Strategy strategy) {
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("The number of threads should be greater than 0, got " + nThreads);
+        }
+        this.nThreads = nThreads;
+        this.strategy = Objects.requireNonNull(strategy);
+        return this;
+    }
+
+    /**
+     * Build a VNS using the provided config values. Default values if not explicitly set:
+     * - Name: random algorithm name
+     * - Objective: Context::getMainObjective
+     * - K mapper: default k mapper with maxK {@link #DEFAULT_MAX_K}
+     * - Improver: no improver
+     * - Threads: 1, ie sequential VNS
+     *
+     * @return configured and ready to use VNS algorithm
+     */
+    public VNS<S, I> build() {
+        if (constructive == null) {
+            throw new IllegalArgumentException("Cannot create VNS without a constructive, use withConstructive method");
+        }
+        if (shake == null) {
+            throw new IllegalArgumentException("Cannot create VNS without a shake, use withShake method");
+        }
+        if (improver == null) {
+            throw new IllegalArgumentException("Improver cannot be null, use Improver.nul() to skip improvement");
+        }
+        String name = this.name == null ? StringUtil.randomAlgorithmName() : this.name;
+        Objective<?, S, I> objective = this.objective == null ? Context.getMainObjective() : this.objective;
+        VNS.KMapper<S, I> kMapper = this.kMapper == null ? VNS.getDefaultKMapper(DEFAULT_MAX_K) : this.kMapper;
+        if (nThreads > 1) {
+            return new ParallelVNS<>(name, objective, kMapper, constructive, shake, improver, nThreads, strategy);
+        }
+        return new VNS<>(name, objective, kMapper, constructive, shake, improver);
+    }
+}
@@ -127,10 +127,10 @@ public class MultiStartAlgorithm<S extends Solution<S,I>, I extends Instance> ex
      * Method to check it the termination criteria of the multistart algorithm is met
      *
      * @param iter   current number of iteration of the algorithm
-     * @param iterWI currr
+     * @param iterWI current number of iterations without improving
      * @return true if the termination criteria is met, false otherwise
      */
-    private boolean terminationCriteriaIsMet(int iter, int iterWI) {
+    protected boolean terminationCriteriaIsMet(int iter, int iterWI) {
         if(TimeControl.isTimeUp()){
             return true;
         }
@@ -34,6 +34,11 @@ public class MultiStartAlgorithmBuilder<S extends Solution<S, I>, I extends Inst
      */
     private int maxIterationsWithoutImproving = Integer.MAX_VALUE / 2;
 
+    /**
+     * Number of threads used to execute iterations, set by default to one
+     */
+    private int nThreads = 1;
+
     private Objective<?, S, I> objective = Context.getMainObjective();
 
     /**
@@ -90,6 +95,18 @@ public class MultiStartAlgorithmBuilder<S extends Solution<S, I>, I extends Inst
         return this;
     }
 
+    /**
+     * <p>withParallelism.</p>
+     * Execute several iterations at the same time, see {@link ParallelMultiStartAlgorithm}.
+     *
+     * @param nThreads number of threads, if greater than one a parallel multistart algorithm is built
+     * @return MultiStartAlgorithmBuilder
+     */
+    public MultiStartAlgorithmBuilder<S, I> withParallelism(int nThreads) {
+        this.nThreads = nThreads;
+        return this;
+    }
+
     /**
      * build a multistart algorithm with the current configuration
      *
@@ -106,6 +123,9 @@ public class MultiStartAlgorithmBuilder<S extends Solution<S, I>, I extends Inst
         if(objective == null){
             throw new IllegalArgumentException("Objective cannot be null");
         }
+        if(nThreads > 1){
+            return new ParallelMultiStartAlgorithm<>(name, objective, algorithm, maxIterations, minIterations, maxIterationsWithoutImproving, nThreads);
+        }
         return new MultiStartAlgorithm<>(name, objective, algorithm, maxIterations, minIterations, maxIterationsWithoutImproving);
     }
 }
@@ -0,0 +1,186 @@
+package es.urjc.etsii.grafo.algorithms.multistart;
+
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.exception.IllegalAlgorithmConfigException;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.TimeControl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Multistart algorithm that executes several iterations of the user-defined algorithm at the same time, using a dedicated thread pool.
+ * Each iteration uses its own jumped random generator, derived from the random generator of the calling thread,
+ * and results are merged in iteration order. Therefore, the returned solution and the termination criteria
+ * (maximum number of iterations, iterations without improving) behave as if iterations were executed sequentially,
+ * and neither the result for a given seed nor the random state of the calling thread afterwards depend on the number of threads.
+ * Some iterations may be executed speculatively and discarded if the termination criteria is met before they are merged.
+ * The wrapped algorithm must be thread safe.
+ *
+ * @param <S> Solution class
+ * @param <I> Instance class
+ */
+public class ParallelMultiStartAlgorithm<S extends Solution<S, I>, I extends Instance> extends MultiStartAlgorithm<S, I> {
+
+    /**
+     * Number of threads used to execute iterations
+     */
+    protected final int nThreads;
+
+    /**
+     * Use the {@link MultiStartAlgorithmBuilder} class to generate a parallel MultiStart Algorithm
+     *
+     * @param algorithmName                 algorithm name
+     * @param objective                     objective to optimize
+     * @param algorithm                     algorithm, must be thread safe
+     * @param maxIterations                 maximum number of iterations
+     * @param minIterations                 minimum number of iteration the algorithm will be run. Must be less or equal than the maximum number of iterations.
+     * @param maxIterationsWithoutImproving number of iterations the algorithm should be run without improving before stop
+     * @param nThreads                      number of threads
+     */
+    public ParallelMultiStartAlgorithm(
+            String algorithmName,
+            Objective<?, S, I> objective,
+            Algorithm<S, I> algorithm,
+            int maxIterations,
+            int minIterations,
+            int maxIterationsWithoutImproving,
+            int nThreads
+    ) {
+        super(algorithmName, objective, algorithm, maxIterations, minIterations, maxIterationsWithoutImproving);
+        if (nThreads <= 0) {
+            throw new IllegalAlgorithmConfigException("The number of threads should be greater than 0");
+        }
+        this.nThreads = nThreads;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Iterations are executed concurrently, see class documentation.
+     */
+    @Override
+    public S algorithm(I instance) {
+        var run = new ParallelRun(instance);
+        // Pool threads inherit the context of the calling thread, jumping its random generator once per thread.
+        // Restore it afterwards, so the random state of the calling thread does not depend on the number of threads
+        var callerRandom = Context.getRandom() instanceof RandomGenerator.JumpableGenerator jumpable ? jumpable.copy() : null;
+        var executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            var futures = new ArrayList<Future<Void>>(nThreads);
+            for (int i = 0; i < nThreads; i++) {
+                futures.add(executor.submit(run::work, null));
+            }
+            ConcurrencyUtil.awaitAll(futures);
+        } finally {
+            executor.shutdownNow();
+            if (callerRandom != null) {
+                Context.Configurator.setRandom(callerRandom);
+            }
+        }
+        return run.best;
+    }
+
+    /**
+     * State of a single execution of the multistart procedure, shared by all workers.
+     */
+    private class ParallelRun {
+        private final I instance;
+        private final RandomGenerator.JumpableGenerator random;
+        private final Map<Integer, S> pending = new HashMap<>();
+        private final int maxAhead = 2 * nThreads;
+
+        private int nextIteration = 0;
+        private int merged = 0;
+        private int iterWI = 0;
+        private boolean finished = false;
+        private S best;
+
+        private ParallelRun(I instance) {
+            this.instance = instance;
+            // Iteration generators are derived from a copy, so the calling thread always advances the same amount
+            this.random = Context.getRandom() instanceof RandomGenerator.JumpableGenerator jumpable ? (RandomGenerator.JumpableGenerator) jumpable.copyAndJump() : null;
+        }
+
+        private void work() {
+            try {
+                int iteration;
+                RandomGenerator.JumpableGenerator iterationRandom;
+                while (true) {
+                    synchronized (this) {
+                        while (!finished && nextIteration >= merged + maxAhead) {
+                            this.wait();
+                        }
+                        // At least one iteration is always executed, as in the sequential version
+                        if (finished || nextIteration >= maxIterations || nextIteration > 0 && TimeControl.isTimeUp()) {
+                            return;
+                        }
+                        iteration = nextIteration++;
+                        iterationRandom = random == null ? null : (RandomGenerator.JumpableGenerator) random.copyAndJump();
+                    }
+                    if (iterationRandom != null) {
+                        Context.Configurator.setRandom(iterationRandom);
+                    }
+                    S solution = algorithm.algorithm(instance);
+                    complete(iteration, solution);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    finished = true;
+                    this.notifyAll();
+                }
+                throw e;
+            }
+        }
+
+        private synchronized void complete(int iteration, S solution) {
+            if (finished) {
+                return;
+            }
+            pending.put(iteration, solution);
+            while (!finished && pending.containsKey(merged)) {
+                S current = pending.remove(merged);
+                merged++;
+                if (best == null) {
+                    best = current;
+                } else {
+                    iterWI++;
+                    if (objective.isBetter(current, best)) {
+                        best = current;
+                        iterWI = 0;
+                    }
+                }
+                printStatus(merged, best);
+                finished = terminationCriteriaIsMet(merged, iterWI);
+            }
+            if (finished) {
+                pending.clear();
+            }
+            this.notifyAll();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "PMA{" +
+                "name=" + getName() +
+                ", maxIter=" + maxIterations +
+                ", minIter=" + minIterations +
+                ", maxIterWoutImp=" + maxIterationsWithoutImproving +
+                ", nThreads=" + nThreads +
+                ", alg=" + algorithm +
+                "}";
+    }
+}
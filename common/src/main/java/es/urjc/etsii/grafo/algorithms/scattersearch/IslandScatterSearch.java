@@ -0,0 +1,289 @@
+package es.urjc.etsii.grafo.algorithms.scattersearch;
+
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.create.builder.SolutionBuilder;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.TimeControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.random.RandomGenerator;
+
+/**
+ * Island model Scatter Search. Several independent reference sets (islands) evolve in parallel, each one in its own thread,
+ * following the same strategy as the given {@link ScatterSearch}.
+ * Every migrationInterval iterations, islands synchronize and each island receives a copy of some solutions
+ * from the previous island in a ring topology, which are inserted in its refset as if they had been generated by combination.
+ * Each island uses its own random generator, jumped from the random generator of the calling thread, and migrations
+ * are synchronous, so results are reproducible for a given seed if no time limit is reached.
+ * Islands that converge stop participating in future migrations.
+ *
+ * @param <S> Solution class
+ * @param <I> Instance class
+ */
+public class IslandScatterSearch<S extends Solution<S, I>, I extends Instance> extends Algorithm<S, I> {
+
+    private static final Logger log = LoggerFactory.getLogger(IslandScatterSearch.class);
+
+    /**
+     * How migrants are chosen from the refset of the source island
+     */
+    public enum MigrationPolicy {
+        /**
+         * Best solutions by objective function value
+         */
+        BEST,
+        /**
+         * Solutions that maximize the minimum distance to the solutions in the refset of the target island,
+         * calculated using the configured {@link SolutionDistance}
+         */
+        DIVERSE
+    }
+
+    private final ScatterSearch<S, I> scatterSearch;
+    private final int nIslands;
+    private final int migrationInterval;
+    private final int nMigrants;
+    private final MigrationPolicy policy;
+
+    /**
+     * Create a new island model Scatter Search, use {@link ScatterSearchBuilder#buildIslands(int, int, int, MigrationPolicy)}
+     *
+     * @param name              algorithm name
+     * @param scatterSearch     scatter search executed in each island
+     * @param nIslands          number of islands, each island is executed in its own thread
+     * @param migrationInterval number of iterations between migrations
+     * @param nMigrants         number of solutions sent to the next island in each migration
+     * @param policy            how migrants are chosen
+     */
+    public IslandScatterSearch(String name, ScatterSearch<S, I> scatterSearch, int nIslands, int migrationInterval, int nMigrants, MigrationPolicy policy) {
+        super(name);
+        if (nIslands < 1) {
+            throw new IllegalArgumentException("nIslands must be >= 1, got " + nIslands);
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("migrationInterval must be >= 1, got " + migrationInterval);
+        }
+        if (nMigrants < 0) {
+            throw new IllegalArgumentException("nMigrants must be >= 0, got " + nMigrants);
+        }
+        this.scatterSearch = Objects.requireNonNull(scatterSearch);
+        this.nIslands = nIslands;
+        this.migrationInterval = migrationInterval;
+        this.nMigrants = nMigrants;
+        this.policy = Objects.requireNonNull(policy);
+    }
+
+    @Override
+    public S algorithm(I instance) {
+        var clazz = getBuilder().initializeSolution(instance).getClass();
+        var run = new IslandRun(clazz, instance);
+        var executor = Executors.newFixedThreadPool(nIslands);
+        var futures = new ArrayList<Future<S>>(nIslands);
+        try {
+            for (int i = 0; i < nIslands; i++) {
+                int island = i;
+                var random = run.nextRandom();
+                futures.add(executor.submit(() -> run.island(island, random)));
+            }
+            var results = ConcurrencyUtil.awaitAll(futures);
+            S best = results.get(0);
+            for (int i = 1; i < results.size(); i++) {
+                if (scatterSearch.objective.isBetter(results.get(i), best)) {
+                    best = results.get(i);
+                }
+            }
+            return best;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * State of a single execution, shared by all islands
+     */
+    private class IslandRun {
+        private final Class<?> clazz;
+        private final I instance;
+        private final RandomGenerator.JumpableGenerator random;
+        private final Phaser phaser = new Phaser(nIslands);
+        private final List<S[]> outbox = new ArrayList<>(nIslands);
+        private final int[] outboxPhase = new int[nIslands];
+
+        private IslandRun(Class<?> clazz, I instance) {
+            this.clazz = clazz;
+            this.instance = instance;
+            this.random = Context.getRandom() instanceof RandomGenerator.JumpableGenerator jumpable ? (RandomGenerator.JumpableGenerator) jumpable.copyAndJump() : null;
+            for (int i = 0; i < nIslands; i++) {
+                outbox.add(null);
+                outboxPhase[i] = -1;
+            }
+        }
+
+        private RandomGenerator.JumpableGenerator nextRandom() {
+            return random == null ? null : (RandomGenerator.JumpableGenerator) random.copyAndJump();
+        }
+
+        private S island(int island, RandomGenerator.JumpableGenerator islandRandom) {
+            if (islandRandom != null) {
+                Context.Configurator.setRandom(islandRandom);
+            }
+            ForkJoinPool pool = null;
+            try {
+                pool = scatterSearch.newCombinationPool();
+                var state = scatterSearch.initialState(clazz, instance, pool);
+                while (state.iterations <= scatterSearch.maxIterations && !TimeControl.isTimeUp()) {
+                    if (!scatterSearch.step(clazz, instance, state, pool)) {
+                        break;
+                    }
+                    int completed = state.iterations - 1;
+                    if (nIslands > 1 && completed % migrationInterval == 0) {
+                        if (!migrate(island, state)) {
+                            break;
+                        }
+                    }
+                }
+                log.debug("Island {} ended at iteration {}", island, state.iterations);
+                return state.refset.solutions[0];
+            } catch (RuntimeException | Error e) {
+                // Do not leave other islands waiting for this one
+                phaser.forceTermination();
+                throw e;
+            } finally {
+                phaser.arriveAndDeregister();
+                if (pool != null) {
+                    pool.shutdownNow();
+                }
+            }
+        }
+
+        /**
+         * Publish the current refset, wait for the rest of active islands, and insert migrants from the previous active island.
+         *
+         * @return false if the execution has been aborted by another island
+         */
+        private boolean migrate(int island, ScatterSearch.SearchState<S, I> state) {
+            int phase = phaser.getPhase();
+            if (phase < 0) {
+                return false;
+            }
+            synchronized (outbox) {
+                outbox.set(island, state.refset.solutions.clone());
+                outboxPhase[island] = phase;
+            }
+            if (phaser.arriveAndAwaitAdvance() < 0) {
+                return false;
+            }
+            S[] source = null;
+            synchronized (outbox) {
+                for (int d = 1; d < nIslands && source == null; d++) {
+                    int other = (island - d + nIslands) % nIslands;
+                    if (outboxPhase[other] == phase) {
+                        source = outbox.get(other);
+                    }
+                }
+            }
+            // Wait until every island has read its migrants before any outbox can be overwritten
+            if (phaser.arriveAndAwaitAdvance() < 0) {
+                return false;
+            }
+            if (source != null) {
+                var inserted = receive(state.refset, source);
+                log.debug("Island {}: received {} solutions, inserted {}", island, nMigrants, inserted.size());
+                state.insertedSolutions.addAll(inserted);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Choose migrants from the source refset and try to insert a copy of them in the target refset
+     *
+     * @param refset target refset
+     * @param source solutions in the source refset, sorted
+     * @return inserted solutions, in insertion order
+     */
+    protected Set<S> receive(RefSet<S, I> refset, S[] source) {
+        var candidates = new ArrayList<S>(source.length);
+        for (var solution : source) {
+            if (!refset.isInRefset(solution)) {
+                candidates.add(solution);
+            }
+        }
+        var migrants = switch (policy) {
+            case BEST -> candidates.subList(0, Math.min(nMigrants, candidates.size()));
+            case DIVERSE -> mostDiverse(refset, candidates);
+        };
+
+        var inserted = new LinkedHashSet<S>();
+        for (var migrant : migrants) {
+            var copy = migrant.cloneSolution();
+            scatterSearch.replaceWorstNearest(refset, copy);
+            if (refset.isInRefset(copy)) {
+                inserted.add(copy);
+            }
+        }
+        return inserted;
+    }
+
+    private List<S> mostDiverse(RefSet<S, I> refset, List<S> candidates) {
+        var distance = scatterSearch.solutionDistance;
+        double[] minDistances = new double[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            minDistances[i] = scatterSearch.minDistanceToSolList(candidates.get(i), refset.solutions);
+        }
+        var chosen = new ArrayList<S>(nMigrants);
+        var used = new boolean[candidates.size()];
+        while (chosen.size() < nMigrants && chosen.size() < candidates.size()) {
+            int best = -1;
+            for (int i = 0; i < candidates.size(); i++) {
+                if (!used[i] && (best == -1 || minDistances[i] > minDistances[best])) {
+                    best = i;
+                }
+            }
+            used[best] = true;
+            var solution = candidates.get(best);
+            chosen.add(solution);
+            for (int i = 0; i < candidates.size(); i++) {
+                if (!used[i]) {
+                    minDistances[i] = Math.min(minDistances[i], distance.distances(candidates.get(i), solution));
+                }
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method propagates the builder to the Scatter Search executed by each island.
+     */
+    @Override
+    public void setBuilder(SolutionBuilder<S, I> builder) {
+        super.setBuilder(builder);
+        this.scatterSearch.setBuilder(builder);
+    }
+
+    @Override
+    public String toString() {
+        return "IslandSS{" +
+                "islands=" + nIslands +
+                ", interval=" + migrationInterval +
+                ", migrants=" + nMigrants +
+                ", policy=" + policy +
+                ", ss=" + scatterSearch +
+                '}';
+    }
+}
@@ -9,14 +9,17 @@ import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
 import es.urjc.etsii.grafo.util.ArrayUtil;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.TimeControl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Array;
 import java.util.*;
-
-import static java.util.Comparator.comparingDouble;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends Algorithm<S, I> {
 
@@ -36,12 +39,40 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
     private final Constructive<S, I> constructiveGoodValues;
     private final Constructive<S, I> constructiveGoodDiversity;
     private final Improver<S, I> improver;
-    private final SolutionCombinator<S, I> combinator;
-    private final int maxIterations;
+    protected final SolutionCombinator<S, I> combinator;
+    protected final int maxIterations;
     private final double ratio;
-    private final SolutionDistance<S, I> solutionDistance;
-    private final boolean softRestartEnabled;
-    private final Objective<?, S, I> objective;
+    protected final SolutionDistance<S, I> solutionDistance;
+    protected final boolean softRestartEnabled;
+    protected final Objective<?, S, I> objective;
+    protected final int combinationThreads;
+    protected final boolean improveCombinedSolutions;
+
+    /**
+     * Current state of a Scatter Search execution. Each execution has its own state, algorithm instances may be shared.
+     *
+     * @param <S> Solution class
+     * @param <I> Instance class
+     */
+    protected static final class SearchState<S extends Solution<S, I>, I extends Instance> {
+        /**
+         * Current reference set
+         */
+        RefSet<S, I> refset;
+        /**
+         * Solutions inserted in the refset during the last iteration
+         */
+        Set<S> insertedSolutions;
+        /**
+         * Current iteration, starting at 1
+         */
+        int iterations = 1;
+
+        SearchState(RefSet<S, I> refset) {
+            this.refset = refset;
+            this.insertedSolutions = new LinkedHashSet<>(List.of(refset.solutions));
+        }
+    }
 
     /**
      * @param initialRatio              During refset initialization, create initialRefset size * INITIAL_RATIO solutions,
@@ -70,8 +101,50 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
             @RealParam(min = 0, max = 1) double diversityRatio,
             SolutionDistance<S, I> solutionDistance,
             @CategoricalParam(strings = {"true", "false"}) boolean softRestartEnabled
+    ) {
+        this(name, initialRatio, refsetSize, constructiveGoodValues, constructiveGoodDiversity, improver, combinator,
+                objective, maxIterations, diversityRatio, solutionDistance, softRestartEnabled, 1, false);
+    }
+
+    /**
+     * @param initialRatio              During refset initialization, create initialRefset size * INITIAL_RATIO solutions,
+     *                                  to ensure we have enough non repeated and diverse solutions
+     * @param refsetSize                Number of solutions to keep in refset
+     * @param constructiveGoodValues    Method used to generate the initial refset
+     * @param constructiveGoodDiversity Method used to generate diverse solutions
+     * @param improver                  Method to improve any given solution, such as a local search
+     * @param combinator                Creates a solution as a combination of two different solutions
+     * @param diversityRatio            Porcentage of diverse solution to use relaive to the refset size.
+     *                                  0 means use only best value criteria, 1 use only diversity criteria,
+     *                                  0.5 half the refset uses diversity criteria, the other half best value criteria.
+     * @param solutionDistance          How to calculate distance between a given set of solutions. See {@link SolutionDistance} for more details.
+     * @param combinationThreads        Number of threads used to build the initial refset and to combine solutions in each iteration.
+     *                                  If 1, everything is executed sequentially. See {@link SolutionCombinator#newSet(Solution[], Set, ForkJoinPool)}.
+     * @param improveCombinedSolutions  If true, apply the improver to each combined solution before trying to insert it in the refset.
+     *                                  Improvements are executed in parallel if combinationThreads is greater than 1.
+     */
+    public ScatterSearch(
+            String name,
+            double initialRatio,
+            int refsetSize,
+            Constructive<S, I> constructiveGoodValues,
+            Constructive<S, I> constructiveGoodDiversity,
+            Improver<S, I> improver,
+            SolutionCombinator<S, I> combinator,
+            Objective<?, S, I> objective,
+            int maxIterations,
+            double diversityRatio,
+            SolutionDistance<S, I> solutionDistance,
+            boolean softRestartEnabled,
+            int combinationThreads,
+            boolean improveCombinedSolutions
     ) {
         super(name);
+        if (combinationThreads < 1) {
+            throw new IllegalArgumentException("combinationThreads must be >= 1, got " + combinationThreads);
+        }
+        this.combinationThreads = combinationThreads;
+        this.improveCombinedSolutions = improveCombinedSolutions;
 
         this.initialRatio = initialRatio;
         this.refsetSize = refsetSize;
@@ -87,6 +160,20 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
     }
 
     protected RefSet<S, I> initializeRefset(Class<?> clazz, I instance) {
+        return initializeRefset(clazz, instance, null);
+    }
+
+    /**
+     * Build a new refset, choosing the best solutions and the most diverse solutions among a set of initial solutions.
+     *
+     * @param clazz    solution class
+     * @param instance instance
+     * @param pool     if not null, initial solutions are built and improved in parallel,
+     *                 see {@link ConcurrencyUtil#reproducibleMap(ForkJoinPool, int, java.util.function.IntFunction)},
+     *                 and distances are calculated in parallel.
+     * @return new refset
+     */
+    protected RefSet<S, I> initializeRefset(Class<?> clazz, I instance, ForkJoinPool pool) {
         int nSolutionsByDiversity = (int) (refsetSize * ratio);
         int nSolutionsByScore = refsetSize - nSolutionsByDiversity;
 
@@ -94,8 +181,8 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
         @SuppressWarnings("unchecked")
         S[] initialRefsetArray = (S[]) Array.newInstance(clazz, refsetSize);
 
-        var initialSolutions = initializeSolutions(instance, (int) (nSolutionsByScore * initialRatio), false);
-        initialSolutions.addAll(initializeSolutions(instance, (int) (nSolutionsByDiversity * initialRatio), true));
+        var initialSolutions = initializeSolutions(instance, (int) (nSolutionsByScore * initialRatio), false, pool);
+        initialSolutions.addAll(initializeSolutions(instance, (int) (nSolutionsByDiversity * initialRatio), true, pool));
         initialSolutions.sort(objective.comparator());
 
         int assignedSolutionsByScore = 0;
@@ -113,37 +200,41 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
         forceFill(instance, alreadyUsed, initialRefsetArray, 0, assignedSolutionsByScore, nSolutionsByScore, initialSolutions.size());
 
         if (nSolutionsByDiversity > 0) {
-            record SolutionDistancePair<S extends Solution<S,I>, I extends Instance>(S solution, double distance){}
-
-            var unusedSolutions = new ArrayList<SolutionDistancePair<S, I>>();
+            // Candidates and their minimum distance to the solutions already in the refset, kept in the same order
+            @SuppressWarnings("unchecked")
+            S[] unused = (S[]) Array.newInstance(clazz, initialSolutions.size());
+            int nUnused = 0;
             for (var solution : initialSolutions) {
                 if (!alreadyUsed.contains(solution)) {
-                    double distance = minDistanceToSolList(solution, initialRefsetArray);
-                    unusedSolutions.add(new SolutionDistancePair<>(solution, distance));
+                    unused[nUnused++] = solution;
                 }
             }
+            double[] minDistances = new double[nUnused];
+            int nCandidates = nUnused;
+            forEachIndex(pool, nCandidates, i -> minDistances[i] = minDistanceToSolList(unused[i], initialRefsetArray));
 
             int assignedSolutionsByDiversity = 0;
             // Add solutionsByDiversity number of solutions
-
-            for (int i = 0; i < nSolutionsByDiversity; i++) {
-                if(unusedSolutions.isEmpty()) break;
-                unusedSolutions.sort(comparingDouble(SolutionDistancePair::distance));
-
-                // Most diverse solution is last in the array, as it will have the maximum min distance
-                var chosenPair = unusedSolutions.remove(unusedSolutions.size() - 1);
-
-                initialRefsetArray[nSolutionsByScore + assignedSolutionsByDiversity] = chosenPair.solution;
+            for (int i = 0; i < nSolutionsByDiversity && nUnused > 0; i++) {
+                // Choose the solution with the maximum min distance, if tied the last one
+                int chosenIndex = 0;
+                for (int j = 1; j < nUnused; j++) {
+                    if (minDistances[j] >= minDistances[chosenIndex]) {
+                        chosenIndex = j;
+                    }
+                }
+                var chosen = unused[chosenIndex];
+                initialRefsetArray[nSolutionsByScore + assignedSolutionsByDiversity] = chosen;
                 assignedSolutionsByDiversity++;
 
+                // Remove chosen keeping order
+                nUnused--;
+                System.arraycopy(unused, chosenIndex + 1, unused, chosenIndex, nUnused - chosenIndex);
+                System.arraycopy(minDistances, chosenIndex + 1, minDistances, chosenIndex, nUnused - chosenIndex);
+                unused[nUnused] = null;
+
                 // Fast update all minimum distance values, minimum distance can only decrease with currently added solution
-                var newUnused = new ArrayList<SolutionDistancePair<S, I>>();
-                for(var pair: unusedSolutions){
-                    double distanceToNewSolution = this.solutionDistance.distances(pair.solution, chosenPair.solution);
-                    double newMinimumDistance = Math.min(distanceToNewSolution, pair.distance);
-                    newUnused.add(new SolutionDistancePair<>(pair.solution, newMinimumDistance));
-                }
-                unusedSolutions = newUnused;
+                forEachIndex(pool, nUnused, j -> minDistances[j] = Math.min(minDistances[j], this.solutionDistance.distances(unused[j], chosen)));
             }
 
             // Force fill if there are missing solutions not chosen by diversity
@@ -176,7 +267,11 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
     }
 
     protected RefSet<S, I> softRestart(Class<?> clazz, I instance, RefSet<S, I> current) {
-        var newRefset = initializeRefset(clazz, instance);
+        return softRestart(clazz, instance, current, null);
+    }
+
+    protected RefSet<S, I> softRestart(Class<?> clazz, I instance, RefSet<S, I> current, ForkJoinPool pool) {
+        var newRefset = initializeRefset(clazz, instance, pool);
         // replace nearest worse solution with this one
         replaceWorstNearest(newRefset, current.solutions[0]);
         return newRefset;
@@ -225,35 +320,85 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
         // Obtain reference to real solution class implementation
         var clazz = getBuilder().initializeSolution(instance).getClass(); // a bit hacky, improve?
 
-        var refset = initializeRefset(clazz, instance);
-        Set<S> insertedSolutions = new HashSet<>(List.of(refset.solutions));
-        debugStatus(0, refset, Set.of(), insertedSolutions);
-
-        int iterations = 1;
-        while (iterations <= maxIterations && !TimeControl.isTimeUp()) {
-            var candidateSolutions = combinator.newSet(refset.solutions, insertedSolutions);
-            insertedSolutions = mergeToSetByScore(refset, candidateSolutions);
-            debugStatus(iterations, refset, candidateSolutions, insertedSolutions);
-            if (insertedSolutions.isEmpty()) {
-                // If we have not found a single better value for the refset, do softrestart
-                if (this.softRestartEnabled && !TimeControl.isTimeUp()) {
-                    log.debug("Soft restart at iteration {} / {}", iterations, maxIterations);
-                    refset = softRestart(clazz, instance, refset);
-                    insertedSolutions = new HashSet<>(refset.currentRefset);
-                } else {
-                    log.debug("Ending at iteration {} / {}", iterations, maxIterations);
+        var pool = newCombinationPool();
+        try {
+            var state = initialState(clazz, instance, pool);
+            while (state.iterations <= maxIterations && !TimeControl.isTimeUp()) {
+                if (!step(clazz, instance, state, pool)) {
                     break;
                 }
             }
-            iterations++;
-        }
 
-        if (iterations == maxIterations) {
-            log.debug("Ending, maxiter of {} reached.", maxIterations);
+            if (state.iterations > maxIterations) {
+                log.debug("Ending, maxiter of {} reached.", maxIterations);
+            }
+
+            // Refset is always kept sorted
+            return state.refset.solutions[0];
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
         }
+    }
+
+    /**
+     * Create the pool used to initialize the refset and combine solutions, a new pool is created for each execution
+     * so pool threads inherit the context of the thread executing the algorithm. Pool workers do not consume
+     * the random state of the thread that creates them, see {@link Context#workerThreadFactory()}.
+     *
+     * @return new pool, or null if solutions should be combined sequentially
+     */
+    protected ForkJoinPool newCombinationPool() {
+        return combinationThreads > 1 ? new ForkJoinPool(combinationThreads, Context.workerThreadFactory(), null, false) : null;
+    }
 
-        // Refset is always kept sorted
-        return refset.solutions[0];
+    /**
+     * Initialize the refset and create the state for a new execution
+     *
+     * @param clazz    solution class
+     * @param instance instance
+     * @param pool     pool used to initialize the refset in parallel, null to initialize it sequentially
+     * @return initial state
+     */
+    protected SearchState<S, I> initialState(Class<?> clazz, I instance, ForkJoinPool pool) {
+        var state = new SearchState<>(initializeRefset(clazz, instance, pool));
+        debugStatus(0, state.refset, Set.of(), state.insertedSolutions);
+        return state;
+    }
+
+    /**
+     * Execute a single Scatter Search iteration: combine solutions, merge them into the refset,
+     * and soft restart if the refset has not changed.
+     *
+     * @param clazz    solution class
+     * @param instance instance
+     * @param state    current state, modified by this method
+     * @param pool     pool used to combine solutions, null to combine them sequentially
+     * @return true if the search should continue, false if it has converged
+     */
+    protected boolean step(Class<?> clazz, I instance, SearchState<S, I> state, ForkJoinPool pool) {
+        var candidateSolutions = pool == null ?
+                combinator.newSet(state.refset.solutions, state.insertedSolutions) :
+                combinator.newSet(state.refset.solutions, state.insertedSolutions, pool);
+        if (improveCombinedSolutions) {
+            candidateSolutions = improveAll(candidateSolutions, pool);
+        }
+        state.insertedSolutions = mergeToSetByScore(state.refset, candidateSolutions);
+        debugStatus(state.iterations, state.refset, candidateSolutions, state.insertedSolutions);
+        if (state.insertedSolutions.isEmpty()) {
+            // If we have not found a single better value for the refset, do softrestart
+            if (this.softRestartEnabled && !TimeControl.isTimeUp()) {
+                log.debug("Soft restart at iteration {} / {}", state.iterations, maxIterations);
+                state.refset = softRestart(clazz, instance, state.refset, pool);
+                state.insertedSolutions = new LinkedHashSet<>(List.of(state.refset.solutions));
+            } else {
+                log.debug("Ending at iteration {} / {}", state.iterations, maxIterations);
+                return false;
+            }
+        }
+        state.iterations++;
+        return true;
     }
 
     protected void debugStatus(int iterations, RefSet<S, I> refsets, Set<S> newSet, Set<S> insertedSolutions) {
@@ -279,7 +424,14 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
 
 
     protected List<S> initializeSolutions(I instance, int size, boolean diverse) {
-        List<S> initialSolutions = new ArrayList<>();
+        return initializeSolutions(instance, size, diverse, null);
+    }
+
+    protected List<S> initializeSolutions(I instance, int size, boolean diverse, ForkJoinPool pool) {
+        if (pool != null) {
+            return new ArrayList<>(ConcurrencyUtil.reproducibleMap(pool, size, i -> initializeSolution(instance, diverse)));
+        }
+        List<S> initialSolutions = new ArrayList<>(size);
         for (int i = 0; i < size; i++) {
             var solution = initializeSolution(instance, diverse);
             initialSolutions.add(solution);
@@ -287,6 +439,16 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
         return initialSolutions;
     }
 
+    private static void forEachIndex(ForkJoinPool pool, int n, IntConsumer action) {
+        if (pool == null) {
+            for (int i = 0; i < n; i++) {
+                action.accept(i);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(action)).join();
+        }
+    }
+
     protected S initializeSolution(I instance, boolean diverse) {
         var solution = this.newSolution(instance);
         if (diverse) {
@@ -298,11 +460,42 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
         return improvedSolution;
     }
 
+    /**
+     * Improve the given solutions, keeping their order
+     *
+     * @param solutions solutions to improve
+     * @param pool      pool used to improve solutions in parallel, see {@link ConcurrencyUtil#reproducibleMap(ForkJoinPool, int, java.util.function.IntFunction)}.
+     *                  If null, solutions are improved sequentially.
+     * @return improved solutions, without duplicates
+     */
+    protected Set<S> improveAll(Set<S> solutions, ForkJoinPool pool) {
+        var improved = new LinkedHashSet<S>(solutions.size());
+        if (pool == null) {
+            for (var solution : solutions) {
+                improved.add(this.improver.improve(solution));
+            }
+        } else {
+            var list = new ArrayList<>(solutions);
+            improved.addAll(ConcurrencyUtil.reproducibleMap(pool, list.size(), i -> this.improver.improve(list.get(i))));
+        }
+        return improved;
+    }
+
+    /**
+     * Try to insert new solutions in the refset, best solutions first.
+     * Solutions with the same objective function value are considered in the iteration order of newSolutions,
+     * so the result is deterministic if the iteration order is.
+     *
+     * @param refset       current refset
+     * @param newSolutions candidate solutions
+     * @return solutions inserted in the refset, in insertion order
+     */
     protected Set<S> mergeToSetByScore(RefSet<S, I> refset, Set<S> newSolutions) {
         double worstValue = objective.evalSol(refset.solutions[refset.solutions.length - 1]);
-        Set<S> insertedElements = new HashSet<>();
+        Set<S> insertedElements = new LinkedHashSet<>();
 
         var sortedNewSolutions = new ArrayList<>(newSolutions);
+        // Stable sort, keeps iteration order for ties
         sortedNewSolutions.sort(objective.comparator());
 
         for (var solution : sortedNewSolutions) {
@@ -337,6 +530,8 @@ public class ScatterSearch<S extends Solution<S, I>, I extends Instance> extends
                 ", const=" + constructiveGoodValues +
                 ", impr=" + improver +
                 ", maxIter=" + maxIterations +
+                (combinationThreads > 1 ? ", threads=" + combinationThreads : "") +
+                (improveCombinedSolutions ? ", improveComb=true" : "") +
                 '}';
     }
 }
@@ -74,6 +74,16 @@ public class ScatterSearchBuilder<S extends Solution<S,I>, I extends Instance> {
 
     protected boolean softRestartEnabled = false;
 
+    /**
+     * Number of threads used to combine solutions in each iteration
+     */
+    protected int combinationThreads = 1;
+
+    /**
+     * Improve combined solutions before merging them into the refset
+     */
+    protected boolean improveCombinedSolutions = false;
+
     /**
      * Create a new Scatter Search Builder. After configuring the parameters, call ref build()
      */
@@ -232,6 +242,35 @@ public class ScatterSearchBuilder<S extends Solution<S,I>, I extends Instance> {
         return this;
     }
 
+    /**
+     * Build the initial refset and combine solutions in parallel in each iteration,
+     * see {@link SolutionCombinator#newSet(Solution[], java.util.Set, java.util.concurrent.ForkJoinPool)}.
+     * If not configured, defaults to 1, ie everything is executed sequentially.
+     * When using more than one thread, each initial solution is built using its own random generator,
+     * so results for a given seed do not depend on the number of threads, but differ from the sequential version.
+     * @param nThreads number of threads used to initialize the refset and combine solutions
+     * @return current builder
+     */
+    public ScatterSearchBuilder<S,I> withParallelCombination(int nThreads){
+        if(nThreads < 1){
+            throw new IllegalArgumentException("nThreads must be >0");
+        }
+        this.combinationThreads = nThreads;
+        return this;
+    }
+
+    /**
+     * Apply the configured improver to every combined solution before trying to insert it in the refset.
+     * If parallel combination is enabled, solutions are also improved in parallel.
+     * If not configured, defaults to false, ie the improver is only applied to the solutions generated by the constructive methods.
+     * @param enabled true to improve combined solutions
+     * @return current builder
+     */
+    public ScatterSearchBuilder<S,I> withCombinedSolutionImprovement(boolean enabled){
+        this.improveCombinedSolutions = enabled;
+        return this;
+    }
+
     /**
      * Build a Scatter Search algorithm with the configured parameters of this builder
      * @return New instance of Scatter Search algorithm. Same builder can generate multiple algorithm instances.
@@ -254,7 +293,25 @@ public class ScatterSearchBuilder<S extends Solution<S,I>, I extends Instance> {
                 maxIterations,
                 diversityRatio,
                 solutionDistance,
-                softRestartEnabled
+                softRestartEnabled,
+                combinationThreads,
+                improveCombinedSolutions
         );
     }
+
+    /**
+     * Build an island model Scatter Search, where each island executes a Scatter Search with the configured parameters of this builder.
+     * See {@link IslandScatterSearch} for more details.
+     * @param nIslands number of islands, each island is executed in its own thread
+     * @param migrationInterval number of iterations between migrations
+     * @param nMigrants number of solutions sent to the next island in each migration
+     * @param policy how migrants are chosen
+     * @return New instance of island model Scatter Search algorithm
+     */
+    public IslandScatterSearch<S,I> buildIslands(int nIslands, int migrationInterval, int nMigrants, IslandScatterSearch.MigrationPolicy policy){
+        if(policy == IslandScatterSearch.MigrationPolicy.DIVERSE && this.solutionDistance == null){
+            throw new IllegalArgumentException("Diverse migration requires a solution distance, configure it using withDistance");
+        }
+        return new IslandScatterSearch<>(name, build(), nIslands, migrationInterval, nMigrants, policy);
+    }
 }
@@ -3,10 +3,14 @@ package es.urjc.etsii.grafo.algorithms.scattersearch;
 import es.urjc.etsii.grafo.annotations.AlgorithmComponent;
 import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 @AlgorithmComponent
 public abstract class SolutionCombinator<S extends Solution<S, I>, I extends Instance> {
@@ -19,7 +23,7 @@ public abstract class SolutionCombinator<S extends Solution<S, I>, I extends Ins
      */
     public Set<S> newSet(S[] currentSet, Set<S> newSolutions) {
         var newsize = newSolutions.size() * currentSet.length;
-        var newset = new HashSet<S>(newsize);
+        var newset = new LinkedHashSet<S>(newsize);
         for (var solution : newSolutions) {
             for (var refSolution : currentSet) {
                 var combinedSolution = this.apply(solution, refSolution);
@@ -29,10 +33,53 @@ public abstract class SolutionCombinator<S extends Solution<S, I>, I extends Ins
         return newset;
     }
 
+    /**
+     * Parallel version of {@link #newSet(Solution[], Set)}, each pair of solutions is combined in a different task,
+     * see {@link ConcurrencyUtil#reproducibleMap(ForkJoinPool, int, java.util.function.IntFunction)}.
+     * Duplicated solutions are detected concurrently while tasks are executing. If several tasks generate equal solutions,
+     * the one generated by the first pair in sequential order is kept, so the returned set, including its iteration order,
+     * only depends on the initial random state and the iteration order of newSolutions.
+     * Override this method if {@link #newSet(Solution[], Set)} is overridden and the custom implementation can be parallelized.
+     *
+     * @param currentSet   current reference set, DO NOT MODIFY
+     * @param newSolutions solutions added to refset in last iteration
+     * @param pool         pool used to execute tasks
+     * @return new reference set
+     */
+    public Set<S> newSet(S[] currentSet, Set<S> newSolutions, ForkJoinPool pool) {
+        var left = new ArrayList<>(newSolutions);
+        int nTasks = left.size() * currentSet.length;
+        // Position of the first occurrence of each distinct solution, encoded as task index and index inside task results
+        var firstSeen = new ConcurrentHashMap<S, Long>(nTasks);
+        var results = ConcurrencyUtil.reproducibleMap(pool, nTasks, i -> {
+            var combined = this.apply(left.get(i / currentSet.length), currentSet[i % currentSet.length]);
+            for (int j = 0; j < combined.size(); j++) {
+                firstSeen.merge(combined.get(j), position(i, j), Math::min);
+            }
+            return combined;
+        });
+
+        var newset = new LinkedHashSet<S>(firstSeen.size());
+        for (int i = 0; i < results.size(); i++) {
+            var combined = results.get(i);
+            for (int j = 0; j < combined.size(); j++) {
+                var solution = combined.get(j);
+                if (firstSeen.get(solution) == position(i, j)) {
+                    newset.add(solution);
+                }
+            }
+        }
+        return newset;
+    }
+
+    private static long position(int task, int index) {
+        return ((long) task << 32) | index;
+    }
+
     /**
      * Create a new solution combining left and right. If this method is not flexible enough,
      * leave an empty implementation (throw new UnsupportedOperationException)
-     * and override method newSet
+     * and override method newSet. When combining in parallel, this method is called concurrently from several threads.
      * @param left origin solution, one of the recently added solutions to the refset
      * @param right target solution, one of the old solutions in the ref set
      * @return new solution, such as List.of(solution)
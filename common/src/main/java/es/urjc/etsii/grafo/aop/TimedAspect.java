@@ -4,22 +4,29 @@ import es.urjc.etsii.grafo.improve.Improver;
 import es.urjc.etsii.grafo.metrics.Metrics;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.TimeUtil;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.util.concurrent.TimeUnit;
 
 @Aspect
 @SuppressWarnings({"rawtypes", "unchecked"}) // todo investigate if we can avoid using raw types, probably not
 public final class TimedAspect {
 
+    private static final Logger log = LoggerFactory.getLogger(TimedAspect.class);
+
+    /**
+     * Id of the call being executed by each thread, or {@link ComponentTimes#ROOT}.
+     * Saved and restored around each timed call, so it works as a stack of the calls in progress.
+     */
+    private static final ThreadLocal<int[]> currentCall = ThreadLocal.withInitial(() -> new int[]{ComponentTimes.ROOT});
+
     @Around("execution(* *(..)) && @annotation(es.urjc.etsii.grafo.aop.TimeStats)")
     public Object log(ProceedingJoinPoint point) throws Throwable {
         return commonLog(point);
@@ -58,25 +65,36 @@ public final class TimedAspect {
     }
 
     public Object commonLog(ProceedingJoinPoint point) throws Throwable {
-        var methodSignature = (MethodSignature) point.getSignature();
-        Method method = methodSignature.getMethod();
-        //var clazz = method.getDeclaringClass();
-        var clazz = point.getThis().getClass();
-        Logger log = LoggerFactory.getLogger(clazz);
-
-        var annotation = method.getAnnotation(TimeStats.class);
-        long start = System.nanoTime();
-        if(Metrics.areMetricsEnabled()){
-            Context.addTimeEvent(true, start, clazz.getSimpleName(), method.getName());
+        if(!Metrics.areMetricsEnabled()){
+            return point.proceed();
         }
-        var retVal = point.proceed();
-        if(Metrics.areMetricsEnabled()){
-            long end = System.nanoTime();
-            Context.addTimeEvent(false, end, clazz.getSimpleName(), method.getName());
-            log.trace("{}() took {} ms", method.getName(), TimeUtil.convert(end-start, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS));
+        var times = Context.getComponentTimes();
+        var current = currentCall.get();
+        int parent = current[0];
+        int id = ComponentTimes.callId(parent, componentId(point));
+        current[0] = id;
+        try {
+            if(!times.enter(id)){
+                // Not sampled, only counted
+                return point.proceed();
+            }
+            long start = System.nanoTime();
+            var retVal = point.proceed();
+            long elapsed = System.nanoTime() - start;
+            times.record(id, elapsed);
+            if(log.isTraceEnabled()){
+                log.trace("{}::{}() took {} ms", point.getSignature().getDeclaringType().getSimpleName(), point.getSignature().getName(), TimeUtil.convert(elapsed, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS));
+            }
+            return retVal;
+        } finally {
+            current[0] = parent;
         }
+    }
 
-        return retVal;
+    private static int componentId(ProceedingJoinPoint point) {
+        var target = point.getThis();
+        Class<?> clazz = target != null ? target.getClass() : point.getSignature().getDeclaringType();
+        return ComponentTimes.componentId(clazz, point.getSignature().getName());
     }
 }
 
@@ -0,0 +1,18 @@
+package es.urjc.etsii.grafo.config;
+
+/**
+ * Kind of threads used by the parallel executor to run work units
+ */
+public enum ExecutorType {
+    /**
+     * Fixed pool of nWorkers platform threads, each work unit uses one thread until it ends
+     */
+    PLATFORM,
+
+    /**
+     * One virtual thread per work unit, at most nWorkers of them using the CPU at the same time.
+     * Work units may give back their CPU slot while blocked, see {@link es.urjc.etsii.grafo.util.ConcurrencyUtil#blocking(java.util.function.Supplier)}.
+     * Recommended when algorithms block on external solvers or subprocesses.
+     */
+    VIRTUAL
+}
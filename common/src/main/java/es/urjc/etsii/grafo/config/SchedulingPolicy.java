@@ -0,0 +1,18 @@
+package es.urjc.etsii.grafo.config;
+
+/**
+ * Order in which the parallel executor starts work units.
+ * Results are always reported in the same order, regardless of the policy.
+ */
+public enum SchedulingPolicy {
+    /**
+     * Start work units in report order: by instance, then algorithm, then repetition
+     */
+    ORDERED,
+
+    /**
+     * Start the most expensive work units first, using a work stealing pool,
+     * so expensive work units do not delay the end of the experiment while most workers are idle
+     */
+    LONGEST_FIRST
+}
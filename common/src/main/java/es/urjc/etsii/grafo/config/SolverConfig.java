@@ -44,6 +44,29 @@ public class SolverConfig {
      */
     private int nWorkers = -1;
 
+    /**
+     * Maximum number of work units submitted to the parallel executor but not processed yet,
+     * either running or completed and waiting for previous work units to be processed.
+     * Limits memory usage, as each completed work unit keeps its solution until processed.
+     */
+    private int maxPendingWorkUnits = -1;
+
+    /**
+     * Order in which the parallel executor starts work units
+     */
+    private SchedulingPolicy scheduling = SchedulingPolicy.ORDERED;
+
+    /**
+     * Kind of threads used by the parallel executor. Using virtual threads enables the parallel executor.
+     */
+    private ExecutorType executor = ExecutorType.PLATFORM;
+
+    /**
+     * Number of threads each work unit may use for its own tasks, see Context::submit.
+     * The total CPU budget is nWorkers * algorithmThreads, shared by all work units.
+     */
+    private int algorithmThreads = 1;
+
     /**
      * Execute benchmark before starting solver
      */
@@ -95,11 +118,69 @@ public class SolverConfig {
      */
     private boolean autorestart = true;
 
+    /**
+     * Stop autoconfig executions early if their area under curve can no longer beat the best executions
+     * on the same instance and seed. Only applies when the main objective is minimized.
+     */
+    private boolean racing = false;
+
+    /**
+     * Number of best executions kept for each instance and seed when racing, an execution is stopped once it is worse than all of them
+     */
+    private int racingElites = 3;
+
+    /**
+     * How often running executions are compared against the best executions when racing, in milliseconds
+     */
+    private long racingCheckMillis = 250;
+
     /**
      * Metrics tracking
      */
     private boolean metrics = false;
 
+    /**
+     * Keep at most one data point per time interval of this duration for each objective metric, in milliseconds. -1 to keep every improvement.
+     */
+    private long metricsResolutionMillis = -1;
+
+    /**
+     * When metrics are enabled, measure the execution time of one in every N calls to each algorithm component. 1 measures every call.
+     */
+    private int timeStatsSampling = 1;
+
+    /**
+     * Global wall clock budget for solving all experiments, in milliseconds. -1 to disable.
+     * When consumed, running work units are cancelled and pending ones end as soon as they start.
+     */
+    private long globalTimeLimitMillis = -1;
+
+    /**
+     * Number of shards work units are split into, each one solved by a different process. 1 to disable sharding.
+     */
+    private int shards = 1;
+
+    /**
+     * Shard solved by this process, or -1 if this process coordinates the shards instead of solving one
+     */
+    private int shardIndex = -1;
+
+    /**
+     * Folder where shards write their results, must be shared by all processes
+     */
+    private String shardFolder = "shards";
+
+    /**
+     * If true, the coordinator launches a local process for each shard. If false, shards must be launched manually.
+     */
+    private boolean launchShards = true;
+
+    /**
+     * Identifies the results of a sharded execution, so results left by previous executions are ignored.
+     * If empty, the coordinator generates one and passes it to the shards it launches.
+     */
+    private String shardRunId = "";
+
 
     /**
      * <p>Getter for the field <code>seed</code>.</p>
@@ -158,10 +239,10 @@ public class SolverConfig {
     /**
      * <p>isParallelExecutor.</p>
      *
-     * @return a boolean.
+     * @return true if the parallel executor is enabled, or if the executor uses virtual threads.
      */
     public boolean isParallelExecutor() {
-        return parallelExecutor;
+        return parallelExecutor || executor == ExecutorType.VIRTUAL;
     }
 
     /**
@@ -194,6 +275,75 @@ public class SolverConfig {
         this.nWorkers = nWorkers;
     }
 
+    /**
+     * Maximum number of work units submitted to the parallel executor but not processed yet.
+     * If set to 0 or a negative value, returns 4 * {@link #getnWorkers()}
+     * @return maximum number of pending work units, always greater than 0
+     */
+    public int getMaxPendingWorkUnits() {
+        if (maxPendingWorkUnits < 1) {
+            return Math.max(1, 4 * getnWorkers());
+        }
+        return maxPendingWorkUnits;
+    }
+
+    /**
+     * Maximum number of work units submitted to the parallel executor but not processed yet
+     * @param maxPendingWorkUnits maximum number of pending work units, 0 or negative to decide automatically
+     */
+    public void setMaxPendingWorkUnits(int maxPendingWorkUnits) {
+        this.maxPendingWorkUnits = maxPendingWorkUnits;
+    }
+
+    /**
+     * Order in which the parallel executor starts work units
+     * @return scheduling policy
+     */
+    public SchedulingPolicy getScheduling() {
+        return scheduling;
+    }
+
+    /**
+     * Order in which the parallel executor starts work units
+     * @param scheduling scheduling policy
+     */
+    public void setScheduling(SchedulingPolicy scheduling) {
+        this.scheduling = scheduling;
+    }
+
+    /**
+     * Kind of threads used by the parallel executor
+     * @return executor type
+     */
+    public ExecutorType getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Kind of threads used by the parallel executor. Using virtual threads enables the parallel executor.
+     * @param executor executor type
+     */
+    public void setExecutor(ExecutorType executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Number of threads each work unit may use for its own tasks, see Context::submit.
+     * If set to 1 or less, returns 1: tasks submitted by algorithms run in the calling thread.
+     * @return number of threads per work unit, always greater than 0
+     */
+    public int getAlgorithmThreads() {
+        return Math.max(1, algorithmThreads);
+    }
+
+    /**
+     * Number of threads each work unit may use for its own tasks, see Context::submit.
+     * @param algorithmThreads number of threads per work unit, 1 to run submitted tasks in the calling thread
+     */
+    public void setAlgorithmThreads(int algorithmThreads) {
+        this.algorithmThreads = algorithmThreads;
+    }
+
     /**
      * <p>isBenchmark.</p>
      *
@@ -254,6 +404,38 @@ public class SolverConfig {
         this.metrics = metrics;
     }
 
+    /**
+     * Time resolution of objective metrics, see {@link es.urjc.etsii.grafo.metrics.MetricRetention#monotone(es.urjc.etsii.grafo.algorithms.FMode, long, java.util.concurrent.TimeUnit)}
+     * @return resolution in milliseconds, or -1 if every improvement is kept
+     */
+    public long getMetricsResolutionMillis() {
+        return metricsResolutionMillis;
+    }
+
+    /**
+     * Time resolution of objective metrics
+     * @param metricsResolutionMillis resolution in milliseconds, or -1 to keep every improvement
+     */
+    public void setMetricsResolutionMillis(long metricsResolutionMillis) {
+        this.metricsResolutionMillis = metricsResolutionMillis;
+    }
+
+    /**
+     * Sampling period used when measuring the execution time of algorithm components
+     * @return N, where one in every N calls to each component is timed
+     */
+    public int getTimeStatsSampling() {
+        return timeStatsSampling;
+    }
+
+    /**
+     * Sampling period used when measuring the execution time of algorithm components
+     * @param timeStatsSampling N, where one in every N calls to each component is timed. 1 to time every call.
+     */
+    public void setTimeStatsSampling(int timeStatsSampling) {
+        this.timeStatsSampling = timeStatsSampling;
+    }
+
     public long getIgnoreInitialMillis() {
         return ignoreInitialMillis;
     }
@@ -293,6 +475,30 @@ public class SolverConfig {
         this.autorestart = autorestart;
     }
 
+    public boolean isRacing() {
+        return racing;
+    }
+
+    public void setRacing(boolean racing) {
+        this.racing = racing;
+    }
+
+    public int getRacingElites() {
+        return racingElites;
+    }
+
+    public void setRacingElites(int racingElites) {
+        this.racingElites = racingElites;
+    }
+
+    public long getRacingCheckMillis() {
+        return racingCheckMillis;
+    }
+
+    public void setRacingCheckMillis(long racingCheckMillis) {
+        this.racingCheckMillis = racingCheckMillis;
+    }
+
     public int getMaxDerivationRepetition() {
         return maxDerivationRepetition;
     }
@@ -332,4 +538,116 @@ public class SolverConfig {
     public void setIntegrationKey(String integrationKey) {
         this.integrationKey = integrationKey;
     }
+
+    /**
+     * Global wall clock budget for solving all experiments, in milliseconds
+     * @return time limit in milliseconds, or -1 if disabled
+     */
+    public long getGlobalTimeLimitMillis() {
+        return globalTimeLimitMillis;
+    }
+
+    /**
+     * Global wall clock budget for solving all experiments, in milliseconds
+     * @param globalTimeLimitMillis time limit in milliseconds, or -1 to disable
+     */
+    public void setGlobalTimeLimitMillis(long globalTimeLimitMillis) {
+        this.globalTimeLimitMillis = globalTimeLimitMillis;
+    }
+
+    /**
+     * Number of shards work units are split into, each one solved by a different process
+     * @return number of shards, 1 if sharding is disabled
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Number of shards work units are split into, each one solved by a different process
+     * @param shards number of shards, 1 to disable sharding
+     */
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Shard solved by this process
+     * @return shard index in range [0, shards), or -1 if this process does not solve a shard
+     */
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    /**
+     * Shard solved by this process
+     * @param shardIndex shard index in range [0, shards), or -1 if this process does not solve a shard
+     */
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    /**
+     * Folder where shards write their results
+     * @return folder path
+     */
+    public String getShardFolder() {
+        return shardFolder;
+    }
+
+    /**
+     * Folder where shards write their results, must be shared by all processes
+     * @param shardFolder folder path
+     */
+    public void setShardFolder(String shardFolder) {
+        this.shardFolder = shardFolder;
+    }
+
+    /**
+     * Should the coordinator launch a local process for each shard?
+     * @return true if shards are launched automatically, false if they are launched manually
+     */
+    public boolean isLaunchShards() {
+        return launchShards;
+    }
+
+    /**
+     * Should the coordinator launch a local process for each shard?
+     * @param launchShards true to launch shards automatically, false if they are launched manually
+     */
+    public void setLaunchShards(boolean launchShards) {
+        this.launchShards = launchShards;
+    }
+
+    /**
+     * Identifies the results of a sharded execution
+     * @return run id, or an empty string if not set
+     */
+    public String getShardRunId() {
+        return shardRunId;
+    }
+
+    /**
+     * Identifies the results of a sharded execution, must be the same in the coordinator and every shard
+     * @param shardRunId run id
+     */
+    public void setShardRunId(String shardRunId) {
+        this.shardRunId = shardRunId;
+    }
+
+    /**
+     * Does this process solve a shard of the work units?
+     * @return true if this process is a shard worker, false otherwise
+     */
+    public boolean isShardWorker() {
+        return shardIndex >= 0;
+    }
+
+    /**
+     * Does this process coordinate the shards, collecting their results instead of solving work units?
+     * @return true if sharding is enabled and this process is not a shard worker, false otherwise
+     */
+    public boolean isShardCoordinator() {
+        return shards > 1 && shardIndex < 0;
+    }
 }
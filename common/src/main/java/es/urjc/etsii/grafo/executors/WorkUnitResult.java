@@ -5,19 +5,18 @@ import es.urjc.etsii.grafo.algorithms.EmptyAlgorithm;
 import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.metrics.MetricsStorage;
 import es.urjc.etsii.grafo.solution.Solution;
-import es.urjc.etsii.grafo.util.TimeStatsEvent;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-public record WorkUnitResult<S extends Solution<S, I>, I extends Instance>(boolean success, String experimentName, String instancePath, String instanceId, Algorithm<S,I> algorithm, String iteration, S solution, Map<String, Object> solutionProperties, long executionTime, long timeToTarget, MetricsStorage metrics, List<TimeStatsEvent> timeData) {
+public record WorkUnitResult<S extends Solution<S, I>, I extends Instance>(boolean success, String experimentName, String instancePath, String instanceId, Algorithm<S,I> algorithm, String iteration, S solution, Map<String, Object> solutionProperties, long executionTime, long timeToTarget, MetricsStorage metrics, ComponentTimes timeData) {
 
-    public static <S extends Solution<S, I>, I extends Instance> WorkUnitResult<S,I> ok(WorkUnit<S,I> workUnit, String instanceId, S solution, long executionTime, long timeToTarget, MetricsStorage metrics, List<TimeStatsEvent> timeData) {
+    public static <S extends Solution<S, I>, I extends Instance> WorkUnitResult<S,I> ok(WorkUnit<S,I> workUnit, String instanceId, S solution, long executionTime, long timeToTarget, MetricsStorage metrics, ComponentTimes timeData) {
         return new WorkUnitResult<>(true, workUnit.experimentName(), workUnit.instancePath(), instanceId, workUnit.algorithm(), workUnit.i(), solution, executionTime, timeToTarget, metrics, timeData);
     }
 
-    public static <S extends Solution<S, I>, I extends Instance> WorkUnitResult<S,I> failure(WorkUnit<S,I> workUnit, String instanceId, long executionTime, long timeToTarget, List<TimeStatsEvent> timeData) {
+    public static <S extends Solution<S, I>, I extends Instance> WorkUnitResult<S,I> failure(WorkUnit<S,I> workUnit, String instanceId, long executionTime, long timeToTarget, ComponentTimes timeData) {
         return new WorkUnitResult<>(false, workUnit.experimentName(), workUnit.instancePath(), instanceId, workUnit.algorithm(), workUnit.i(), null, executionTime, timeToTarget, null, timeData);
     }
 
@@ -29,15 +28,19 @@ public record WorkUnitResult<S extends Solution<S, I>, I extends Instance>(boole
         return new WorkUnitResult<>(workUnit.success(), workUnit.experimentName(), workUnit.instancePath(), workUnit.instanceId(), new EmptyAlgorithm<>("bestalg"), "bestiter", workUnit.solution(), workUnit.executionTime(), workUnit.timeToTarget(), workUnit.metrics(), workUnit.timeData());
     }
 
-    public WorkUnitResult(boolean success, String experimentName, String instancePath, String instanceId, Algorithm<S,I> algorithm, int iteration, S solution, long executionTime, long timeToTarget, MetricsStorage metrics, List<TimeStatsEvent> timeData){
+    public WorkUnitResult(boolean success, String experimentName, String instancePath, String instanceId, Algorithm<S,I> algorithm, int iteration, S solution, long executionTime, long timeToTarget, MetricsStorage metrics, ComponentTimes timeData){
         this(success, experimentName, instancePath, instanceId, algorithm, String.valueOf(iteration), solution, executionTime, timeToTarget, metrics, timeData);
     }
 
-    public WorkUnitResult(boolean success, String experimentName, String instancePath, String instanceId, Algorithm<S,I> algorithm, String iteration, S solution, long executionTime, long timeToTarget, MetricsStorage metrics, List<TimeStatsEvent> timeData){
+    public WorkUnitResult(boolean success, String experimentName, String instancePath, String instanceId, Algorithm<S,I> algorithm, String iteration, S solution, long executionTime, long timeToTarget, MetricsStorage metrics, ComponentTimes timeData){
         this(success, experimentName, instancePath, instanceId, algorithm, iteration, solution, computeSolutionProperties(solution), executionTime, timeToTarget, metrics, timeData);
     }
 
     public static <S extends Solution<S,I>, I extends Instance> Map<String, Object> computeSolutionProperties(S solution) {
+        if(solution == null){
+            // failed work units do not have a solution
+            return Map.of();
+        }
         var generators = solution.customProperties();
         if(generators == null || generators.isEmpty()){
             return Map.of();
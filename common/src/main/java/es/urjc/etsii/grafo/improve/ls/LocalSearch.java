@@ -6,6 +6,7 @@ import es.urjc.etsii.grafo.metrics.Metrics;
 import es.urjc.etsii.grafo.solution.Move;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.DeltaNeighborhood;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
 import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.TimeControl;
@@ -35,6 +36,11 @@ public abstract class LocalSearch<M extends Move<S, I>, S extends Solution<S, I>
     protected final Neighborhood<M, S, I> neighborhood;
     protected final Objective<M, S, I> objective;
 
+    /**
+     * Same as neighborhood if it can be explored using primitive deltas for the current objective, null otherwise.
+     * See {@link DeltaNeighborhood}.
+     */
+    protected final DeltaNeighborhood<M, S, I> deltaNeighborhood;
 
     /**
      * Create a new local search method using the given neighborhood
@@ -46,6 +52,18 @@ public abstract class LocalSearch<M extends Move<S, I>, S extends Solution<S, I>
         super(objective);
         this.objective = objective;
         this.neighborhood = neighborhood;
+        this.deltaNeighborhood = asDeltaNeighborhood(objective, neighborhood);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> DeltaNeighborhood<M, S, I> asDeltaNeighborhood(Objective<M, S, I> objective, Neighborhood<M, S, I> neighborhood) {
+        if (objective != null && neighborhood instanceof DeltaNeighborhood<?, ?, ?> dn) {
+            var deltaNeighborhood = (DeltaNeighborhood<M, S, I>) dn;
+            if (deltaNeighborhood.supportsDeltas(objective)) {
+                return deltaNeighborhood;
+            }
+        }
+        return null;
     }
 
     /**
@@ -68,7 +86,8 @@ public abstract class LocalSearch<M extends Move<S, I>, S extends Solution<S, I>
     public S improve(S solution) {
         int rounds = 1;
         boolean improved = true;
-        while (!TimeControl.isTimeUp() && improved) {
+        var deadline = TimeControl.deadline();
+        while (!deadline.isExpired() && improved) {
             log.debug("Executing iteration {} for {}", rounds, this.getClass().getSimpleName());
             improved = iteration(solution);
             rounds++;
@@ -2,11 +2,17 @@ package es.urjc.etsii.grafo.improve.ls;
 
 import es.urjc.etsii.grafo.annotations.AutoconfigConstructor;
 import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.metrics.Metrics;
 import es.urjc.etsii.grafo.solution.Move;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.CachedNeighborhood;
+import es.urjc.etsii.grafo.solution.neighborhood.DeltaNeighborhood;
+import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
 import es.urjc.etsii.grafo.solution.neighborhood.ListExploreResult;
+import es.urjc.etsii.grafo.solution.neighborhood.MoveCursor;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.util.TimeControl;
 
 /**
  * Local search procedures start from a given feasible solution and explore a determined neighborhood
@@ -41,6 +47,39 @@ public class LocalSearchBestImprovement<M extends Move<S, I>, S extends Solution
         super(objective, neighborhood);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the neighborhood is a {@link CachedNeighborhood}, evaluated moves are reused between iterations.
+     */
+    @Override
+    public S improve(S solution) {
+        if (neighborhood instanceof CachedNeighborhood<M, S, I> cachedNeighborhood) {
+            return improveCached(cachedNeighborhood, solution);
+        }
+        return super.improve(solution);
+    }
+
+    /**
+     * Best improvement using a move cache, after the initial exploration only moves affected by the executed move are evaluated again.
+     *
+     * @param cachedNeighborhood neighborhood
+     * @param solution           solution to improve
+     * @return improved solution
+     */
+    protected S improveCached(CachedNeighborhood<M, S, I> cachedNeighborhood, S solution) {
+        var cache = cachedNeighborhood.cache(solution, objective);
+        while (!TimeControl.isTimeUp()) {
+            var move = cache.best();
+            if (move == null || !improves(move)) {
+                break;
+            }
+            cache.execute(move);
+            Metrics.addCurrentObjectives(solution);
+        }
+        return solution;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -48,7 +87,37 @@ public class LocalSearchBestImprovement<M extends Move<S, I>, S extends Solution
      */
     @Override
     public M getMove(S solution) {
-        var expRes = neighborhood.explore(solution);
+        if (deltaNeighborhood != null) {
+            return getMoveFromDeltas(solution);
+        }
+        M bestMove;
+        if (neighborhood.hasNativeCursor()) {
+            bestMove = getBestMove(neighborhood.cursor(solution));
+        } else {
+            bestMove = getBestMove(neighborhood.explore(solution));
+        }
+        // Check if best move actually improves, if not end
+        return bestMove != null && improves(bestMove) ? bestMove : null;
+    }
+
+    private M getBestMove(MoveCursor<M> cursor) {
+        M bestMove = cursor.next();
+        if (bestMove == null) {
+            return null;
+        }
+        double bestScore = objective.evalMove(bestMove);
+        M move;
+        while ((move = cursor.next()) != null) {
+            double score = objective.evalMove(move);
+            if (objective.isBetter(score, bestScore)) {
+                bestMove = move;
+                bestScore = score;
+            }
+        }
+        return bestMove;
+    }
+
+    private M getBestMove(ExploreResult<M, S, I> expRes) {
         M bestMove;
         if(expRes instanceof ListExploreResult<M,S,I> list){
             bestMove = objective.bestMove(list.moveList());
@@ -56,7 +125,28 @@ public class LocalSearchBestImprovement<M extends Move<S, I>, S extends Solution
             var move = expRes.moves().reduce(objective::bestMove);
             bestMove = move.orElse(null);
         }
-        // Check if best move actually improves, if not end
-        return bestMove != null && improves(bestMove) ? bestMove : null;
+        return bestMove;
+    }
+
+    /**
+     * Find the best move without materializing any move except the chosen one, see {@link DeltaNeighborhood}.
+     *
+     * @param solution current solution
+     * @return best move if it improves the current solution, null otherwise
+     */
+    protected M getMoveFromDeltas(S solution) {
+        long[] bestMove = {DeltaNeighborhood.NO_MOVE};
+        double[] bestDelta = {Double.NaN};
+        deltaNeighborhood.exploreDeltas(solution, (move, delta) -> {
+            if (bestMove[0] == DeltaNeighborhood.NO_MOVE || objective.isBetter(delta, bestDelta[0])) {
+                bestMove[0] = move;
+                bestDelta[0] = delta;
+            }
+            return true;
+        });
+        if (bestMove[0] == DeltaNeighborhood.NO_MOVE || !objective.improves(bestDelta[0])) {
+            return null;
+        }
+        return deltaNeighborhood.materialize(solution, bestMove[0]);
     }
 }
@@ -0,0 +1,136 @@
+package es.urjc.etsii.grafo.improve.ls;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.DontLookBitsNeighborhood;
+import es.urjc.etsii.grafo.solution.neighborhood.ListExploreResult;
+import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.util.TimeControl;
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * First improvement local search using the "don't look bits" strategy.
+ * Instead of exploring the whole neighborhood after each executed move, each element of the solution has an active flag.
+ * Active elements are explored in circular order, if an element does not have any improving move it is deactivated,
+ * and it is only activated again when an executed move touches it, see {@link DontLookBitsNeighborhood#touchedElements(Solution, Move)}.
+ * The search ends when there are no active elements left.
+ *
+ * @param <M> the type of move
+ * @param <S> the type of problem solution
+ * @param <I> the type of problem instances
+ */
+public class LocalSearchDontLookBits<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> extends LocalSearch<M, S, I> {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSearchDontLookBits.class);
+
+    protected final DontLookBitsNeighborhood<M, S, I> elementNeighborhood;
+
+    /**
+     * Create a new don't look bits local search using the given neighborhood.
+     * Uses the main objective.
+     *
+     * @param neighborhood neighborhood to use, must implement {@link DontLookBitsNeighborhood}
+     * @param <N>          neighborhood type
+     */
+    public <N extends Neighborhood<M, S, I> & DontLookBitsNeighborhood<M, S, I>> LocalSearchDontLookBits(N neighborhood) {
+        super(neighborhood);
+        this.elementNeighborhood = neighborhood;
+    }
+
+    /**
+     * Create a new don't look bits local search using the given neighborhood
+     *
+     * @param objective    objective function to optimize
+     * @param neighborhood neighborhood to use, must implement {@link DontLookBitsNeighborhood}
+     * @param <N>          neighborhood type
+     */
+    public <N extends Neighborhood<M, S, I> & DontLookBitsNeighborhood<M, S, I>> LocalSearchDontLookBits(Objective<M, S, I> objective, N neighborhood) {
+        super(objective, neighborhood);
+        this.elementNeighborhood = neighborhood;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Explores only active elements until there are no active elements left, or we run out of time.
+     */
+    @Override
+    public S improve(S solution) {
+        int nElements = elementNeighborhood.nElements(solution);
+        if (nElements <= 0) {
+            return solution;
+        }
+        var active = new BitSet(nElements);
+        active.add(0, nElements);
+
+        int element = 0, explored = 0, executed = 0;
+        while (!TimeControl.isTimeUp()) {
+            element = element < nElements ? active.nextSetBit(element) : -1;
+            if (element < 0) {
+                // Continue from the start
+                element = active.nextSetBit(0);
+                if (element < 0) {
+                    break;
+                }
+            }
+            explored++;
+            var move = getMove(solution, element);
+            if (move == null) {
+                active.remove(element);
+                element++;
+                continue;
+            }
+            for (int touched : elementNeighborhood.touchedElements(solution, move)) {
+                active.add(touched);
+            }
+            move.execute(solution);
+            Metrics.addCurrentObjectives(solution);
+            executed++;
+            // Keep exploring the same element, it may still have improving moves
+        }
+        log.debug("Improvement {} ended after exploring {} elements and executing {} moves.", this.getClass().getSimpleName(), explored, executed);
+        return solution;
+    }
+
+    /**
+     * Find the first improving move for the given element
+     *
+     * @param solution current solution
+     * @param element  element to explore
+     * @return first improving move that involves the given element, null if there are none
+     */
+    protected M getMove(S solution, int element) {
+        var expRes = elementNeighborhood.explore(solution, element);
+        if (expRes instanceof ListExploreResult<M, S, I> list) {
+            for (var move : list.moveList()) {
+                if (improves(move)) {
+                    return move;
+                }
+            }
+            return null;
+        }
+        return expRes.moves().filter(this::improves).findFirst().orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Explores every element, ignoring don't look bits. Used when calling {@link #iteration(Solution)} directly.
+     */
+    @Override
+    public M getMove(S solution) {
+        int nElements = elementNeighborhood.nElements(solution);
+        for (int element = 0; element < nElements; element++) {
+            var move = getMove(solution, element);
+            if (move != null) {
+                return move;
+            }
+        }
+        return null;
+    }
+}
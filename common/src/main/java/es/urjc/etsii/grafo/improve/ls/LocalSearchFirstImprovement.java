@@ -5,6 +5,7 @@ import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.solution.Move;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.DeltaNeighborhood;
 import es.urjc.etsii.grafo.solution.neighborhood.ListExploreResult;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
 
@@ -48,6 +49,19 @@ public class LocalSearchFirstImprovement<M extends Move<S, I>, S extends Solutio
      */
     @Override
     public M getMove(S solution) {
+        if (deltaNeighborhood != null) {
+            return getMoveFromDeltas(solution);
+        }
+        if (neighborhood.hasNativeCursor()) {
+            var cursor = neighborhood.cursor(solution);
+            M move;
+            while ((move = cursor.next()) != null) {
+                if (improves(move)) {
+                    return move;
+                }
+            }
+            return null;
+        }
         var expRes = neighborhood.explore(solution);
 
         if(expRes instanceof ListExploreResult<M,S,I> list){
@@ -62,4 +76,22 @@ public class LocalSearchFirstImprovement<M extends Move<S, I>, S extends Solutio
             return move.orElse(null);
         }
     }
+
+    /**
+     * Find the first improving move without materializing any move except the chosen one, see {@link DeltaNeighborhood}.
+     *
+     * @param solution current solution
+     * @return first improving move, null if there are none
+     */
+    protected M getMoveFromDeltas(S solution) {
+        long[] chosen = {DeltaNeighborhood.NO_MOVE};
+        deltaNeighborhood.exploreDeltas(solution, (move, delta) -> {
+            if (objective.improves(delta)) {
+                chosen[0] = move;
+                return false;
+            }
+            return true;
+        });
+        return chosen[0] == DeltaNeighborhood.NO_MOVE ? null : deltaNeighborhood.materialize(solution, chosen[0]);
+    }
 }
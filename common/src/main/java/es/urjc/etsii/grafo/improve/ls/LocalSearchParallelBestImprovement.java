@@ -0,0 +1,153 @@
+package es.urjc.etsii.grafo.improve.ls;
+
+import es.urjc.etsii.grafo.annotations.AutoconfigConstructor;
+import es.urjc.etsii.grafo.annotations.IntegerParam;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.ListExploreResult;
+import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.util.TimeControl;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Best improvement local search that explores the neighborhood using several threads.
+ * Sized neighborhoods (see {@link es.urjc.etsii.grafo.solution.neighborhood.ExploreResult#sized()}) are split in chunks,
+ * each chunk is reduced in parallel using {@link Objective#bestMove(Iterable)}, and partial results are merged in encounter order.
+ * Ties are always resolved in favour of the move that appears first in the neighborhood, so the chosen move is exactly
+ * the same as the one chosen by {@link LocalSearchBestImprovement}, independently of the number of threads.
+ * Unsized neighborhoods are explored sequentially.
+ *
+ * @param <M> the type of move
+ * @param <S> the type of problem solution
+ * @param <I> the type of problem instances
+ */
+public class LocalSearchParallelBestImprovement<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> extends LocalSearch<M, S, I> {
+
+    /**
+     * Default number of moves evaluated sequentially by each task
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    protected final ForkJoinPool pool;
+    protected final int chunkSize;
+
+    /**
+     * Create a new parallel best improvement local search using the given neighborhood.
+     * Uses the main objective, and the common fork join pool.
+     *
+     * @param neighborhood neighborhood to use
+     * @param chunkSize    maximum number of moves evaluated sequentially by each task
+     */
+    @AutoconfigConstructor
+    public LocalSearchParallelBestImprovement(
+            Neighborhood<M, S, I> neighborhood,
+            @IntegerParam(min = 64, max = 65_536) int chunkSize
+    ) {
+        super(neighborhood);
+        this.pool = ForkJoinPool.commonPool();
+        this.chunkSize = validateChunkSize(chunkSize);
+    }
+
+    /**
+     * Create a new parallel best improvement local search using the given neighborhood
+     *
+     * @param objective    objective function to optimize
+     * @param neighborhood neighborhood to use
+     */
+    public LocalSearchParallelBestImprovement(Objective<M, S, I> objective, Neighborhood<M, S, I> neighborhood) {
+        this(objective, neighborhood, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a new parallel best improvement local search using the given neighborhood
+     *
+     * @param objective    objective function to optimize
+     * @param neighborhood neighborhood to use
+     * @param pool         fork join pool used to evaluate the neighborhood
+     * @param chunkSize    maximum number of moves evaluated sequentially by each task
+     */
+    public LocalSearchParallelBestImprovement(Objective<M, S, I> objective, Neighborhood<M, S, I> neighborhood, ForkJoinPool pool, int chunkSize) {
+        super(objective, neighborhood);
+        this.pool = Objects.requireNonNull(pool);
+        this.chunkSize = validateChunkSize(chunkSize);
+    }
+
+    private static int validateChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be >= 1, got " + chunkSize);
+        }
+        return chunkSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Get next move to execute.
+     */
+    @Override
+    public M getMove(S solution) {
+        var expRes = neighborhood.explore(solution);
+        M bestMove;
+        if (expRes instanceof ListExploreResult<M, S, I> list) {
+            bestMove = parallelBest(list.moveList().spliterator());
+        } else if (expRes.sized()) {
+            bestMove = parallelBest(expRes.moves().spliterator());
+        } else {
+            bestMove = expRes.moves().reduce(objective::bestMove).orElse(null);
+        }
+        // Check if best move actually improves, if not end
+        return bestMove != null && improves(bestMove) ? bestMove : null;
+    }
+
+    private M parallelBest(Spliterator<M> spliterator) {
+        // Worker threads do not share the time control of the current thread, pass the deadline explicitly
+        return pool.invoke(new BestMoveTask(spliterator, TimeControl.deadline()));
+    }
+
+    private class BestMoveTask extends RecursiveTask<M> {
+        private final Spliterator<M> spliterator;
+        private final TimeControl.Deadline deadline;
+
+        private BestMoveTask(Spliterator<M> spliterator, TimeControl.Deadline deadline) {
+            this.spliterator = spliterator;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected M compute() {
+            if (spliterator.estimateSize() > chunkSize) {
+                // For ordered spliterators the split part always precedes the remaining elements
+                var prefix = spliterator.trySplit();
+                if (prefix != null) {
+                    var left = new BestMoveTask(prefix, deadline);
+                    left.fork();
+                    M rightBest = new BestMoveTask(spliterator, deadline).compute();
+                    M leftBest = left.join();
+                    return merge(leftBest, rightBest);
+                }
+            }
+            if (deadline.isExpired()) {
+                return null;
+            }
+            return objective.bestMove(() -> Spliterators.iterator(spliterator));
+        }
+
+        private M merge(M left, M right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            // Objective::bestMove keeps the first argument on ties
+            return objective.bestMove(left, right);
+        }
+    }
+}
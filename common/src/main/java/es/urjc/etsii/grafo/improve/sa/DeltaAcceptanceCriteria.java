@@ -0,0 +1,23 @@
+package es.urjc.etsii.grafo.improve.sa;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Solution;
+
+/**
+ * Acceptance criteria that can decide using only the move delta, without creating the move object.
+ * Used by simulated annealing when the neighborhood implements {@link es.urjc.etsii.grafo.solution.neighborhood.RandomizableDeltaNeighborhood}.
+ * @param <M> Move class
+ * @param <S> Solution class
+ * @param <I> Instance class
+ */
+public interface DeltaAcceptanceCriteria<M extends Move<S,I>, S extends Solution<S,I>, I extends Instance> extends AcceptanceCriteria<M, S, I> {
+
+    /**
+     * Same as {@link #accept(Move, double)}, but using only the move delta.
+     * @param delta objective function delta of the move
+     * @param currentTemperature current temperature
+     * @return true to accept, false to reject
+     */
+    boolean accept(double delta, double currentTemperature);
+}
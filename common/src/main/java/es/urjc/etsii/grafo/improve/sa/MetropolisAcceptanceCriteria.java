@@ -9,7 +9,7 @@ import es.urjc.etsii.grafo.util.random.RandomManager;
 /**
  * Default termination criteria based on metropolis exponential function
  */
-public class MetropolisAcceptanceCriteria<M extends Move<S,I>, S extends Solution<S,I>, I extends Instance> implements AcceptanceCriteria<M, S, I>{
+public class MetropolisAcceptanceCriteria<M extends Move<S,I>, S extends Solution<S,I>, I extends Instance> implements DeltaAcceptanceCriteria<M, S, I>{
 
     private final Objective<M, S, I> objective;
 
@@ -19,7 +19,12 @@ public class MetropolisAcceptanceCriteria<M extends Move<S,I>, S extends Solutio
 
     @Override
     public boolean accept(M move, double currentTemperature) {
-        double change = Math.abs(objective.evalMove(move));
+        return accept(objective.evalMove(move), currentTemperature);
+    }
+
+    @Override
+    public boolean accept(double delta, double currentTemperature) {
+        double change = Math.abs(delta);
         double metropolis = Math.exp(- change / currentTemperature);
         double roll = RandomManager.getRandom().nextDouble();
         return roll < metropolis;
@@ -0,0 +1,177 @@
+package es.urjc.etsii.grafo.improve.sa;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.improve.sa.cd.CoolDownControl;
+import es.urjc.etsii.grafo.improve.sa.initialt.InitialTemperatureCalculator;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.RandomizableNeighborhood;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel tempering (replica exchange) version of {@link SimulatedAnnealing}.
+ * Several replicas of the solution are annealed at the same time, each one in its own thread and at a different temperature.
+ * Replica r starts at temperature {@code initialT * ladderRatio^r}, where initialT is given by the {@link InitialTemperatureCalculator},
+ * and every replica is cooled down using the same {@link CoolDownControl}.
+ * Every exchangeInterval iterations, replicas synchronize and adjacent replicas swap their current solutions
+ * according to the Metropolis rule, so good solutions found at high temperatures are refined at lower ones.
+ * Each replica ends independently when the {@link TerminationCriteria} is met, and the best solution found by any replica is returned.
+ * Each replica uses its own random generator in each exchange interval, jumped from the random generator of the calling thread,
+ * and swaps are decided in the calling thread, so results for a given seed are reproducible if no time limit is reached.
+ * Replicas run in a pool created on first use and reused by later calls, its threads end by themselves when idle.
+ * Neighborhood, acceptance criteria, termination criteria and cool down must be thread safe.
+ *
+ * @param <M> Move type
+ * @param <S> Solution type
+ * @param <I> Instance type
+ * @see SimulatedAnnealingBuilder#withParallelTempering(int, double, int)
+ */
+public class ParallelTemperingSimulatedAnnealing<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> extends SimulatedAnnealing<M, S, I> {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelTemperingSimulatedAnnealing.class);
+
+    protected final int nReplicas;
+    protected final double ladderRatio;
+    protected final int exchangeInterval;
+
+    private ForkJoinPool pool;
+
+    private final class Replica {
+        private final Chain chain;
+        private boolean finished = false;
+
+        private Replica(S solution, double temperature) {
+            this.chain = new Chain(solution, temperature);
+        }
+    }
+
+    /**
+     * Internal constructor, use {@link SimulatedAnnealingBuilder#withParallelTempering(int, double, int)}.
+     *
+     * @param timeCheckInterval number of move attempts between time checks inside a cycle
+     * @param nReplicas        number of replicas, each one is executed in its own thread
+     * @param ladderRatio      ratio between the initial temperatures of consecutive replicas, in range (0, 1)
+     * @param exchangeInterval number of iterations between exchanges
+     */
+    protected ParallelTemperingSimulatedAnnealing(Objective<M, S, I> objective, AcceptanceCriteria<M, S, I> acceptanceCriteria, RandomizableNeighborhood<M, S, I> ps, InitialTemperatureCalculator<M, S, I> initialTemperatureCalculator, TerminationCriteria<M, S, I> terminationCriteria, CoolDownControl<M, S, I> coolDownControl, int cycleLength, int timeCheckInterval, int nReplicas, double ladderRatio, int exchangeInterval) {
+        super(objective, acceptanceCriteria, ps, initialTemperatureCalculator, terminationCriteria, coolDownControl, cycleLength, timeCheckInterval);
+        this.nReplicas = nReplicas;
+        this.ladderRatio = ladderRatio;
+        this.exchangeInterval = exchangeInterval;
+    }
+
+    @Override
+    public S improve(S solution) {
+        double initialTemperature = this.initialTemperatureCalculator.initial(solution, neighborhood);
+        log.debug("Initial temperature: {}", initialTemperature);
+        var replicas = new ArrayList<Replica>(nReplicas);
+        double temperature = initialTemperature;
+        for (int i = 0; i < nReplicas; i++) {
+            replicas.add(new Replica(solution.cloneSolution(), temperature));
+            temperature *= ladderRatio;
+        }
+
+        var pool = pool();
+        int exchanges = 0;
+        while (!allFinished(replicas)) {
+            ConcurrencyUtil.reproducibleMap(pool, nReplicas, i -> anneal(replicas.get(i)));
+            exchange(replicas, exchanges++ % 2);
+        }
+        log.debug("All replicas finished after {} exchanges", exchanges);
+
+        // Ties are resolved in favour of the hottest replica
+        S best = replicas.get(0).chain.best;
+        for (int i = 1; i < nReplicas; i++) {
+            if (objective.isBetter(replicas.get(i).chain.best, best)) {
+                best = replicas.get(i).chain.best;
+            }
+        }
+        return best;
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(nReplicas, Context.workerThreadFactory(), null, false);
+        }
+        return pool;
+    }
+
+    private boolean allFinished(List<Replica> replicas) {
+        for (var replica : replicas) {
+            if (!replica.finished) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Execute up to exchangeInterval iterations of the given replica
+     *
+     * @param replica replica, only accessed by the current thread until the task ends
+     * @return the same replica
+     */
+    private Replica anneal(Replica replica) {
+        var chain = replica.chain;
+        for (int i = 0; i < exchangeInterval && !replica.finished; i++) {
+            if (shouldEnd(chain.best, chain.temperature, chain.iteration)) {
+                replica.finished = true;
+                break;
+            }
+            if (!cycle(chain)) {
+                log.debug("Replica terminating early, no valid movement found. Current iter {}, t {}", chain.iteration, chain.temperature);
+                replica.finished = true;
+                break;
+            }
+            coolDown(chain);
+        }
+        return replica;
+    }
+
+    /**
+     * Try to swap the current solutions of adjacent active replicas, starting at the given offset.
+     * Even and odd pairs are alternated in consecutive exchanges.
+     *
+     * @param replicas replicas, sorted from hottest to coldest
+     * @param offset   0 to try pairs (0,1), (2,3)..., 1 to try pairs (1,2), (3,4)...
+     */
+    private void exchange(List<Replica> replicas, int offset) {
+        for (int i = offset; i + 1 < replicas.size(); i += 2) {
+            if (replicas.get(i).finished || replicas.get(i + 1).finished) {
+                continue;
+            }
+            var hot = replicas.get(i).chain;
+            var cold = replicas.get(i + 1).chain;
+            double exponent = (energy(hot.current) - energy(cold.current)) * (1 / hot.temperature - 1 / cold.temperature);
+            if (exponent >= 0 || Context.getRandom().nextDouble() < Math.exp(exponent)) {
+                var swap = hot.current;
+                hot.current = cold.current;
+                cold.current = swap;
+            }
+        }
+    }
+
+    private double energy(S solution) {
+        double score = objective.evalSol(solution);
+        return objective.getFMode() == FMode.MINIMIZE ? score : -score;
+    }
+
+    @Override
+    public String toString() {
+        return "PTSA{" +
+                "replicas=" + nReplicas +
+                ", ladderRatio=" + ladderRatio +
+                ", exchangeInterval=" + exchangeInterval +
+                ", neighborhood=" + neighborhood +
+                '}';
+    }
+}
@@ -7,16 +7,17 @@ import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.solution.Move;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.solution.neighborhood.DeltaNeighborhood;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.solution.neighborhood.RandomizableDeltaNeighborhood;
 import es.urjc.etsii.grafo.solution.neighborhood.RandomizableNeighborhood;
 import es.urjc.etsii.grafo.util.DoubleComparator;
 import es.urjc.etsii.grafo.util.TimeControl;
+import es.urjc.etsii.grafo.util.collections.LongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.ArrayList;
 
 /**
  * Simulated annealing (SA) is a metaheuristic whose name comes from annealing in metallurgy.
@@ -49,7 +50,113 @@ public class SimulatedAnnealing<M extends Move<S, I>, S extends Solution<S, I>,
     protected final InitialTemperatureCalculator<M, S, I> initialTemperatureCalculator;
     protected final int cycleLength;
 
-    private record CycleResult<S>(boolean atLeastOneMove, S bestSolution, S currentSolution) {
+    /**
+     * Same as neighborhood if it can generate random moves using primitive deltas for the current objective, null otherwise.
+     * See {@link RandomizableDeltaNeighborhood}.
+     */
+    protected final RandomizableDeltaNeighborhood<M, S, I> deltaNeighborhood;
+
+    /**
+     * Number of attempts to generate a new move before ending the current cycle
+     */
+    private static final int MAX_RETRIES = 3;
+
+    /**
+     * Default number of move attempts between time checks, see {@link SimulatedAnnealingBuilder#withTimeCheckInterval(int)}
+     */
+    public static final int DEFAULT_TIME_CHECK_INTERVAL = 64;
+
+    /**
+     * Number of move attempts between consecutive time checks inside a cycle
+     */
+    protected final int timeCheckInterval;
+
+    /**
+     * Mutable state of a single annealing chain. Created once per call to improve and reused in every cycle,
+     * so the inner loop does not allocate except when a move is executed and improves the best solution.
+     */
+    protected final class Chain {
+        /**
+         * Current working solution
+         */
+        protected S current;
+        /**
+         * Best solution found until now by this chain
+         */
+        protected S best;
+        /**
+         * Current temperature
+         */
+        protected double temperature;
+        /**
+         * Current iteration, incremented after each cycle
+         */
+        protected int iteration = 0;
+
+        // Moves tested in the current step. Hash codes are used as a primitive filter, equals is only checked on collision
+        private final LongHashSet testedHashes = new LongHashSet();
+        private final ArrayList<M> testedMoves = new ArrayList<>();
+        private final LongHashSet testedEncodedMoves = new LongHashSet();
+        private int untilTimeCheck = timeCheckInterval;
+        private final TimeControl.Deadline deadline = TimeControl.deadline();
+
+        /**
+         * Create a new chain
+         *
+         * @param solution    initial solution, modified in place
+         * @param temperature initial temperature
+         */
+        protected Chain(S solution, double temperature) {
+            this.current = solution;
+            this.best = solution.cloneSolution();
+            this.temperature = temperature;
+        }
+
+        private void newStep() {
+            testedHashes.clear();
+            testedMoves.clear();
+            testedEncodedMoves.clear();
+        }
+
+        /**
+         * Register a move as tested in the current step
+         *
+         * @return true if the move had not been tested yet, false otherwise
+         */
+        private boolean markTested(M move) {
+            if (!testedHashes.add(move.hashCode())) {
+                for (int i = 0; i < testedMoves.size(); i++) {
+                    if (testedMoves.get(i).equals(move)) {
+                        return false;
+                    }
+                }
+            }
+            testedMoves.add(move);
+            return true;
+        }
+
+        private boolean markTested(long encodedMove) {
+            return testedEncodedMoves.add(encodedMove);
+        }
+
+        private void updateBest() {
+            if (objective.isBetter(current, best)) {
+                best = current.cloneSolution();
+            }
+        }
+
+        /**
+         * Check if time is up, polling the deadline of the thread that created this chain only once every timeCheckInterval calls
+         *
+         * @return true if the chain should stop
+         */
+        private boolean timeUp() {
+            if (--untilTimeCheck > 0) {
+                return false;
+            }
+            untilTimeCheck = timeCheckInterval;
+            return deadline.isExpired();
+        }
     }
 
     /**
@@ -63,7 +170,23 @@ public class SimulatedAnnealing<M extends Move<S, I>, S extends Solution<S, I>,
      * @param cycleLength
      */
     protected SimulatedAnnealing(Objective<M,S,I> objective, AcceptanceCriteria<M, S, I> acceptanceCriteria, RandomizableNeighborhood<M, S, I> ps, InitialTemperatureCalculator<M, S, I> initialTemperatureCalculator, TerminationCriteria<M, S, I> terminationCriteria, CoolDownControl<M, S, I> coolDownControl, int cycleLength) {
+        this(objective, acceptanceCriteria, ps, initialTemperatureCalculator, terminationCriteria, coolDownControl, cycleLength, DEFAULT_TIME_CHECK_INTERVAL);
+    }
+
+    /**
+     * Internal constructor, use {@link SimulatedAnnealingBuilder}.
+     *
+     * @param acceptanceCriteria
+     * @param ps
+     * @param initialTemperatureCalculator
+     * @param terminationCriteria
+     * @param coolDownControl
+     * @param cycleLength
+     * @param timeCheckInterval number of move attempts between time checks inside a cycle
+     */
+    protected SimulatedAnnealing(Objective<M,S,I> objective, AcceptanceCriteria<M, S, I> acceptanceCriteria, RandomizableNeighborhood<M, S, I> ps, InitialTemperatureCalculator<M, S, I> initialTemperatureCalculator, TerminationCriteria<M, S, I> terminationCriteria, CoolDownControl<M, S, I> coolDownControl, int cycleLength, int timeCheckInterval) {
         super(objective);
+        this.timeCheckInterval = timeCheckInterval;
         this.objective = objective;
         this.acceptanceCriteria = acceptanceCriteria;
         this.neighborhood = ps;
@@ -71,6 +194,18 @@ public class SimulatedAnnealing<M extends Move<S, I>, S extends Solution<S, I>,
         this.coolDownControl = coolDownControl;
         this.initialTemperatureCalculator = initialTemperatureCalculator;
         this.cycleLength = cycleLength;
+        this.deltaNeighborhood = asDeltaNeighborhood(objective, ps);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> RandomizableDeltaNeighborhood<M, S, I> asDeltaNeighborhood(Objective<M, S, I> objective, RandomizableNeighborhood<M, S, I> neighborhood) {
+        if (neighborhood instanceof RandomizableDeltaNeighborhood<?, ?, ?> dn) {
+            var deltaNeighborhood = (RandomizableDeltaNeighborhood<M, S, I>) dn;
+            if (deltaNeighborhood.supportsDeltas(objective)) {
+                return deltaNeighborhood;
+            }
+        }
+        return null;
     }
 
     protected boolean shouldEnd(S best, double currentTemperature, int currentIteration){
@@ -79,71 +214,114 @@ public class SimulatedAnnealing<M extends Move<S, I>, S extends Solution<S, I>,
 
     @Override
     public S improve(S solution) {
-        S best = solution.cloneSolution();
-        double currentTemperature = this.initialTemperatureCalculator.initial(best, neighborhood);
-        log.debug("Initial temperature: {}", currentTemperature);
-        int currentIteration = 0;
-        while (!shouldEnd(best,currentTemperature,currentIteration)) {
-            CycleResult<S> cycleResult = doCycle(neighborhood, solution, best, currentTemperature,currentIteration);
-            best = cycleResult.bestSolution;
-            solution = cycleResult.currentSolution;
-            if (!cycleResult.atLeastOneMove) {
-                log.debug("Terminating early, no valid movement found. Current iter {}, t {}", currentIteration, currentTemperature);
+        double initialTemperature = this.initialTemperatureCalculator.initial(solution, neighborhood);
+        log.debug("Initial temperature: {}", initialTemperature);
+        var chain = new Chain(solution, initialTemperature);
+        while (!shouldEnd(chain.best, chain.temperature, chain.iteration)) {
+            if (!cycle(chain)) {
+                log.debug("Terminating early, no valid movement found. Current iter {}, t {}", chain.iteration, chain.temperature);
                 break;
             }
-
-            double newTemperature = coolDownControl.coolDown(best, neighborhood, currentTemperature, currentIteration);
-            assert DoubleComparator.isLess(newTemperature, currentTemperature) : String.format("Next Temp %s should be < than prev %s", newTemperature, currentTemperature);
-            currentTemperature = newTemperature;
-            currentIteration++;
-            log.debug("Next iter {} with t: {}", currentIteration, currentTemperature);
+            coolDown(chain);
+            log.debug("Next iter {} with t: {}", chain.iteration, chain.temperature);
         }
-        return best;
+        return chain.best;
+    }
+
+    /**
+     * Lower the temperature of the given chain and advance to the next iteration
+     *
+     * @param chain chain
+     */
+    protected void coolDown(Chain chain) {
+        double newTemperature = coolDownControl.coolDown(chain.best, neighborhood, chain.temperature, chain.iteration);
+        assert DoubleComparator.isLess(newTemperature, chain.temperature) : String.format("Next Temp %s should be < than prev %s", newTemperature, chain.temperature);
+        chain.temperature = newTemperature;
+        chain.iteration++;
     }
 
     /**
      * Does a cycle with the same temperature. Always works on the same solution.
-     * Fast implementation that can only be used if the {@link Neighborhood} implements {@link RandomizableNeighborhood}.
+     * Uses deltas if the neighborhood supports them, materializing only the moves that are executed.
+     * The termination criteria is checked before each cycle, while time is checked every timeCheckInterval move attempts.
      *
-     * @param solution           current working solution
-     * @param best               best solution found until now
-     * @param currentTemperature current temperature
-     * @param currentIteration   current iteration
-     * @return best solution found, remember that you should NOT use the returned solution
+     * @param chain chain to advance, current and best solutions are updated in place
+     * @return true if at least one move was executed, false otherwise
      */
-    protected CycleResult<S> doCycle(RandomizableNeighborhood<M, S, I> neighborhood, S solution, S best, double currentTemperature, int currentIteration) {
+    protected boolean cycle(Chain chain) {
         boolean atLeastOne = false;
-        for (int i = 0; i < this.cycleLength && !shouldEnd(best,currentTemperature,currentIteration); i++) {
+        for (int i = 0; i < this.cycleLength && !chain.timeUp(); i++) {
             int fails = 0;
-            int maxRetries = 3;
-            Set<M> testedMoves = new HashSet<>();
-            while (fails < maxRetries && !shouldEnd(best,currentTemperature,currentIteration)) {
-                Optional<M> optionalMove = neighborhood.getRandomMove(solution);
-                if (optionalMove.isEmpty()) {
-                    fails++;
-                    continue;
-                }
-                M move = optionalMove.get();
-                if (testedMoves.contains(move)) {
+            chain.newStep();
+            while (fails < MAX_RETRIES && !chain.timeUp()) {
+                var attempt = deltaNeighborhood != null ?
+                        tryDeltaMove(deltaNeighborhood, chain) :
+                        tryMove(neighborhood, chain);
+                if (attempt == Attempt.INVALID) {
                     fails++;
-                    continue;
-                }
-                testedMoves.add(move);
-                double score = objective.evalMove(move);
-                if (objective.improves(score) || acceptanceCriteria.accept(move, currentTemperature)) {
+                } else if (attempt == Attempt.EXECUTED) {
                     atLeastOne = true;
-                    move.execute(solution);
-                    if (objective.isBetter(solution, best)) {
-                        best = solution.cloneSolution();
-                    }
+                    chain.updateBest();
                     break;
                 }
             }
-            if (fails >= maxRetries) {
+            if (fails >= MAX_RETRIES) {
                 log.debug("Breaking cycle at {}/{}", i, this.cycleLength);
-                return new CycleResult<>(atLeastOne, best, solution);
+                return atLeastOne;
             }
         }
-        return new CycleResult<>(atLeastOne, best, solution);
+        return atLeastOne;
+    }
+
+    /**
+     * Result of trying a random move
+     */
+    private enum Attempt {
+        /**
+         * No move could be generated, or it was already tested in the current step
+         */
+        INVALID,
+        /**
+         * Move rejected by the acceptance criteria
+         */
+        REJECTED,
+        /**
+         * Move accepted and executed
+         */
+        EXECUTED
+    }
+
+    private Attempt tryMove(RandomizableNeighborhood<M, S, I> neighborhood, Chain chain) {
+        M move = neighborhood.getRandomMoveOrNull(chain.current);
+        if (move == null || !chain.markTested(move)) {
+            return Attempt.INVALID;
+        }
+        double score = objective.evalMove(move);
+        if (objective.improves(score) || acceptanceCriteria.accept(move, chain.temperature)) {
+            move.execute(chain.current);
+            return Attempt.EXECUTED;
+        }
+        return Attempt.REJECTED;
+    }
+
+    private Attempt tryDeltaMove(RandomizableDeltaNeighborhood<M, S, I> neighborhood, Chain chain) {
+        long move = neighborhood.getRandomEncodedMove(chain.current);
+        if (move == DeltaNeighborhood.NO_MOVE || !chain.markTested(move)) {
+            return Attempt.INVALID;
+        }
+        double delta = neighborhood.delta(chain.current, move);
+        if (objective.improves(delta) || acceptDelta(neighborhood, chain.current, move, delta, chain.temperature)) {
+            neighborhood.materialize(chain.current, move).execute(chain.current);
+            return Attempt.EXECUTED;
+        }
+        return Attempt.REJECTED;
+    }
+
+    private boolean acceptDelta(RandomizableDeltaNeighborhood<M, S, I> neighborhood, S solution, long move, double delta, double currentTemperature) {
+        if (acceptanceCriteria instanceof DeltaAcceptanceCriteria<M, S, I> deltaAcceptance) {
+            return deltaAcceptance.accept(delta, currentTemperature);
+        }
+        // Custom acceptance criteria, needs the move object
+        return acceptanceCriteria.accept(neighborhood.materialize(solution, move), currentTemperature);
     }
 }
@@ -28,6 +28,10 @@ public class SimulatedAnnealingBuilder<M extends Move<S, I>, S extends Solution<
     private CoolDownControl<M, S, I> coolDownControl;
     private int cycleLength = 1;
     private Objective<M,S,I> objective;
+    private int nReplicas = 1;
+    private double ladderRatio = 0.5;
+    private int exchangeInterval = 1;
+    private int timeCheckInterval = SimulatedAnnealing.DEFAULT_TIME_CHECK_INTERVAL;
 
     /**
      * Neighborhood for the Simulated Annealing.
@@ -186,6 +190,35 @@ public class SimulatedAnnealingBuilder<M extends Move<S, I>, S extends Solution<
         return this;
     }
 
+    /**
+     * Set how often the time limit is checked inside each cycle.
+     * The termination criteria is always checked before each cycle.
+     *
+     * @param timeCheckInterval number of move attempts between time checks. Defaults to {@link SimulatedAnnealing#DEFAULT_TIME_CHECK_INTERVAL}.
+     * @return simulated annealing builder
+     */
+    public SimulatedAnnealingBuilder<M,S,I> withTimeCheckInterval(int timeCheckInterval) {
+        this.timeCheckInterval = timeCheckInterval;
+        return this;
+    }
+
+    /**
+     * Use parallel tempering: anneal several replicas at different temperatures at the same time, each one in its own thread,
+     * periodically swapping solutions between replicas with adjacent temperatures.
+     * See {@link ParallelTemperingSimulatedAnnealing} for a detailed description.
+     *
+     * @param nReplicas        number of replicas. If 1, a sequential SimulatedAnnealing is built.
+     * @param ladderRatio      ratio between the initial temperatures of consecutive replicas, in range (0, 1)
+     * @param exchangeInterval number of iterations between exchanges
+     * @return simulated annealing builder
+     */
+    public SimulatedAnnealingBuilder<M,S,I> withParallelTempering(int nReplicas, double ladderRatio, int exchangeInterval) {
+        this.nReplicas = nReplicas;
+        this.ladderRatio = ladderRatio;
+        this.exchangeInterval = exchangeInterval;
+        return this;
+    }
+
     /**
      * Build a SimulatedAnnealing using the provided config values. Default values if not explicitly set:
      * - Acceptance: Metropolis
@@ -194,6 +227,8 @@ public class SimulatedAnnealingBuilder<M extends Move<S, I>, S extends Solution<
      * - Termination criteria: temperature convergence
      * - Cycle length: 1
      * - Objective: Context::getMainObjective
+     * - Time check interval: {@link SimulatedAnnealing#DEFAULT_TIME_CHECK_INTERVAL} move attempts
+     * - Replicas: 1, ie no parallel tempering
      *
      * @return configured and ready to use simulated annealing algorithm
      */
@@ -227,6 +262,24 @@ public class SimulatedAnnealingBuilder<M extends Move<S, I>, S extends Solution<
             throw new IllegalArgumentException("Cycle length must be > 0");
         }
 
-        return new SimulatedAnnealing<>(objective, acceptanceCriteria, neighborhood, initialTemperatureCalculator, terminationCriteria, coolDownControl, this.cycleLength);
+        if(timeCheckInterval <= 0){
+            throw new IllegalArgumentException("Time check interval must be > 0");
+        }
+
+        if(nReplicas <= 0){
+            throw new IllegalArgumentException("Number of replicas must be > 0");
+        }
+
+        if(nReplicas > 1){
+            if(ladderRatio <= 0 || ladderRatio >= 1){
+                throw new IllegalArgumentException("Ladder ratio must be in range (0, 1)");
+            }
+            if(exchangeInterval <= 0){
+                throw new IllegalArgumentException("Exchange interval must be > 0");
+            }
+            return new ParallelTemperingSimulatedAnnealing<>(objective, acceptanceCriteria, neighborhood, initialTemperatureCalculator, terminationCriteria, coolDownControl, this.cycleLength, timeCheckInterval, nReplicas, ladderRatio, exchangeInterval);
+        }
+
+        return new SimulatedAnnealing<>(objective, acceptanceCriteria, neighborhood, initialTemperatureCalculator, terminationCriteria, coolDownControl, this.cycleLength, timeCheckInterval);
     }
 }
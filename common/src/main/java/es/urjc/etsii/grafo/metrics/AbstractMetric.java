@@ -1,16 +1,52 @@
 package es.urjc.etsii.grafo.metrics;
 
-import java.util.TreeSet;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 /**
- * Base class to represent metrics
+ * Base class to represent metrics.
+ * Data points are stored in two parallel primitive arrays, growing as needed, sorted by instant.
+ * Data points are appended in O(1) if they arrive in order, which is the usual case.
+ * If not, arrays are sorted the next time data points are read. As in a set, only the first data point for a given instant is kept.
+ * Which data points are kept is decided by the {@link MetricRetention} policy of the metric, by default all of them.
  */
 public abstract class AbstractMetric {
 
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Instant of each data point, relative to the reference instant
+     */
+    protected long[] instants;
+
+    /**
+     * Value of each data point
+     */
+    protected double[] values;
+
+    /**
+     * Number of data points
+     */
+    protected int size;
+
     /**
-     * Data structure to store sorted time-value pairs
+     * False if data points have been appended out of order, and must be sorted before reading them
      */
-    protected final TreeSet<TimeValue> values;
+    protected boolean sorted = true;
+
+    /**
+     * Number of data points added to this metric, including those discarded by the retention policy
+     */
+    protected long offered;
+
+    /**
+     * Decides which data points are kept, subclasses may change it in their constructor
+     */
+    protected MetricRetention retention = MetricRetention.all();
 
     /**
      * Reference instant to relativize all other times
@@ -19,7 +55,8 @@ public abstract class AbstractMetric {
 
     protected AbstractMetric(long referenceNanoTime) {
         this.referenceNanoTime = referenceNanoTime;
-        this.values = new TreeSet<>();
+        this.instants = new long[INITIAL_CAPACITY];
+        this.values = new double[INITIAL_CAPACITY];
     }
 
     /**
@@ -30,19 +67,229 @@ public abstract class AbstractMetric {
         return this.getClass().getSimpleName();
     }
 
-    public synchronized void add(long instant, double value){
-        values.add(new TimeValue(instant- referenceNanoTime, value));
+    /**
+     * Add a data point
+     * @param instant when was the value recorded, as returned by System.nanoTime()
+     * @param value value to record
+     */
+    public void add(long instant, double value){
+        addRelative(instant - referenceNanoTime, value);
     }
 
+    /**
+     * Add a data point, recorded now
+     * @param value value to record
+     * @throws IllegalStateException if this metric does not have a reference instant
+     */
     public void add(double value){
         if(referenceNanoTime == MetricsStorage.NO_REF){
             throw new IllegalStateException("Cannot add data point without reference instant");
         }
-        values.add(new TimeValue(System.nanoTime() - referenceNanoTime, value));
+        addRelative(System.nanoTime() - referenceNanoTime, value);
     }
 
-    public TreeSet<TimeValue> getValues() {
-        return values;
+    /**
+     * Add a data point whose instant is already relative to the reference instant, if kept by the retention policy.
+     *
+     * @param instant elapsed time in nanoseconds since the reference instant
+     * @param value   value to record
+     */
+    protected synchronized void addRelative(long instant, double value){
+        offered++;
+        retention.add(this, instant, value);
+    }
+
+    /**
+     * Store a data point unconditionally, unless there is already a data point at the same instant.
+     * Must be called while holding the lock of this metric.
+     *
+     * @param instant elapsed time in nanoseconds since the reference instant
+     * @param value   value to record
+     */
+    protected void append(long instant, double value){
+        if(size > 0){
+            long last = instants[size - 1];
+            if(sorted && instant == last){
+                // Keep first data point for each instant
+                return;
+            }
+            if(instant < last){
+                sorted = false;
+            }
+        }
+        if(size == instants.length){
+            grow(size + 1);
+        }
+        instants[size] = instant;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Replace data points in range [from, to) by a single data point, keeping the remaining data points in order.
+     * If the range is empty, the data point is inserted at the given position.
+     * Caller must ensure that data points are sorted, and that they will be sorted after the replacement.
+     *
+     * @param from    first data point to replace, inclusive
+     * @param to      last data point to replace, exclusive
+     * @param instant relative instant of the new data point
+     * @param value   value of the new data point
+     */
+    protected void replace(int from, int to, long instant, double value){
+        assert sorted && from <= to && to <= size;
+        int removed = to - from;
+        if(removed == 0){
+            if(size == instants.length){
+                grow(size + 1);
+            }
+            System.arraycopy(instants, from, instants, from + 1, size - from);
+            System.arraycopy(values, from, values, from + 1, size - from);
+            size++;
+        } else if (removed > 1) {
+            System.arraycopy(instants, to, instants, from + 1, size - to);
+            System.arraycopy(values, to, values, from + 1, size - to);
+            size -= removed - 1;
+        }
+        instants[from] = instant;
+        values[from] = value;
+    }
+
+    private void grow(int minCapacity){
+        int newCapacity = Math.max(minCapacity, instants.length * 2);
+        instants = Arrays.copyOf(instants, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+    }
+
+    /**
+     * Sort data points by instant if they were appended out of order, keeping the first appended data point for each instant
+     */
+    protected synchronized void ensureSorted(){
+        if(sorted){
+            return;
+        }
+        int[] order = stableOrder(instants, size);
+        var newInstants = new long[instants.length];
+        var newValues = new double[values.length];
+        int newSize = 0;
+        for(int i: order){
+            if(newSize > 0 && newInstants[newSize - 1] == instants[i]){
+                continue;
+            }
+            newInstants[newSize] = instants[i];
+            newValues[newSize] = values[i];
+            newSize++;
+        }
+        this.instants = newInstants;
+        this.values = newValues;
+        this.size = newSize;
+        this.sorted = true;
+    }
+
+    /**
+     * Calculate the permutation that sorts the given instants, ties keep their original order
+     * @param instants instants to sort
+     * @param size     number of valid instants
+     * @return array of indexes in sorted order
+     */
+    static int[] stableOrder(long[] instants, int size){
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> instants[i]));
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    /**
+     * Find the latest data point whose instant is equal or lower than the given one
+     * @param instant relative instant
+     * @return index of the data point, or -1 if all data points are after the given instant
+     */
+    protected synchronized int floorIndex(long instant){
+        ensureSorted();
+        int index = Arrays.binarySearch(instants, 0, size, instant);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Number of data points
+     * @return number of data points
+     */
+    public synchronized int size(){
+        ensureSorted();
+        return size;
+    }
+
+    /**
+     * Check if this metric has any data point
+     * @return true if there are no data points, false otherwise
+     */
+    @JsonIgnore
+    public synchronized boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * Instant of the i-th data point, in instant order
+     * @param i data point index
+     * @return elapsed time in nanoseconds since the reference instant
+     */
+    public synchronized long instant(int i){
+        ensureSorted();
+        return instants[i];
+    }
+
+    /**
+     * Value of the i-th data point, in instant order
+     * @param i data point index
+     * @return recorded value
+     */
+    public synchronized double value(int i){
+        ensureSorted();
+        return values[i];
+    }
+
+    /**
+     * Get a copy of all data points, sorted by instant
+     * @return list of data points
+     */
+    public synchronized List<TimeValue> getValues() {
+        ensureSorted();
+        var list = new ArrayList<TimeValue>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new TimeValue(instants[i], values[i]));
+        }
+        return list;
+    }
+
+    /**
+     * Number of data points added to this metric, including those discarded by the retention policy
+     * @return number of data points added
+     */
+    @JsonIgnore
+    public synchronized long getOffered(){
+        return offered;
+    }
+
+    /**
+     * Retention policy used by this metric
+     * @return retention policy
+     */
+    @JsonIgnore
+    public MetricRetention getRetention(){
+        return retention;
+    }
+
+    /**
+     * Change the retention policy of this metric, should be done before adding any data point
+     * @param retention retention policy
+     */
+    public synchronized void setRetention(MetricRetention retention){
+        this.retention = retention;
     }
 
     public long getReferenceNanoTime() {
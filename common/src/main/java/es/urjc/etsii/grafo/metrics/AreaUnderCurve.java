@@ -0,0 +1,148 @@
+package es.urjc.etsii.grafo.metrics;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.util.DoubleComparator;
+
+/**
+ * Incrementally calculates the area under the best value curve of a metric, in range [skipNanos, skipNanos+duration]
+ * relative to the metric reference instant, as each data point arrives. No data point is kept.
+ * Gives the same result as {@link MetricUtil#areaUnderCurve(AbstractMetric, long, long, boolean)} over a metric
+ * using a {@link MetricRetention#monotone(FMode)} policy, if data points are added in order.
+ * Data points added out of order are accounted as if they were recorded at the latest instant seen so far.
+ * <p>
+ * Unlike other retention policies, instances are stateful, use a new one for each metric,
+ * see {@link AbstractMetric#setRetention(MetricRetention)}.
+ */
+public final class AreaUnderCurve extends MetricRetention {
+
+    private final FMode fMode;
+    private final long skipNanos;
+    private final long endNanos;
+
+    private String metricName = "unknown";
+    private boolean hasValue = false;
+    private boolean startCovered = false;
+    private boolean negative = false;
+    private double current;
+    private long lastInstant;
+    private double area = 0;
+
+    /**
+     * Create a new area accumulator
+     *
+     * @param fMode     whether greater or lower values are better
+     * @param skipNanos ignore any datapoint whose timestamp is less than skipNanos, relative to the metric reference instant
+     * @param duration  pick only data points in range [skipNanos, skipNanos+duration]. Range is inclusive.
+     */
+    public AreaUnderCurve(FMode fMode, long skipNanos, long duration) {
+        if (skipNanos < 0 || duration < 0) {
+            throw new IllegalArgumentException("Invalid area range, skip %s, duration %s".formatted(skipNanos, duration));
+        }
+        this.fMode = fMode;
+        this.skipNanos = skipNanos;
+        this.endNanos = Math.addExact(skipNanos, duration);
+        this.lastInstant = skipNanos;
+    }
+
+    @Override
+    protected void add(AbstractMetric metric, long instant, double value) {
+        add(metric.getName(), instant, value);
+    }
+
+    private synchronized void add(String metricName, long instant, double value) {
+        this.metricName = metricName;
+        if (!hasValue) {
+            hasValue = true;
+            startCovered = instant <= skipNanos;
+            current = value;
+            lastInstant = Math.max(instant, skipNanos);
+            return;
+        }
+        if (instant > endNanos || !fMode.isBetter(value, current)) {
+            // Outside range or does not change the curve
+            return;
+        }
+        if (instant > lastInstant) {
+            // Close the rectangle delimited by the previous best value
+            accumulate(instant);
+        }
+        current = value;
+    }
+
+    private void accumulate(long instant) {
+        if (DoubleComparator.isNegative(current)) {
+            negative = true;
+        }
+        area += (instant - lastInstant) * current;
+        lastInstant = instant;
+    }
+
+    /**
+     * Area accumulated from skipNanos to the instant of the latest data point that changed the curve.
+     * While the algorithm is running, the final area will be at least this value if the best value curve is never negative.
+     *
+     * @return partial area, 0 if no data point has been recorded in range
+     */
+    public synchronized double getPartialArea() {
+        return area;
+    }
+
+    /**
+     * Area accumulated from skipNanos to the given instant, assuming that no data point is added until then.
+     * While the algorithm is running, use the current instant to get the area that the execution has already accrued.
+     *
+     * @param instant instant relative to the metric reference instant, clipped to the range
+     * @return accrued area, 0 if there was no data point at or before skipNanos
+     */
+    public synchronized double getAccruedArea(long instant) {
+        if (!startCovered) {
+            return 0;
+        }
+        long until = Math.min(instant, endNanos);
+        return until > lastInstant ? area + (until - lastInstant) * current : area;
+    }
+
+    /**
+     * Latest instant included in the partial area
+     *
+     * @return instant relative to the metric reference instant
+     */
+    public synchronized long getLastInstant() {
+        return lastInstant;
+    }
+
+    /**
+     * Best value seen so far
+     *
+     * @return best value, or NaN if no data point has been recorded
+     */
+    public synchronized double getCurrentValue() {
+        return hasValue ? current : Double.NaN;
+    }
+
+    /**
+     * Complete the area until the end of the range, as if the algorithm had ended
+     *
+     * @param logScale scale area under curve using natural logarithm
+     * @return area calculation as a double value
+     * @throws IllegalArgumentException if the area is unbounded or if there was no data point at or before skipNanos.
+     */
+    public synchronized double getArea(boolean logScale) {
+        if (!hasValue) {
+            throw new IllegalArgumentException("Cannot calculate area under curve if there are no values recorded for metric " + metricName);
+        }
+        if (!startCovered) {
+            throw new IllegalArgumentException(String.format("Metric %s does not have any element before %s", metricName, skipNanos));
+        }
+        double total = area + (endNanos - lastInstant) * current;
+        if (negative) {
+            throw new IllegalArgumentException("Negative f.o value detected in metric " + metricName);
+        }
+        return MetricUtil.scale(metricName, total, logScale);
+    }
+
+    @Override
+    public String toString() {
+        return "areaUnderCurve(%s, [%s, %s])".formatted(fMode, skipNanos, endNanos);
+    }
+}
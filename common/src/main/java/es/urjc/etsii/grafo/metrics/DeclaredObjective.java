@@ -3,7 +3,8 @@ package es.urjc.etsii.grafo.metrics;
 import es.urjc.etsii.grafo.algorithms.FMode;
 
 /**
- * Metric that stores the best objective values seen so far
+ * Metric that stores the best objective values seen so far.
+ * Uses a {@link MetricRetention#monotone(FMode)} retention policy unless a different one is declared when registering it.
  */
 public class DeclaredObjective extends AbstractMetric {
 
@@ -20,33 +21,6 @@ public class DeclaredObjective extends AbstractMetric {
         super(referenceInstant);
         this.name = name;
         this.fMode = fmode;
-    }
-
-    @Override
-    public synchronized void add(long instant, double value) {
-        var t = new TimeValue(instant, value);
-        // Datapoint is inserted only if it improves the curve
-        var previous = this.values.floor(t);
-        if(previous == null){
-            super.add(instant, value);
-        } else if(fMode.isBetter(value, previous.value())){
-            // Remove all points that are worse than the new one
-            for (var iterator = this.values.tailSet(previous, false).iterator(); iterator.hasNext(); ) {
-                var tv = iterator.next();
-                if (fMode.isBetterOrEqual(value, tv.value())) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            super.add(instant, value);
-        }
-    }
-
-    @Override
-    public void add(double value) {
-        if(values.isEmpty() || fMode.isBetter(value, values.last().value())){
-            super.add(value);
-        }
+        this.retention = MetricRetention.monotone(fmode);
     }
 }
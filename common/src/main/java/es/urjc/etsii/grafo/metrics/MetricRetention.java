@@ -0,0 +1,228 @@
+package es.urjc.etsii.grafo.metrics;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which data points are kept by a metric, so memory usage can be bounded regardless of how long algorithms run.
+ * Policies returned by the factory methods are stateless and can be shared by any number of metrics. Declare them when registering a metric,
+ * see {@link Metrics#register(String, java.util.function.Function, MetricRetention)},
+ * or set them in the constructor of the metric implementation.
+ */
+public abstract class MetricRetention {
+
+    private static final MetricRetention ALL = new MetricRetention() {
+        @Override
+        protected void add(AbstractMetric metric, long instant, double value) {
+            metric.append(instant, value);
+        }
+
+        @Override
+        public String toString() {
+            return "all";
+        }
+    };
+
+    /**
+     * Keep every data point
+     *
+     * @return retention policy
+     */
+    public static MetricRetention all() {
+        return ALL;
+    }
+
+    /**
+     * Keep only data points that improve the best value seen so far, as in an anytime curve.
+     * If a data point is added before existing ones, later data points that do not improve it are removed.
+     *
+     * @param fMode whether greater or lower values are better
+     * @return retention policy
+     */
+    public static MetricRetention monotone(FMode fMode) {
+        return new Monotone(fMode, 0);
+    }
+
+    /**
+     * Keep only data points that improve the best value seen so far, and at most one data point per time bucket,
+     * the last improvement in the bucket. The curve may be delayed by up to one bucket, but is never better than the real one.
+     *
+     * @param fMode      whether greater or lower values are better
+     * @param resolution bucket duration
+     * @param unit       bucket duration time unit
+     * @return retention policy
+     */
+    public static MetricRetention monotone(FMode fMode, long resolution, TimeUnit unit) {
+        return new Monotone(fMode, toBucketNanos(resolution, unit));
+    }
+
+    /**
+     * Keep at most one data point per time bucket, the last one added in the bucket.
+     * Bucket i contains data points recorded in range [i * resolution, (i+1) * resolution) since the reference instant.
+     *
+     * @param resolution bucket duration
+     * @param unit       bucket duration time unit
+     * @return retention policy
+     */
+    public static MetricRetention timeBuckets(long resolution, TimeUnit unit) {
+        return new TimeBuckets(toBucketNanos(resolution, unit));
+    }
+
+    /**
+     * Keep a uniform random sample of at most maxPoints data points, using reservoir sampling.
+     * The sample only depends on the order in which data points are added, the random generator of the algorithm is not used.
+     *
+     * @param maxPoints maximum number of data points to keep
+     * @return retention policy
+     */
+    public static MetricRetention reservoir(int maxPoints) {
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("Reservoir size must be greater than 0, got " + maxPoints);
+        }
+        return new Reservoir(maxPoints);
+    }
+
+    private static long toBucketNanos(long resolution, TimeUnit unit) {
+        long nanos = unit.toNanos(resolution);
+        if (nanos < 1) {
+            throw new IllegalArgumentException("Time bucket resolution must be positive, got %s %s".formatted(resolution, unit));
+        }
+        return nanos;
+    }
+
+    /**
+     * Add a data point to the metric, if it should be kept. Called while holding the metric lock.
+     *
+     * @param metric  metric where the data point is added
+     * @param instant elapsed time in nanoseconds since the reference instant of the metric
+     * @param value   value to record
+     */
+    protected abstract void add(AbstractMetric metric, long instant, double value);
+
+    /**
+     * If the given data point would be appended after the last one, and both belong to the same bucket, return the index of the last data point
+     *
+     * @param metric      metric
+     * @param instant     relative instant of the new data point
+     * @param bucketNanos bucket duration in nanoseconds, 0 to disable buckets
+     * @return index of the last data point, or -1 if buckets are disabled or the new data point does not share its bucket.
+     * The first data point is never replaced, so the metric always starts at the same instant.
+     */
+    private static int sameBucketAsLast(AbstractMetric metric, long instant, long bucketNanos) {
+        if (bucketNanos <= 0 || metric.size < 2) {
+            return -1;
+        }
+        metric.ensureSorted();
+        int last = metric.size - 1;
+        long lastInstant = metric.instants[last];
+        if (instant > lastInstant && Math.floorDiv(instant, bucketNanos) == Math.floorDiv(lastInstant, bucketNanos)) {
+            return last;
+        }
+        return -1;
+    }
+
+    private static final class Monotone extends MetricRetention {
+        private final FMode fMode;
+        private final long bucketNanos;
+
+        private Monotone(FMode fMode, long bucketNanos) {
+            this.fMode = fMode;
+            this.bucketNanos = bucketNanos;
+        }
+
+        @Override
+        protected void add(AbstractMetric metric, long instant, double value) {
+            // Datapoint is inserted only if it improves the curve
+            int previous = metric.floorIndex(instant);
+            if (previous < 0) {
+                metric.append(instant, value);
+                return;
+            }
+            var values = metric.values;
+            if (!fMode.isBetter(value, values[previous])) {
+                return;
+            }
+            int last = sameBucketAsLast(metric, instant, bucketNanos);
+            if (last >= 0) {
+                // Last improvement in the bucket replaces the previous one
+                metric.replace(last, last + 1, instant, value);
+                return;
+            }
+            // Remove all points that are worse than the new one
+            int end = previous + 1;
+            while (end < metric.size && fMode.isBetterOrEqual(value, values[end])) {
+                end++;
+            }
+            // If there is a point at the same instant, the better value replaces it
+            int start = metric.instants[previous] == instant ? previous : previous + 1;
+            metric.replace(start, end, instant, value);
+        }
+
+        @Override
+        public String toString() {
+            return bucketNanos > 0 ? "monotone(%s, %sns)".formatted(fMode, bucketNanos) : "monotone(%s)".formatted(fMode);
+        }
+    }
+
+    private static final class TimeBuckets extends MetricRetention {
+        private final long bucketNanos;
+
+        private TimeBuckets(long bucketNanos) {
+            this.bucketNanos = bucketNanos;
+        }
+
+        @Override
+        protected void add(AbstractMetric metric, long instant, double value) {
+            int last = sameBucketAsLast(metric, instant, bucketNanos);
+            if (last >= 0) {
+                metric.replace(last, last + 1, instant, value);
+            } else {
+                metric.append(instant, value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "timeBuckets(%sns)".formatted(bucketNanos);
+        }
+    }
+
+    private static final class Reservoir extends MetricRetention {
+        private final int maxPoints;
+
+        private Reservoir(int maxPoints) {
+            this.maxPoints = maxPoints;
+        }
+
+        @Override
+        protected void add(AbstractMetric metric, long instant, double value) {
+            if (metric.size < maxPoints) {
+                metric.append(instant, value);
+                return;
+            }
+            // Algorithm R: the n-th data point replaces a random one with probability maxPoints / n
+            long n = metric.offered;
+            long slot = Math.floorMod(mix(n), n);
+            if (slot < maxPoints) {
+                metric.instants[(int) slot] = instant;
+                metric.values[(int) slot] = value;
+                metric.sorted = false;
+            }
+        }
+
+        /**
+         * SplitMix64 finalizer, deterministic pseudo random value for the given counter
+         */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        public String toString() {
+            return "reservoir(%s)".formatted(maxPoints);
+        }
+    }
+}
@@ -62,48 +62,62 @@ public class MetricUtil {
      * @throws IllegalArgumentException if the area is unbounded or if the metric does not contain at least 1 datapoint.
      */
     public static double areaUnderCurve(AbstractMetric metric, long skipNanos, long duration, boolean logScale) {
-        var set = metric.values;
         var name = metric.getName();
-        if (set.isEmpty()) {
+        if (metric.isEmpty()) {
             throw new IllegalArgumentException("Cannot calculate area under curve if there are no values recorded for metric " + name);
         }
 
-        var startInterval = new TimeValue(skipNanos, -1);
         long endTime = Math.addExact(skipNanos, duration);
 
         // Find the latest point in time whose timestamp is equal or lower than the start range
-        var previousElement = set.floor(startInterval);
-        if (previousElement == null) {
-            throw new IllegalArgumentException(String.format("Metric %s does not have any element before %s, first element is at %s", name, skipNanos, set.ceiling(startInterval)));
+        int previousIndex = metric.floorIndex(skipNanos);
+        if (previousIndex < 0) {
+            throw new IllegalArgumentException(String.format("Metric %s does not have any element before %s, first element is at %s", name, skipNanos, new TimeValue(metric.instant(0), metric.value(0))));
         }
 
         // All points are already relative to the referenceTime, we just need to skip those whose time value is less than skipNanos
-        var filteredSet = set.tailSet(startInterval);
+        var instants = metric.instants;
+        var values = metric.values;
+        int size = metric.size;
+        int start = instants[previousIndex] == skipNanos ? previousIndex : previousIndex + 1;
 
         // Keep track of the previous point (X, Y) coordinates
         double area = 0;
-        double lastValue = previousElement.value();
+        double lastValue = values[previousIndex];
         long lastTime = skipNanos;
 
         // While the time is lower than endTime, add to area the square delimited by time horizontally and value vertically
-        for (var tv : filteredSet) {
-            if (tv.instant() > endTime) {
+        for (int i = start; i < size; i++) {
+            long instant = instants[i];
+            if (instant > endTime) {
                 break;
             }
             // Calculate area of current rectangle
             var height = lastValue;
             if(DoubleComparator.isNegative(height)){
-                throw new IllegalArgumentException("Negative f.o value detected in metric " + name + " at time " + tv.instant() + " with value " + height);
+                throw new IllegalArgumentException("Negative f.o value detected in metric " + name + " at time " + instant + " with value " + height);
             }
-            area += (tv.instant() - lastTime) * height;
+            area += (instant - lastTime) * height;
             // Advance limit
-            lastValue = tv.value();
-            lastTime = tv.instant();
+            lastValue = values[i];
+            lastTime = instant;
         }
         // Complete the area until the right cutoff mark
         var height = lastValue;
         area += (endTime - lastTime) * height;
 
+        return scale(name, area, logScale);
+    }
+
+    /**
+     * Apply the optional log scale to a calculated area
+     * @param name     metric name, used in error messages
+     * @param area     area under curve
+     * @param logScale Scale area under curve using natural logarithm
+     * @return area, scaled if requested
+     * @throws IllegalArgumentException if the area is unbounded
+     */
+    static double scale(String name, double area, boolean logScale) {
         if(!logScale){
             return area;
         }
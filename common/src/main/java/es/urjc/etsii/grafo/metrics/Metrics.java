@@ -20,12 +20,14 @@ import java.util.function.Function;
  * Note that metrics are always ThreadLocal, which means that every thread works on its own independent copy.
  * Metrics are always disabled by default, and must be enabled by either the framework or manually by the user
  * Metrics from different threads can later be merged using {@link Metrics#merge(MetricsStorage...)}
+ * Memory used by each metric can be bounded declaring a {@link MetricRetention} policy when registering it.
  */
 public final class Metrics {
 
     private static final Logger log = LoggerFactory.getLogger(Metrics.class.getName());
 
     private static final Map<String, Function<Long, ? extends AbstractMetric>> initializers = new HashMap<>();
+    private static final Map<String, MetricRetention> retentions = new HashMap<>();
     private static InheritableThreadLocal<MetricsStorage> localMetrics = new InheritableThreadLocal<>();
     private static volatile boolean enabled = false;
 
@@ -45,6 +47,29 @@ public final class Metrics {
         return metricsStorage;
     }
 
+    /**
+     * Get metrics collected by the current thread, without failing if they are not available
+     * @return metrics instance for the current thread, or null if metrics are disabled or have not been initialized for the current thread
+     */
+    public static MetricsStorage getCurrentThreadMetricsOrNull(){
+        return enabled ? localMetrics.get() : null;
+    }
+
+    /**
+     * Replace the metrics collected by the current thread, for example to record metrics on behalf of another thread.
+     * @param metricsStorage metrics instance to use from now on in the current thread, null to remove it
+     * @return metrics instance previously used by the current thread, may be null
+     */
+    public static MetricsStorage setCurrentThreadMetrics(MetricsStorage metricsStorage){
+        var previous = localMetrics.get();
+        if(metricsStorage == null){
+            localMetrics.remove();
+        } else {
+            localMetrics.set(metricsStorage);
+        }
+        return previous;
+    }
+
     private static void checkEnabled() {
         if(!enabled){
             throw new IllegalStateException("Metrics are disabled, enable them first");
@@ -83,6 +108,7 @@ public final class Metrics {
     public static void disableMetrics(){
         localMetrics.remove();
         initializers.clear();
+        retentions.clear();
         enabled = false;
     }
 
@@ -106,7 +132,7 @@ public final class Metrics {
         if(!storage.metrics.containsKey(metricName)){
             // If initializer is present create, else fail because user forgot to register their custom metric
             if(initializers.containsKey(metricName)){
-                storage.metrics.put(metricName, initializers.get(metricName).apply(storage.referenceNanoTime));
+                storage.metrics.put(metricName, create(metricName, storage.referenceNanoTime));
             }
 //            else {
 //                log.trace("Unregistered metric: {}", storage.metrics);
@@ -115,6 +141,15 @@ public final class Metrics {
         }
     }
 
+    private static AbstractMetric create(String metricName, long referenceTime) {
+        var metric = initializers.get(metricName).apply(referenceTime);
+        var retention = retentions.get(metricName);
+        if(retention != null){
+            metric.setRetention(retention);
+        }
+        return metric;
+    }
+
     public static <T extends AbstractMetric> T get(Class<T> metric){
         return get(metric.getSimpleName());
     }
@@ -126,10 +161,26 @@ public final class Metrics {
      * @param <T> metric type
      */
     public static <T extends AbstractMetric> void register(String metricName, Function<Long, T> initializer){
+        register(metricName, initializer, null);
+    }
+
+    /**
+     * Register a new metric so the framework automatically tracks it, keeping only the data points chosen by the given retention policy
+     * @param metricName metric name
+     * @param initializer method to initialize the given metric
+     * @param retention which data points should be kept, see {@link MetricRetention}. If null, the metric implementation decides.
+     * @param <T> metric type
+     */
+    public static <T extends AbstractMetric> void register(String metricName, Function<Long, T> initializer, MetricRetention retention){
         if(initializers.containsKey(metricName)){
             log.warn("Metric already registered: {}", metricName);
         }
         initializers.put(metricName, initializer);
+        if(retention == null){
+            retentions.remove(metricName);
+        } else {
+            retentions.put(metricName, retention);
+        }
     }
 
     /**
@@ -142,6 +193,17 @@ public final class Metrics {
         register(metric.getSimpleName(), initializer);
     }
 
+    /**
+     * Register a new metric so the framework automatically tracks it, keeping only the data points chosen by the given retention policy
+     * @param metric metric implementation to track, must extend AbstractMetric
+     * @param initializer Method used to initialize the given metric
+     * @param retention which data points should be kept, see {@link MetricRetention}. If null, the metric implementation decides.
+     * @param <T> Metric type
+     */
+    public static <T extends AbstractMetric> void register(Class<T> metric, Function<Long, T> initializer, MetricRetention retention){
+        register(metric.getSimpleName(), initializer, retention);
+    }
+
 
     /**
      * Merge several metrics instances.
@@ -165,23 +227,34 @@ public final class Metrics {
      * @return new metric instance containing the data of all the metrics provided, with time corrected as necessary.
      */
     public static MetricsStorage merge(Iterable<MetricsStorage> metrics){
-        Map<String, List<TimeValue>> grouped = new HashMap<>();
+        Map<String, List<AbstractMetric>> grouped = new HashMap<>();
         for (var storage : metrics) {
-            for(var metricName: storage.metrics.keySet()){
-                grouped.computeIfAbsent(metricName, k -> new ArrayList<>());
-                var list = grouped.get(metricName);
-                list.addAll(storage.metrics.get(metricName).values);
+            for(var e: storage.metrics.entrySet()){
+                grouped.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(e.getValue());
             }
         }
-        for(var e: grouped.entrySet()){
-            Collections.sort(e.getValue());
-        }
         var newStorage = new MetricsStorage(MetricsStorage.NO_REF);
         for(var e: grouped.entrySet()){
             var metricName = e.getKey();
-            var newMetric = initializers.get(metricName).apply(MetricsStorage.NO_REF);
-            for(var tv: e.getValue()){
-                newMetric.add(tv.instant(), tv.value());
+            // Concatenate all data points, and add them to the new metric sorted by instant, ties in storage order
+            int total = 0;
+            for(var metric: e.getValue()){
+                total += metric.size();
+            }
+            var instants = new long[total];
+            var values = new double[total];
+            int n = 0;
+            for(var metric: e.getValue()){
+                synchronized (metric){
+                    metric.ensureSorted();
+                    System.arraycopy(metric.instants, 0, instants, n, metric.size);
+                    System.arraycopy(metric.values, 0, values, n, metric.size);
+                    n += metric.size;
+                }
+            }
+            var newMetric = create(metricName, MetricsStorage.NO_REF);
+            for(int i: AbstractMetric.stableOrder(instants, n)){
+                newMetric.addRelative(instants[i], values[i]);
             }
             newStorage.metrics.put(metricName, newMetric);
         }
@@ -57,8 +57,9 @@ public class RandomMoveShake<S extends Solution<S,I>, I extends Instance> extend
      */
     public S shake(S solution, int k) {
         // Execute k*RATIO random moves in the given neighborhood
+        var deadline = TimeControl.deadline();
         for (int i = 0; i < k*ratio; i++) {
-            if(TimeControl.isTimeUp()){
+            if(deadline.isExpired()){
                 return solution;
             }
             var move = this.neighborhood.getRandomMove(solution);
@@ -0,0 +1,92 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+
+import java.util.Objects;
+
+/**
+ * Opt-in neighborhood wrapper that allows reusing evaluated moves between local search iterations.
+ * Moves are kept in a {@link MoveCache}, ordered by their objective function value. After a move is executed,
+ * only the cached moves whose positions overlap the positions affected by the executed move are evaluated again.
+ * Users must extend this class and implement {@link #affectedPositions(Solution, Move)} and {@link #refresh(Solution, Move)},
+ * which define how moves depend on the solution. Positions are problem dependant, for example the indexes of a permutation.
+ * {@link es.urjc.etsii.grafo.improve.ls.LocalSearchBestImprovement} automatically uses the cache when given a cached neighborhood.
+ *
+ * @param <M> Move type
+ * @param <S> Solution type
+ * @param <I> Instance type
+ */
+public abstract class CachedNeighborhood<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> extends Neighborhood<M, S, I> {
+
+    protected final Neighborhood<M, S, I> neighborhood;
+
+    /**
+     * Wrap a neighborhood
+     *
+     * @param neighborhood neighborhood that generates the initial set of moves
+     */
+    protected CachedNeighborhood(Neighborhood<M, S, I> neighborhood) {
+        this.neighborhood = Objects.requireNonNull(neighborhood);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to the wrapped neighborhood, does not use any cache.
+     */
+    @Override
+    public ExploreResult<M, S, I> explore(S solution) {
+        return neighborhood.explore(solution);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int neighborhoodSize(S solution) {
+        return neighborhood.neighborhoodSize(solution);
+    }
+
+    /**
+     * Positions of the solution a move depends on, non-negative integers.
+     * When a move is executed, every cached move that shares at least one position with it is evaluated again.
+     * Moves that do not share any position with the executed move must keep the same objective function value.
+     *
+     * @param solution current solution
+     * @param move     move, may have been generated for a previous version of the solution
+     * @return positions read or modified by the move
+     */
+    public abstract int[] affectedPositions(S solution, M move);
+
+    /**
+     * Create an equivalent move for the current version of the solution, with an updated objective function value.
+     * Called when a move is invalidated by an overlapping move, or when an outdated move is going to be returned.
+     *
+     * @param solution current solution
+     * @param move     move generated for a previous version of the solution
+     * @return equivalent move for the current solution, or null if the move is no longer valid
+     */
+    public abstract M refresh(S solution, M move);
+
+    /**
+     * Create a new cache for the given solution. Caches are not thread safe and must not be shared.
+     *
+     * @param solution  solution, should only be modified using {@link MoveCache#execute(Move)} while the cache is in use
+     * @param objective objective used to sort moves
+     * @return move cache initialized with all the moves of the wrapped neighborhood
+     */
+    public MoveCache<M, S, I> cache(S solution, Objective<M, S, I> objective) {
+        return new MoveCache<>(this, solution, objective);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Cached{" + neighborhood + "}";
+    }
+}
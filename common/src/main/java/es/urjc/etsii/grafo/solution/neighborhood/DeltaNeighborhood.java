@@ -0,0 +1,99 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+
+/**
+ * Optional contract for neighborhoods that can be explored without creating a {@link Move} object for each candidate.
+ * Each candidate move is encoded as a long, for example packing the two positions of a swap move using {@link #encode(int, int)},
+ * and is reported together with its objective function delta.
+ * Only the moves that are going to be executed are materialized using {@link #materialize(Solution, long)}.
+ * Local search procedures and the simulated annealing will automatically use this exploration strategy
+ * if the neighborhood implements this interface and {@link #supportsDeltas(Objective)} returns true for the objective being optimized.
+ *
+ * @param <M> Move type
+ * @param <S> Solution type
+ * @param <I> Instance type
+ */
+public interface DeltaNeighborhood<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> {
+
+    /**
+     * Special value used to signal that there is no valid move
+     */
+    long NO_MOVE = Long.MIN_VALUE;
+
+    /**
+     * Check if the deltas reported by this neighborhood correspond to the given objective function.
+     * Deltas must be equal to the value returned by {@link Objective#evalMove(Move)} for the materialized move.
+     *
+     * @param objective objective function being optimized
+     * @return true if delta exploration can be used when optimizing the given objective, false otherwise
+     */
+    boolean supportsDeltas(Objective<?, S, I> objective);
+
+    /**
+     * Explore the neighborhood without creating move objects.
+     * Moves must be reported in the same order as they would be returned by {@link Neighborhood#explore(Solution)}.
+     *
+     * @param solution solution used to generate the neighborhood
+     * @param consumer receives each encoded move and its delta. Stop the exploration as soon as the consumer returns false.
+     */
+    void exploreDeltas(S solution, DeltaConsumer consumer);
+
+    /**
+     * Create the move object for a given encoded move
+     *
+     * @param solution solution used to generate the neighborhood
+     * @param move     encoded move, as reported by {@link #exploreDeltas(Solution, DeltaConsumer)}
+     * @return move object
+     */
+    M materialize(S solution, long move);
+
+    /**
+     * Encode two non-negative integers as a single long value, for example the two positions of a swap move
+     *
+     * @param a first value
+     * @param b second value
+     * @return encoded value
+     */
+    static long encode(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get first value of an encoded pair
+     *
+     * @param move encoded move, see {@link #encode(int, int)}
+     * @return first value
+     */
+    static int first(long move) {
+        return (int) (move >>> 32);
+    }
+
+    /**
+     * Get second value of an encoded pair
+     *
+     * @param move encoded move, see {@link #encode(int, int)}
+     * @return second value
+     */
+    static int second(long move) {
+        return (int) move;
+    }
+
+    /**
+     * Receives encoded moves and their deltas
+     */
+    @FunctionalInterface
+    interface DeltaConsumer {
+        /**
+         * Process an encoded move
+         *
+         * @param move  encoded move
+         * @param delta objective function delta if the move is executed
+         * @return true to continue exploring the neighborhood, false to stop
+         */
+        boolean accept(long move, double delta);
+    }
+}
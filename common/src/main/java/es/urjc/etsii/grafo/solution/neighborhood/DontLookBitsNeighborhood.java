@@ -0,0 +1,45 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Solution;
+
+/**
+ * Optional contract for neighborhoods whose moves can be grouped by solution element, such as the nodes of a tour.
+ * Allows local search procedures to implement the "don't look bits" strategy: after an element is explored without finding
+ * any improving move, it is not explored again until a move touches it, see {@link es.urjc.etsii.grafo.improve.ls.LocalSearchDontLookBits}.
+ * The union of the moves generated for every element should be equivalent to the moves returned by {@link Neighborhood#explore(Solution)}.
+ *
+ * @param <M> Move type
+ * @param <S> Solution type
+ * @param <I> Instance type
+ */
+public interface DontLookBitsNeighborhood<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> {
+
+    /**
+     * Number of elements in the given solution, elements are identified by an int in range [0, nElements)
+     *
+     * @param solution current solution
+     * @return number of elements
+     */
+    int nElements(S solution);
+
+    /**
+     * Generate all moves that involve the given element
+     *
+     * @param solution current solution
+     * @param element  element id, in range [0, nElements)
+     * @return moves that involve the given element
+     */
+    ExploreResult<M, S, I> explore(S solution, int element);
+
+    /**
+     * Elements whose neighborhood may change if the given move is executed, usually the elements modified by the move and their neighbors.
+     * Called before the move is executed.
+     *
+     * @param solution current solution
+     * @param move     move that is going to be executed
+     * @return elements that must be explored again
+     */
+    int[] touchedElements(S solution, M move);
+}
@@ -0,0 +1,186 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.Solution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Evaluated moves for a given solution, ordered by objective function value. See {@link CachedNeighborhood}.
+ * Ties are resolved in favour of the move generated first by the wrapped neighborhood,
+ * so the best move is the same one that a full best improvement exploration would return.
+ * Not thread safe.
+ *
+ * @param <M> Move type
+ * @param <S> Solution type
+ * @param <I> Instance type
+ */
+public class MoveCache<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> {
+
+    private static final Logger log = LoggerFactory.getLogger(MoveCache.class);
+
+    /**
+     * Rebuild the heap when it contains more than this number of invalid entries per valid entry
+     */
+    private static final int MAX_INVALID_RATIO = 2;
+
+    private final CachedNeighborhood<M, S, I> neighborhood;
+    private final S solution;
+    private final Objective<M, S, I> objective;
+
+    private final PriorityQueue<Entry<M>> heap;
+    private final List<List<Entry<M>>> byPosition = new ArrayList<>();
+    private long expectedVersion;
+    private int validEntries;
+
+    private static final class Entry<M> {
+        final M move;
+        final double score;
+        final int order;
+        final long version;
+        boolean valid = true;
+
+        Entry(M move, double score, int order, long version) {
+            this.move = move;
+            this.score = score;
+            this.order = order;
+            this.version = version;
+        }
+    }
+
+    MoveCache(CachedNeighborhood<M, S, I> neighborhood, S solution, Objective<M, S, I> objective) {
+        this.neighborhood = neighborhood;
+        this.solution = solution;
+        this.objective = objective;
+        Comparator<Entry<M>> byScore = Comparator.comparingDouble(e -> e.score);
+        if (objective.getFMode() == FMode.MAXIMIZE) {
+            byScore = byScore.reversed();
+        }
+        this.heap = new PriorityQueue<>(byScore.thenComparingInt(e -> e.order));
+        rebuild();
+    }
+
+    private void rebuild() {
+        heap.clear();
+        byPosition.clear();
+        validEntries = 0;
+        expectedVersion = solution.getVersion();
+        int[] order = {0};
+        neighborhood.neighborhood.explore(solution).moves().forEachOrdered(m -> add(m, order[0]++));
+    }
+
+    private void add(M move, int order) {
+        var entry = new Entry<>(move, objective.evalMove(move), order, solution.getVersion());
+        heap.add(entry);
+        validEntries++;
+        for (int position : neighborhood.affectedPositions(solution, move)) {
+            while (byPosition.size() <= position) {
+                byPosition.add(new ArrayList<>());
+            }
+            byPosition.get(position).add(entry);
+        }
+    }
+
+    private void invalidate(Entry<M> entry) {
+        entry.valid = false;
+        validEntries--;
+    }
+
+    private void checkVersion() {
+        if (solution.getVersion() != expectedVersion) {
+            log.debug("Solution modified outside move cache, rebuilding");
+            rebuild();
+        }
+    }
+
+    /**
+     * Get the best move for the current solution, without removing it from the cache
+     *
+     * @return best move, or null if there are no moves
+     */
+    public M best() {
+        checkVersion();
+        while (!heap.isEmpty()) {
+            var entry = heap.peek();
+            if (!entry.valid) {
+                heap.poll();
+                continue;
+            }
+            if (entry.version == solution.getVersion()) {
+                return entry.move;
+            }
+            // Score is still valid, but the move object references an old solution version
+            heap.poll();
+            invalidate(entry);
+            var refreshed = neighborhood.refresh(solution, entry.move);
+            if (refreshed != null) {
+                add(refreshed, entry.order);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Execute a move and update the cache, evaluating again only the moves that overlap with the executed one
+     *
+     * @param move move to execute, must be valid for the current solution version
+     * @return solution after executing the move
+     */
+    public S execute(M move) {
+        checkVersion();
+        int[] positions = neighborhood.affectedPositions(solution, move);
+        S result = move.execute(solution);
+        expectedVersion = solution.getVersion();
+
+        var outdated = new ArrayList<Entry<M>>();
+        for (int position : positions) {
+            if (position >= byPosition.size()) {
+                continue;
+            }
+            var entries = byPosition.get(position);
+            for (var entry : entries) {
+                if (entry.valid) {
+                    invalidate(entry);
+                    outdated.add(entry);
+                }
+            }
+            // Invalid entries still referenced from other positions are ignored when found
+            entries.clear();
+        }
+        for (var entry : outdated) {
+            var refreshed = neighborhood.refresh(solution, entry.move);
+            if (refreshed != null) {
+                add(refreshed, entry.order);
+            }
+        }
+        compactIfNeeded();
+        return result;
+    }
+
+    private void compactIfNeeded() {
+        if (heap.size() <= (validEntries + 1) * (MAX_INVALID_RATIO + 1)) {
+            return;
+        }
+        heap.removeIf(e -> !e.valid);
+        for (var entries : byPosition) {
+            entries.removeIf(e -> !e.valid);
+        }
+    }
+
+    /**
+     * Number of valid moves in cache
+     *
+     * @return number of moves
+     */
+    public int size() {
+        return validEntries;
+    }
+}
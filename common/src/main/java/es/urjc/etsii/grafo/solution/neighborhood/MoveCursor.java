@@ -0,0 +1,65 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Pull based iterator over the moves of a neighborhood, see {@link Neighborhood#cursor(es.urjc.etsii.grafo.solution.Solution)}.
+ * Unlike streams or iterators, a single call is needed per move, and moves are only generated when requested.
+ * Cursors cannot be reused, and must not be shared between threads.
+ *
+ * @param <M> Move type
+ */
+@FunctionalInterface
+public interface MoveCursor<M> {
+
+    /**
+     * Advance to the next move
+     *
+     * @return next move, or null if there are no more moves
+     */
+    M next();
+
+    /**
+     * Cursor without moves
+     *
+     * @param <M> Move type
+     * @return empty cursor
+     */
+    static <M> MoveCursor<M> empty() {
+        return () -> null;
+    }
+
+    /**
+     * Cursor over the elements of a list, in order. The list must not contain null elements.
+     *
+     * @param moves list of moves
+     * @param <M>   Move type
+     * @return cursor over the list
+     */
+    static <M> MoveCursor<M> of(List<M> moves) {
+        if (!(moves instanceof RandomAccess)) {
+            return of(moves.iterator());
+        }
+        return new MoveCursor<>() {
+            int index = 0;
+
+            @Override
+            public M next() {
+                return index < moves.size() ? moves.get(index++) : null;
+            }
+        };
+    }
+
+    /**
+     * Cursor backed by an iterator. The iterator must not return null elements.
+     *
+     * @param iterator iterator
+     * @param <M>      Move type
+     * @return cursor over the iterator elements
+     */
+    static <M> MoveCursor<M> of(Iterator<M> iterator) {
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+}
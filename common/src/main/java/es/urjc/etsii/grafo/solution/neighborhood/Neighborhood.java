@@ -47,6 +47,33 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
         return Neighborhood.UNKNOWN_SIZE;
     }
 
+    /**
+     * Iterate the neighborhood using a cursor instead of a stream.
+     * Moves must be returned in the same order as {@link #explore(Solution)}.
+     * By default, the cursor is backed by the result of {@link #explore(Solution)}.
+     * Neighborhoods that can generate moves lazily without building a stream should override this method and {@link #hasNativeCursor()}.
+     *
+     * @param solution Solution used to generate the neighborhood
+     * @return cursor over all the available moves in the neighborhood
+     */
+    public MoveCursor<M> cursor(S solution) {
+        var result = explore(solution);
+        if (result instanceof ListExploreResult<M, S, I> list) {
+            return MoveCursor.of(list.moveList());
+        }
+        return MoveCursor.of(result.moves().iterator());
+    }
+
+    /**
+     * Check if {@link #cursor(Solution)} is implemented natively, instead of being derived from {@link #explore(Solution)}.
+     * Local search procedures iterate the neighborhood using cursors if this method returns true.
+     *
+     * @return true if cursor iteration is cheaper than exploring the neighborhood using streams, false otherwise
+     */
+    public boolean hasNativeCursor() {
+        return false;
+    }
+
 
     /**
      * {@inheritDoc}
@@ -123,6 +150,16 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
             return new ExploreResult<>(Stream.empty(), 0);
         }
 
+        @Override
+        public MoveCursor<M> cursor(S solution) {
+            return MoveCursor.empty();
+        }
+
+        @Override
+        public boolean hasNativeCursor() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "EmptyNeighborhood{}";
@@ -132,6 +169,11 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
         public Optional<M> getRandomMove(S solution) {
             return Optional.empty();
         }
+
+        @Override
+        public M getRandomMoveOrNull(S solution) {
+            return null;
+        }
     }
 
 
@@ -159,6 +201,16 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
             return this.neighborhoodForExplore.explore(solution);
         }
 
+        @Override
+        public MoveCursor<M> cursor(S solution) {
+            return this.neighborhoodForExplore.cursor(solution);
+        }
+
+        @Override
+        public boolean hasNativeCursor() {
+            return this.neighborhoodForExplore.hasNativeCursor();
+        }
+
         @Override
         public int neighborhoodSize(S solution) {
             int totalSize = 0;
@@ -173,18 +225,27 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
 
         @Override
         public Optional<M> getRandomMove(S solution) {
+            return pick(solution).getRandomMove(solution);
+        }
+
+        @Override
+        public M getRandomMoveOrNull(S solution) {
+            return pick(solution).getRandomMoveOrNull(solution);
+        }
+
+        private RandomizableNeighborhood<M, S, I> pick(S solution) {
             return this.balanceProbabilities ?
                     balancedPick(solution) :
-                    equalProbPick(solution);
+                    equalProbPick();
         }
 
-        private Optional<M> equalProbPick(S solution) {
+        private RandomizableNeighborhood<M, S, I> equalProbPick() {
             var r = RandomManager.getRandom();
             int chosenNeighborhood = r.nextInt(this.neighborhoods.length);
-            return this.neighborhoods[chosenNeighborhood].getRandomMove(solution);
+            return this.neighborhoods[chosenNeighborhood];
         }
 
-        private Optional<M> balancedPick(S solution) {
+        private RandomizableNeighborhood<M, S, I> balancedPick(S solution) {
             var r = RandomManager.getRandom();
             int totalSize = 0;
             int[] sizes = new int[this.neighborhoods.length];
@@ -205,8 +266,7 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
                 chosenNeighborhood++;
             }
 
-            return this.neighborhoods[chosenNeighborhood].getRandomMove(solution);
-
+            return this.neighborhoods[chosenNeighborhood];
         }
     }
 
@@ -217,6 +277,16 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
             this.neighborhoods = Objects.requireNonNull(neighborhoods);
         }
 
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Child neighborhoods are only explored when their moves are needed.
+         */
+        @Override
+        public boolean hasNativeCursor() {
+            return true;
+        }
+
 
         /**
          * {@inheritDoc}
@@ -258,6 +328,28 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
 
             return new ExploreResult<>(stream, sized ? totalSize : UNKNOWN_SIZE);
         }
+
+        @Override
+        public MoveCursor<M> cursor(S solution) {
+            return new MoveCursor<>() {
+                int nextNeighborhood = 0;
+                MoveCursor<M> current = MoveCursor.empty();
+
+                @Override
+                public M next() {
+                    while (true) {
+                        var move = current.next();
+                        if (move != null) {
+                            return move;
+                        }
+                        if (nextNeighborhood == neighborhoods.length) {
+                            return null;
+                        }
+                        current = neighborhoods[nextNeighborhood++].cursor(solution);
+                    }
+                }
+            };
+        }
     }
 
     private static class InterleavedNeighborhood<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> extends DerivedNeighborhood<M, S, I> {
@@ -316,5 +408,43 @@ public abstract class Neighborhood<M extends Move<S, I>, S extends Solution<S, I
                 }
             }, false), totalSize);
         }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public MoveCursor<M> cursor(S solution) {
+            return new MoveCursor<>() {
+                // Active neighborhoods are kept at the beginning of both arrays, cursors are created on first use
+                final Neighborhood<M, S, I>[] pending = neighborhoods.clone();
+                final MoveCursor<M>[] cursors = new MoveCursor[neighborhoods.length];
+                int active = neighborhoods.length;
+                int index = 0;
+
+                @Override
+                public M next() {
+                    while (active > 0) {
+                        if (cursors[index] == null) {
+                            cursors[index] = pending[index].cursor(solution);
+                        }
+                        var move = cursors[index].next();
+                        if (move != null) {
+                            if (++index == active) {
+                                index = 0;
+                            }
+                            return move;
+                        }
+                        // Current neighborhood ended, remove it preserving the order of the rest
+                        active--;
+                        System.arraycopy(pending, index + 1, pending, index, active - index);
+                        System.arraycopy(cursors, index + 1, cursors, index, active - index);
+                        pending[active] = null;
+                        cursors[active] = null;
+                        if (index == active) {
+                            index = 0;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
     }
 }
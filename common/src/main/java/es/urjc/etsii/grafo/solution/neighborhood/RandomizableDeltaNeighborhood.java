@@ -0,0 +1,32 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Move;
+import es.urjc.etsii.grafo.solution.Solution;
+
+/**
+ * Delta neighborhood that is able to generate random encoded moves under demand, see {@link DeltaNeighborhood}.
+ *
+ * @param <M> Move type
+ * @param <S> Solution type
+ * @param <I> Instance type
+ */
+public interface RandomizableDeltaNeighborhood<M extends Move<S, I>, S extends Solution<S, I>, I extends Instance> extends DeltaNeighborhood<M, S, I> {
+
+    /**
+     * Pick a random encoded move within the neighborhood
+     *
+     * @param solution solution used to generate the neighborhood
+     * @return encoded move, or {@link DeltaNeighborhood#NO_MOVE} if there are no valid moves
+     */
+    long getRandomEncodedMove(S solution);
+
+    /**
+     * Calculate the objective function delta of an encoded move
+     *
+     * @param solution solution used to generate the neighborhood
+     * @param move     encoded move
+     * @return objective function delta if the move is executed
+     */
+    double delta(S solution, long move);
+}
@@ -22,4 +22,16 @@ public abstract class RandomizableNeighborhood<M extends Move<S,I>, S extends So
      */
     public abstract Optional<M> getRandomMove(S solution);
 
+    /**
+     * Same as {@link #getRandomMove(Solution)}, but returns null instead of an empty Optional.
+     * Used in hot loops, such as the Simulated Annealing inner loop. Override if the neighborhood can generate moves
+     * without wrapping them in an Optional.
+     *
+     * @param solution Solution used to generate the neighborhood
+     * @return a random move, or null if there are no valid moves
+     */
+    public M getRandomMoveOrNull(S solution) {
+        return getRandomMove(solution).orElse(null);
+    }
+
 }
@@ -0,0 +1,78 @@
+package es.urjc.etsii.grafo.testutil;
+
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
+import es.urjc.etsii.grafo.solution.neighborhood.RandomizableDeltaNeighborhood;
+import es.urjc.etsii.grafo.solution.neighborhood.RandomizableNeighborhood;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+public class TestDeltaNeighborhood extends RandomizableNeighborhood<TestMove, TestSolution, TestInstance> implements RandomizableDeltaNeighborhood<TestMove, TestSolution, TestInstance> {
+
+    private final double[] values;
+    private int materialized = 0;
+
+    public TestDeltaNeighborhood(double... values) {
+        this.values = values;
+    }
+
+    @Override
+    public ExploreResult<TestMove, TestSolution, TestInstance> explore(TestSolution solution) {
+        var moves = new ArrayList<TestMove>(values.length);
+        for (double v : values) {
+            moves.add(new TestMove(solution, v));
+        }
+        return ExploreResult.fromList(moves);
+    }
+
+    @Override
+    public Optional<TestMove> getRandomMove(TestSolution solution) {
+        return Optional.of(materialize(solution, getRandomEncodedMove(solution)));
+    }
+
+    @Override
+    public TestMove getRandomMoveOrNull(TestSolution solution) {
+        long move = getRandomEncodedMove(solution);
+        return move == NO_MOVE ? null : materialize(solution, move);
+    }
+
+    @Override
+    public boolean supportsDeltas(Objective<?, TestSolution, TestInstance> objective) {
+        return true;
+    }
+
+    @Override
+    public void exploreDeltas(TestSolution solution, DeltaConsumer consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (!consumer.accept(i, values[i])) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public TestMove materialize(TestSolution solution, long move) {
+        materialized++;
+        return new TestMove(solution, values[(int) move]);
+    }
+
+    @Override
+    public long getRandomEncodedMove(TestSolution solution) {
+        return values.length == 0 ? NO_MOVE : RandomManager.getRandom().nextInt(values.length);
+    }
+
+    @Override
+    public double delta(TestSolution solution, long move) {
+        return values[(int) move];
+    }
+
+    /**
+     * Number of moves materialized since this neighborhood was created
+     * @return number of move objects created
+     */
+    public int getMaterialized() {
+        return materialized;
+    }
+}
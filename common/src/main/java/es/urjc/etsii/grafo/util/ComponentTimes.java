@@ -0,0 +1,222 @@
+package es.urjc.etsii.grafo.util;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Execution time of algorithm components, such as constructives or improvers, aggregated in place while they run.
+ * For each component method and caller, stores the number of calls, and the total, min and max nanoseconds of the timed calls.
+ * Components are identified by a global id, assigned the first time each (class, method) pair is seen.
+ * Calls are identified by a global id, assigned the first time each (parent call, component) pair is seen,
+ * so the same component called from different components is aggregated separately, see {@link #callId(int, int)}.
+ * <p>
+ * Every thread aggregates its own calls, see {@link Context.Configurator#getAndResetComponentTimes()}, so instances are not thread safe.
+ * Optionally, only one in every N calls to each component is timed, see {@link #setSamplingPeriod(int)},
+ * and total time is estimated from the timed calls.
+ */
+public final class ComponentTimes {
+
+    private static final ClassValue<Map<String, Integer>> ids = new ClassValue<>() {
+        @Override
+        protected Map<String, Integer> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final List<String> classNames = new ArrayList<>();
+    private static final List<String> methodNames = new ArrayList<>();
+    private static final Map<Long, Integer> callIds = new ConcurrentHashMap<>();
+    private static final List<Integer> callParents = new ArrayList<>();
+    private static final List<Integer> callComponents = new ArrayList<>();
+    private static volatile int samplingPeriod = 1;
+
+    /**
+     * Parent call id of components not called by other components
+     */
+    public static final int ROOT = -1;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] calls = new long[INITIAL_CAPACITY];
+    private long[] timedCalls = new long[INITIAL_CAPACITY];
+    private long[] totalNanos = new long[INITIAL_CAPACITY];
+    private long[] minNanos = new long[INITIAL_CAPACITY];
+    private long[] maxNanos = new long[INITIAL_CAPACITY];
+
+    /**
+     * Aggregated execution time of a component method
+     *
+     * @param clazz      component class simple name
+     * @param method     method name
+     * @param parent     path of the components that called this one, separated by '/', or empty if not called by another component
+     * @param calls      number of calls
+     * @param timedCalls number of calls whose execution time was measured
+     * @param totalNanos total execution time of the timed calls
+     * @param minNanos   execution time of the fastest timed call
+     * @param maxNanos   execution time of the slowest timed call
+     */
+    public record Entry(String clazz, String method, String parent, long calls, long timedCalls, long totalNanos, long minNanos, long maxNanos) {
+        /**
+         * Estimated execution time of all calls, equal to totalNanos if every call was timed
+         *
+         * @return estimated total time in nanoseconds
+         */
+        public long estimatedTotalNanos() {
+            if (timedCalls == 0 || timedCalls == calls) {
+                return totalNanos;
+            }
+            return Math.round((double) totalNanos * calls / timedCalls);
+        }
+    }
+
+    /**
+     * Get the id of the given component method, registering it if it is the first time it is seen
+     *
+     * @param clazz  component class
+     * @param method method name
+     * @return component id
+     */
+    public static int componentId(Class<?> clazz, String method) {
+        var classIds = ids.get(clazz);
+        Integer id = classIds.get(method);
+        if (id == null) {
+            id = classIds.computeIfAbsent(method, m -> register(clazz.getSimpleName(), m));
+        }
+        return id;
+    }
+
+    private static synchronized int register(String clazz, String method) {
+        classNames.add(clazz);
+        methodNames.add(method);
+        return classNames.size() - 1;
+    }
+
+    /**
+     * Get the id of a call to the given component from the given parent call, registering it if it is the first time it is seen
+     *
+     * @param parent      id of the call being executed when the component is called, or {@link #ROOT}
+     * @param componentId component id, see {@link #componentId(Class, String)}
+     * @return call id
+     */
+    public static int callId(int parent, int componentId) {
+        long key = ((long) parent << 32) | (componentId & 0xFFFFFFFFL);
+        Integer id = callIds.get(key);
+        if (id == null) {
+            id = callIds.computeIfAbsent(key, k -> registerCall(parent, componentId));
+        }
+        return id;
+    }
+
+    private static synchronized int registerCall(int parent, int componentId) {
+        callParents.add(parent);
+        callComponents.add(componentId);
+        return callParents.size() - 1;
+    }
+
+    private static String path(int callId) {
+        if (callId == ROOT) {
+            return "";
+        }
+        int component = callComponents.get(callId);
+        String name = classNames.get(component) + "::" + methodNames.get(component);
+        String parentPath = path(callParents.get(callId));
+        return parentPath.isEmpty() ? name : parentPath + "/" + name;
+    }
+
+    /**
+     * Time only one in every N calls to each component, 1 to time every call
+     *
+     * @param period N, must be positive
+     */
+    public static void setSamplingPeriod(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Sampling period must be positive, got " + period);
+        }
+        samplingPeriod = period;
+    }
+
+    public static int getSamplingPeriod() {
+        return samplingPeriod;
+    }
+
+    /**
+     * Count a new call to the given component
+     *
+     * @param id call id, see {@link #callId(int, int)}
+     * @return true if the call should be timed, and {@link #record(int, long)} called when it ends
+     */
+    public boolean enter(int id) {
+        if (id >= calls.length) {
+            grow(id + 1);
+        }
+        return calls[id]++ % samplingPeriod == 0;
+    }
+
+    /**
+     * Record the execution time of a timed call
+     *
+     * @param id    call id
+     * @param nanos execution time in nanoseconds
+     */
+    public void record(int id, long nanos) {
+        if (timedCalls[id]++ == 0) {
+            minNanos[id] = nanos;
+            maxNanos[id] = nanos;
+        } else {
+            minNanos[id] = Math.min(minNanos[id], nanos);
+            maxNanos[id] = Math.max(maxNanos[id], nanos);
+        }
+        totalNanos[id] += nanos;
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, calls.length * 2);
+        calls = Arrays.copyOf(calls, newCapacity);
+        timedCalls = Arrays.copyOf(timedCalls, newCapacity);
+        totalNanos = Arrays.copyOf(totalNanos, newCapacity);
+        minNanos = Arrays.copyOf(minNanos, newCapacity);
+        maxNanos = Arrays.copyOf(maxNanos, newCapacity);
+    }
+
+    /**
+     * Aggregated data of every component and caller called at least once, also used when serializing to JSON
+     *
+     * @return list of entries, in call id order
+     */
+    @JsonValue
+    public List<Entry> entries() {
+        var entries = new ArrayList<Entry>();
+        synchronized (ComponentTimes.class) {
+            for (int id = 0; id < calls.length; id++) {
+                if (calls[id] > 0) {
+                    int component = callComponents.get(id);
+                    entries.add(new Entry(classNames.get(component), methodNames.get(component), path(callParents.get(id)), calls[id], timedCalls[id], totalNanos[id], minNanos[id], maxNanos[id]));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Check if any component has been called
+     *
+     * @return true if there are no calls, false otherwise
+     */
+    public boolean isEmpty() {
+        for (long c : calls) {
+            if (c > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return entries().toString();
+    }
+}
@@ -1,14 +1,21 @@
 package es.urjc.etsii.grafo.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -16,6 +23,11 @@ import java.util.stream.Stream;
  */
 public class ConcurrencyUtil {
 
+    /**
+     * CPU permit held by the current thread, if any. Not inherited: child threads do not hold the permit of their parent.
+     */
+    private static final ThreadLocal<Semaphore> cpuPermit = new ThreadLocal<>();
+
     /**
      * Awaits termination for the given executor service.
      * Wraps InterruptedException in an unchecked RuntimeException
@@ -96,6 +108,38 @@ public class ConcurrencyUtil {
         return futures.map(ConcurrencyUtil::await).collect(Collectors.toList());
     }
 
+    /**
+     * Execute nTasks independent tasks in the given pool, and return their results in task order.
+     * Each task runs with the state of the calling thread, as tasks submitted using {@link Context#submit(Callable)}:
+     * its time limit, its metrics, and its own random generator, jumped from the random generator of the calling thread in task order.
+     * Therefore, results only depend on the initial random state, and not on the number of threads, how tasks are scheduled,
+     * or which thread created the pool workers.
+     *
+     * @param pool   pool used to execute the tasks
+     * @param nTasks number of tasks
+     * @param task   task to execute, receives the task index in range [0, nTasks)
+     * @param <T>    result type
+     * @return results, result i corresponds to task i
+     */
+    public static <T> List<T> reproducibleMap(ForkJoinPool pool, int nTasks, IntFunction<T> task) {
+        var tasks = new ArrayList<Callable<T>>(nTasks);
+        for (int i = 0; i < nTasks; i++) {
+            int index = i;
+            tasks.add(Context.withCallerState(() -> task.apply(index)));
+        }
+        return pool.submit(() -> IntStream.range(0, nTasks).parallel().mapToObj(i -> call(tasks.get(i))).toList()).join();
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Sleep without having to deal with InterruptedException
      * @param time time to sleep
@@ -108,4 +152,63 @@ public class ConcurrencyUtil {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * Execute the given task while holding a CPU permit from the given semaphore, blocking until one is available.
+     * Used by executors that run work units in virtual threads, to limit how many of them use the CPU at the same time.
+     * While the task runs, it can temporarily give back the permit using {@link #blocking(Supplier)}.
+     *
+     * @param permits semaphore with one permit per CPU slot
+     * @param task    task to execute
+     * @param <T>     result type
+     * @return task result
+     */
+    public static <T> T withCpuPermit(Semaphore permits, Supplier<T> task) {
+        if (cpuPermit.get() != null) {
+            throw new IllegalStateException("Current thread already holds a CPU permit");
+        }
+        permits.acquireUninterruptibly();
+        cpuPermit.set(permits);
+        try {
+            return task.get();
+        } finally {
+            cpuPermit.remove();
+            permits.release();
+        }
+    }
+
+    /**
+     * Execute an action that spends most of its time blocked instead of using the CPU, for example waiting for an external process.
+     * If the current thread holds a CPU permit, see {@link #withCpuPermit(Semaphore, Supplier)},
+     * the permit is given back while the action runs, so other work units can use the CPU, and acquired again before returning.
+     * If the current thread does not hold a permit, the action is executed as is.
+     *
+     * @param action blocking action
+     * @param <T>    result type
+     * @return action result
+     */
+    public static <T> T blocking(Supplier<T> action) {
+        var permits = cpuPermit.get();
+        if (permits == null) {
+            return action.get();
+        }
+        permits.release();
+        try {
+            return action.get();
+        } finally {
+            permits.acquireUninterruptibly();
+        }
+    }
+
+    /**
+     * Execute an action that spends most of its time blocked instead of using the CPU, see {@link #blocking(Supplier)}
+     *
+     * @param action blocking action
+     */
+    public static void blocking(Runnable action) {
+        blocking(() -> {
+            action.run();
+            return null;
+        });
+    }
 }
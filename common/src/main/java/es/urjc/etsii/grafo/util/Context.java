@@ -3,6 +3,7 @@ package es.urjc.etsii.grafo.util;
 import es.urjc.etsii.grafo.config.BlockConfig;
 import es.urjc.etsii.grafo.config.SolverConfig;
 import es.urjc.etsii.grafo.experiment.reference.ReferenceResultManager;
+import es.urjc.etsii.grafo.metrics.Metrics;
 import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.mo.pareto.ParetoSet;
 import es.urjc.etsii.grafo.mo.pareto.ParetoSimpleList;
@@ -16,6 +17,9 @@ import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import java.util.random.RandomGenerator;
@@ -27,6 +31,11 @@ public class Context {
 
     private static ContextLocal context = new ContextLocal();
 
+    /**
+     * True while the current thread is creating a pool worker, see {@link #workerThreadFactory()}
+     */
+    private static final ThreadLocal<Boolean> creatingWorker = ThreadLocal.withInitial(() -> false);
+
     private static class ContextLocal<S extends Solution<S,I>, I extends Instance> extends InheritableThreadLocal<ContextData<S, I>> {
         public ContextLocal() {
             set(new ContextData<>());
@@ -34,26 +43,30 @@ public class Context {
 
         @Override
         protected ContextData<S,I> childValue(ContextData<S,I> parentValue) {
-            var context = new ContextData<S,I>();
-            // reuse executor from parent, submitted tasks will be shared by them
-            context.executor = parentValue.executor;
-            if(parentValue.random != null){
-                context.random = ((RandomGenerator.JumpableGenerator) parentValue.random).copyAndJump();
-            }
-            context.objectives = parentValue.objectives;
-            context.mainObjective = parentValue.mainObjective;
-            context.solverConfig = parentValue.solverConfig;
-            context.validator = parentValue.validator;
-            context.validationEnabled = parentValue.validationEnabled;
-            context.multiObjective = parentValue.multiObjective;
-            context.referenceResultManager = parentValue.referenceResultManager;
-            // context.timeEvents; // do not copy! thread responsible for managing its own events
-
-            context.paretoSet = parentValue.paretoSet;
-            return context;
+            // pool workers are created whenever the pool decides, do not consume the random state of whoever triggers it
+            boolean copyRandom = parentValue.random != null && !creatingWorker.get();
+            return copyOf(parentValue, copyRandom ? ((RandomGenerator.JumpableGenerator) parentValue.random).copyAndJump() : null);
         }
     }
 
+    private static <S extends Solution<S,I>, I extends Instance> ContextData<S,I> copyOf(ContextData<S,I> parentValue, RandomGenerator random) {
+        var context = new ContextData<S,I>();
+        // reuse executor from parent, submitted tasks will be shared by them
+        context.executor = parentValue.executor;
+        context.random = random;
+        context.objectives = parentValue.objectives;
+        context.mainObjective = parentValue.mainObjective;
+        context.solverConfig = parentValue.solverConfig;
+        context.validator = parentValue.validator;
+        context.validationEnabled = parentValue.validationEnabled;
+        context.multiObjective = parentValue.multiObjective;
+        context.referenceResultManager = parentValue.referenceResultManager;
+        // context.componentTimes; // do not copy! thread responsible for managing its own times
+
+        context.paretoSet = parentValue.paretoSet;
+        return context;
+    }
+
     /**
      * Destroy the solver context associated with the current thread.
      * Does not affect the context of other threads.
@@ -105,33 +118,100 @@ public class Context {
     }
 
 
+    /**
+     * Submit a task to the executor shared by the current work unit, see {@link Configurator#setExecutor(ExecutorService)},
+     * or run it in the current thread if there is none.
+     * The task runs with the state of the calling thread: its {@link TimeControl} deadline, its metrics,
+     * a copy of its context, as any child thread would get, with its own random generator,
+     * jumped from the random generator of the calling thread when the task is submitted.
+     * Therefore, tasks see the time limit and cancellation of the calling work unit, their metrics are recorded in the work unit metrics,
+     * and their random numbers only depend on the order in which they are submitted, not on where they run.
+     *
+     * @param task task to execute
+     * @return future for the task result
+     * @param <T> task result type
+     */
     public static <T> Future<T> submit(Callable<T> task){
         var executor = get().executor;
+        var wrapped = withCallerState(task);
         if(executor != null){
-            return executor.submit(task);
+            return executor.submit(wrapped);
         }
         // no executor, run in the current thread
         try {
-            return CompletableFuture.completedFuture(task.call());
+            return CompletableFuture.completedFuture(wrapped.call());
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Same as {@link #submit(Callable)}, for tasks that do not return a result
+     *
+     * @param task task to execute
+     * @param value value returned by the future when the task ends
+     * @return future for the task
+     * @param <T> value type
+     */
     public static <T> Future<T> submit(Runnable task, T value){
-        var executor = get().executor;
-        if(executor != null){
-            return executor.submit(task, value);
-        }
-        // no executor, run in the current thread
-        try {
-            task.run();
-            return CompletableFuture.completedFuture(value);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        return submit(Executors.callable(task, value));
+    }
+
+    /**
+     * Thread factory for pools that execute tasks submitted using {@link #submit(Callable)}.
+     * Workers inherit the context of the thread that creates them, except its random generator:
+     * workers are created lazily by any thread that submits work to the pool, so copying its random generator
+     * would change the random numbers it generates afterwards depending on scheduling.
+     * Submitted tasks and work units provide their own random generator anyway.
+     *
+     * @return worker thread factory
+     */
+    public static ForkJoinPool.ForkJoinWorkerThreadFactory workerThreadFactory(){
+        return pool -> {
+            creatingWorker.set(true);
+            try {
+                return new ContextWorkerThread(pool);
+            } finally {
+                creatingWorker.set(false);
+            }
+        };
+    }
+
+    private static class ContextWorkerThread extends ForkJoinWorkerThread {
+        private ContextWorkerThread(ForkJoinPool pool) {
+            super(pool);
         }
     }
 
+    /**
+     * Wrap a task so it runs with the state of the calling thread, restoring the state of the thread that executes it afterwards.
+     * Must be called from the calling thread.
+     */
+    static <T, S extends Solution<S,I>, I extends Instance> Callable<T> withCallerState(Callable<T> task){
+        var deadline = TimeControl.deadline();
+        var metrics = Metrics.getCurrentThreadMetricsOrNull();
+        ContextData<S,I> caller = get();
+        var random = caller.random instanceof RandomGenerator.JumpableGenerator jumpable ? jumpable.copyAndJump() : null;
+        var taskContext = copyOf(caller, random);
+        return () -> {
+            var previousContext = context.get();
+            var previousDeadline = TimeControl.setDeadline(deadline);
+            var previousMetrics = Metrics.setCurrentThreadMetrics(metrics);
+            context.set(taskContext);
+            try {
+                return task.call();
+            } finally {
+                if(previousContext == null){
+                    context.remove();
+                } else {
+                    context.set(previousContext);
+                }
+                TimeControl.setDeadline(previousDeadline);
+                Metrics.setCurrentThreadMetrics(previousMetrics);
+            }
+        };
+    }
+
     public static <M extends Move<S,I>, S extends Solution<S,I>, I extends Instance>  Objective<M,S,I> getMainObjective(){
 
         ContextData<S,I> contextData = get();
@@ -175,8 +255,12 @@ public class Context {
         return data;
     }
 
-    public static void addTimeEvent(boolean enter, long when, String clazz, String methodName){
-        get().timeEvents.add(new TimeStatsEvent(enter, when, clazz, methodName));
+    /**
+     * Execution time of the algorithm components called by the current thread
+     * @return component times of the current thread
+     */
+    public static ComponentTimes getComponentTimes(){
+        return get().componentTimes;
     }
 
     /**
@@ -193,7 +277,7 @@ public class Context {
         public Objective<?, S, I> mainObjective;
         public SolverConfig solverConfig;
         public BlockConfig blockConfig;
-        public List<TimeStatsEvent> timeEvents = new ArrayList<>();
+        public ComponentTimes componentTimes = new ComponentTimes();
         public SolutionValidator<S,I> validator;
         public boolean validationEnabled = true;
         public boolean multiObjective;
@@ -211,6 +295,16 @@ public class Context {
             ctx.random = jumpableGenerator;
         }
 
+        /**
+         * Set the executor used by {@link Context#submit(Callable)} in the current thread and in threads created from now on by it.
+         * Executors set it to share the CPU budget between work units and the tasks they submit,
+         * see {@link SolverConfig#getAlgorithmThreads()}
+         * @param executor executor, or null to run submitted tasks in the calling thread
+         */
+        public static void setExecutor(ExecutorService executor){
+            get().executor = executor;
+        }
+
         public static void setSolverConfig(SolverConfig config){
             get().solverConfig = config;
         }
@@ -278,12 +372,11 @@ public class Context {
             }
         }
 
-        public static List<TimeStatsEvent> getAndResetTimeEvents(){
+        public static ComponentTimes getAndResetComponentTimes(){
             var data = get();
-            var timeEvents = data.timeEvents;
-            data.timeEvents = new ArrayList<>();
-            return timeEvents;
-
+            var componentTimes = data.componentTimes;
+            data.componentTimes = new ComponentTimes();
+            return componentTimes;
         }
 
         public static void setRefResultManager(ReferenceResultManager referenceResultManager) {
@@ -1,31 +1,60 @@
 package es.urjc.etsii.grafo.util;
 
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Tracks time usage across different threads.
  * Long-running methods should frequently check if they are exceeding their time budget
  * Once the budget has been consumed, they should return as soon as possible
+ * <p>
+ * Each thread has a {@link Deadline}, inherited by child threads. Expiration is signaled by a single shared timer thread,
+ * so checking if time is up only reads a volatile field. Hot loops can get the deadline once using {@link #deadline()}
+ * and poll {@link Deadline#isExpired()} directly, avoiding the thread local lookup.
  */
 public class TimeControl {
 
-    private static class TimeStatusThreadLocal extends InheritableThreadLocal<TimeStatus> {
+    private static class DeadlineThreadLocal extends InheritableThreadLocal<Deadline> {
         @Override
-        protected TimeStatus initialValue() {
-            return new TimeStatus();
+        protected Deadline initialValue() {
+            return new Deadline();
         }
 
         @Override
-        protected TimeStatus childValue(TimeStatus parentValue) {
+        protected Deadline childValue(Deadline parentValue) {
             // A child thread should inherit the time control restrictions of the parent thread
-            return parentValue; 
+            return parentValue;
+        }
+    }
+
+    private static final DeadlineThreadLocal deadline = new DeadlineThreadLocal();
+
+    /**
+     * Single timer thread shared by all deadlines, created on first use
+     */
+    private static final class TimerHolder {
+        private static final ScheduledThreadPoolExecutor timer = createTimer();
+
+        private static ScheduledThreadPoolExecutor createTimer() {
+            var executor = new ScheduledThreadPoolExecutor(1, r -> {
+                // Do not inherit thread locals, the thread is created by whoever starts the first time limit,
+                // and inheriting its context would consume its random state
+                var thread = new Thread(null, r, "TimeControl-timer", 0, false);
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
         }
     }
-    
-    private static final TimeStatusThreadLocal timeStatus = new TimeStatusThreadLocal();
 
     private TimeControl(){}
 
+    static ScheduledThreadPoolExecutor timer(){
+        return TimerHolder.timer;
+    }
+
     /**
      * Set max execution time. Example:
      * <pre> {@code
@@ -36,23 +65,22 @@ public class TimeControl {
      */
     public static void setMaxExecutionTime(long time, TimeUnit unit){
         long nanos = unit.toNanos(time);
-        timeStatus.get().setDuration(nanos);
+        deadline.get().setDuration(nanos);
     }
 
     /**
      * Start counting time
      */
     public static void start(){
-        var t = timeStatus.get();
-        t.setEnabled(true);
-        t.setStart(System.nanoTime());
+        deadline.get().start(System.nanoTime());
     }
 
     /**
      * Remove time restrictions for the current thread
      */
     public static void remove(){
-        timeStatus.remove();
+        deadline.get().release();
+        deadline.remove();
     }
 
     /**
@@ -60,12 +88,28 @@ public class TimeControl {
      * @return true if the algorithm component should try to immediately end
      */
     public static boolean isTimeUp(){
-        var t = timeStatus.get();
-        if(!t.enabled()){
-            return false;
-        }
-        var current = System.nanoTime();
-        return (current - t.start() > t.duration());
+        return deadline.get().isExpired();
+    }
+
+    /**
+     * Get the deadline of the current thread. The returned object can be stored and polled from hot loops,
+     * and reflects any later change made using {@link #setMaxExecutionTime(long, TimeUnit)} or {@link #start()} from the same thread.
+     * @return deadline of the current thread
+     */
+    public static Deadline deadline(){
+        return deadline.get();
+    }
+
+    /**
+     * Use the given deadline in the current thread, for example to run a task on behalf of another thread
+     * with the same time restrictions, see {@link #deadline()}.
+     * @param newDeadline deadline to use from now on in the current thread
+     * @return deadline previously used by the current thread, to restore it afterwards
+     */
+    public static Deadline setDeadline(Deadline newDeadline){
+        var previous = deadline.get();
+        deadline.set(newDeadline);
+        return previous;
     }
 
     /**
@@ -73,11 +117,7 @@ public class TimeControl {
      * @return time remaining in nanoseconds. If the time has elapsed, it will return a negative number indicating how much extra time has passed.
      */
     public static long remaining(){
-        var t = timeStatus.get();
-        if(!t.enabled()){
-            throw new IllegalStateException("Time control is not enabled. Call TimeControl::start from the current thread");
-        }
-        return t.start() + t.duration() - System.nanoTime();
+        return deadline.get().remaining();
     }
 
     /**
@@ -85,40 +125,117 @@ public class TimeControl {
      * @return true if enabled, false otherwise
      */
     public static boolean isEnabled(){
-        return timeStatus.get().enabled();
+        return deadline.get().enabled();
     }
 
     /**
-     * Simple class to store if enabled, length and start time.
+     * Time budget shared by a thread and its children.
+     * Expiration is flagged by a shared timer thread when the time budget is consumed,
+     * so {@link #isExpired()} is a single volatile read. The flag may be set slightly after the exact deadline,
+     * depending on timer thread scheduling.
+     * A deadline can also be cancelled from any thread using {@link #cancel()}, for example on shutdown,
+     * after which it is considered expired even if time control is not enabled.
      */
-    private static final class TimeStatus {
-        private boolean enabled;
-        private long start;
-        private long duration;
+    public static final class Deadline {
+        private volatile boolean expired;
+        private volatile boolean cancelled;
+        private volatile boolean enabled;
+        private volatile long start;
+        private volatile long duration;
+        private ScheduledFuture<?> expiration;
+        private long generation;
+
+        private Deadline() {}
+
+        /**
+         * Check if the time budget has been consumed
+         * @return true if enabled and expired, or if cancelled, false otherwise
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+
+        /**
+         * Ask every component using this deadline to end as soon as possible. Cannot be undone, and can be called from any thread.
+         */
+        public synchronized void cancel() {
+            this.cancelled = true;
+            this.expired = true;
+        }
+
+        /**
+         * Check if this deadline has been cancelled using {@link #cancel()}
+         * @return true if cancelled, false otherwise
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
 
+        /**
+         * Is the time control enabled for this deadline?
+         * @return true if enabled, false otherwise
+         */
         public boolean enabled() {
             return enabled;
         }
 
-        public long start() {
-            return start;
+        /**
+         * Get remaining time
+         * @return time remaining in nanoseconds. If the time has elapsed, it will return a negative number indicating how much extra time has passed.
+         */
+        public long remaining() {
+            if (!enabled) {
+                throw new IllegalStateException("Time control is not enabled. Call TimeControl::start from the current thread");
+            }
+            long remaining = start + duration - System.nanoTime();
+            if (remaining < 0) {
+                // Do not wait for the timer if we already know the deadline has passed
+                expired = true;
+            }
+            return remaining;
+        }
+
+        private synchronized void setDuration(long duration) {
+            this.duration = duration;
+            if (enabled) {
+                schedule();
+            }
         }
 
-        public long duration() {
-            return duration;
+        private synchronized void start(long start) {
+            this.start = start;
+            this.enabled = true;
+            schedule();
         }
 
-        public void setEnabled(boolean enabled) {
-            this.enabled = enabled;
+        private void schedule() {
+            cancelExpiration();
+            long current = ++generation;
+            this.expired = cancelled;
+            long delay = start + duration - System.nanoTime();
+            if (delay < 0) {
+                this.expired = true;
+                return;
+            }
+            this.expiration = TimerHolder.timer.schedule(() -> expire(current), delay, TimeUnit.NANOSECONDS);
         }
 
-        public void setStart(long start) {
-            this.start = start;
+        private synchronized void release() {
+            cancelExpiration();
         }
 
-        public void setDuration(long duration) {
-            this.duration = duration;
+        private synchronized void expire(long expectedGeneration) {
+            // Ignore expirations scheduled before the last restart
+            if (generation == expectedGeneration) {
+                this.expired = true;
+            }
+        }
+
+        private void cancelExpiration() {
+            if (expiration != null) {
+                expiration.cancel(false);
+                expiration = null;
+            }
         }
     }
 }
-
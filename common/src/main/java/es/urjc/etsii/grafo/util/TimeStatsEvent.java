@@ -1,7 +0,0 @@
-package es.urjc.etsii.grafo.util;
-
-public record TimeStatsEvent(boolean enter, long when, String clazz, String method) {
-    public boolean isExit(){
-        return !enter;
-    }
-}
@@ -0,0 +1,147 @@
+package es.urjc.etsii.grafo.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * Minimal long set using open addressing, without boxing.
+ * Designed to be reused: {@link #clear()} does not allocate, and the internal table only grows when needed.
+ * The value {@link Long#MIN_VALUE} is reserved and cannot be stored.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] table;
+    private int size;
+    private int mask;
+
+    /**
+     * Create a new empty set with the default capacity
+     */
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new empty set
+     *
+     * @param expectedSize expected number of elements, the set grows if necessary
+     */
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be >= 0, got " + expectedSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.table = new long[capacity];
+        Arrays.fill(this.table, EMPTY);
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Add a value to the set
+     *
+     * @param value value to add, cannot be Long.MIN_VALUE
+     * @return true if the value was not in the set, false otherwise
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be stored in a LongHashSet");
+        }
+        int i = hash(value) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        if (size * 2 > table.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Check if the set contains a given value
+     *
+     * @param value value to check
+     * @return true if present, false otherwise
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return false;
+        }
+        int i = hash(value) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    private void grow() {
+        var old = this.table;
+        allocate(old.length << 1);
+        for (long v : old) {
+            if (v != EMPTY) {
+                add(v);
+            }
+        }
+    }
+
+    /**
+     * Remove all elements, keeping the current capacity
+     */
+    public void clear() {
+        if (size != 0) {
+            Arrays.fill(table, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Number of elements in set
+     *
+     * @return number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the set is empty
+     *
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("[");
+        for (long v : table) {
+            if (v != EMPTY) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(v);
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
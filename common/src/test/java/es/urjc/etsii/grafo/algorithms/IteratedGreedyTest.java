@@ -11,6 +11,7 @@ import es.urjc.etsii.grafo.testutil.TestMove;
 import es.urjc.etsii.grafo.testutil.TestSolution;
 import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.TimeControl;
+import es.urjc.etsii.grafo.util.random.RandomType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 
 import static org.mockito.Mockito.*;
 
@@ -138,4 +141,70 @@ class IteratedGreedyTest {
         Assertions.assertTrue(ellapsed > 5, "Stops in less than 5 millis");
     }
 
+    private ParallelIteratedGreedy<TestSolution, TestInstance> parallel(int maxIterations, int stopIfNotImprovedIn, Shake<TestSolution, TestInstance> shake, int batchSize) {
+        var iteratedGreedy = new ParallelIteratedGreedy<>("Test", Context.getMainObjective(), maxIterations, stopIfNotImprovedIn, nullConstructive, shake, nullImprover, batchSize);
+        iteratedGreedy.setBuilder(new SolutionBuilder<>() {
+            @Override
+            public TestSolution initializeSolution(TestInstance instance) {
+                return new TestSolution(instance);
+            }
+        });
+        return iteratedGreedy;
+    }
+
+    @Test
+    void parallelIllegalBatchSize() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parallel(10, 5, mockitoShake, 0));
+    }
+
+    @Test
+    void parallelStopNotImprovement() {
+        parallel(10_000_000, 10, mockitoShake, 4).algorithm(testInstance);
+        verify(mockitoShake, times(10)).shake(any(TestSolution.class), anyInt());
+    }
+
+    @Test
+    void parallelMaxNumberOfIterations() {
+        parallel(10, 10_000_000, mockitoShake, 4).algorithm(testInstance);
+        verify(mockitoShake, times(10)).shake(any(TestSolution.class), anyInt());
+    }
+
+    @Test
+    void parallelReproducible() {
+        Shake<TestSolution, TestInstance> shake = new Shake<>() {
+            @Override
+            public TestSolution shake(TestSolution solution, int k) {
+                solution.setScore(Math.max(-50, solution.getScore() + Context.getRandom().nextInt(-5, 5)));
+                return solution;
+            }
+        };
+        var iteratedGreedy = parallel(1000, 20, shake, 4);
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 5);
+        double first = iteratedGreedy.algorithm(testInstance).getScore();
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 5);
+        double second = iteratedGreedy.algorithm(testInstance).getScore();
+        Assertions.assertEquals(first, second);
+        Assertions.assertTrue(first < 0);
+    }
+
+    @Test
+    void parallelPoolDoesNotConsumeCallerRandom() {
+        var calls = new AtomicInteger();
+        Shake<TestSolution, TestInstance> shake = new Shake<>() {
+            @Override
+            public TestSolution shake(TestSolution solution, int k) {
+                calls.incrementAndGet();
+                return solution;
+            }
+        };
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 5);
+        var expected = ((RandomGenerator.JumpableGenerator) Context.getRandom()).copy();
+        parallel(1000, 10, shake, 4).algorithm(testInstance);
+        // The caller random generator is only jumped once for each candidate, never when creating pool workers
+        Assertions.assertEquals(10, calls.get());
+        for (int i = 0; i < calls.get(); i++) {
+            expected.jump();
+        }
+        Assertions.assertEquals(expected.nextLong(), Context.getRandom().nextLong());
+    }
 }
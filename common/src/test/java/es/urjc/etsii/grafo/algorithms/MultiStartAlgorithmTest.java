@@ -1,6 +1,7 @@
 package es.urjc.etsii.grafo.algorithms;
 
 import es.urjc.etsii.grafo.algorithms.multistart.MultiStartAlgorithmBuilder;
+import es.urjc.etsii.grafo.algorithms.multistart.ParallelMultiStartAlgorithm;
 import es.urjc.etsii.grafo.create.builder.SolutionBuilder;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.testutil.TestInstance;
@@ -8,6 +9,8 @@ import es.urjc.etsii.grafo.testutil.TestMove;
 import es.urjc.etsii.grafo.testutil.TestSolution;
 import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.TimeControl;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+import es.urjc.etsii.grafo.util.random.RandomType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.Mockito.*;
 
@@ -206,4 +210,85 @@ class MultiStartAlgorithmTest {
         verify(algorithm, times(1)).setBuilder(any());
     }
 
+
+    /**
+     * Returns solutions with a random score, counts how many times it has been executed
+     */
+    private static class RandomScoreAlgorithm extends Algorithm<TestSolution, TestInstance> {
+        private final AtomicInteger executions = new AtomicInteger();
+
+        RandomScoreAlgorithm() {
+            super("RandomScore");
+        }
+
+        @Override
+        public TestSolution algorithm(TestInstance instance) {
+            executions.incrementAndGet();
+            var solution = new TestSolution(instance);
+            solution.setScore(RandomManager.getRandom().nextInt(1_000_000));
+            return solution;
+        }
+    }
+
+    private double runParallel(int nThreads, int maxIterations, int maxIterWithoutImprovement, RandomScoreAlgorithm algorithm) {
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 1234);
+        var multistart = new ParallelMultiStartAlgorithm<>("PMS", maxObj, algorithm, maxIterations, 1, maxIterWithoutImprovement, nThreads);
+        return multistart.algorithm(testInstance).getScore();
+    }
+
+    @Test
+    void parallelSameResultAnyNumberOfThreads() {
+        double expected = runParallel(1, 200, 20, new RandomScoreAlgorithm());
+        for (int nThreads : new int[]{2, 3, 8}) {
+            Assertions.assertEquals(expected, runParallel(nThreads, 200, 20, new RandomScoreAlgorithm()), "nThreads=" + nThreads);
+        }
+    }
+
+    @Test
+    void parallelCallerRandomIndependentOfThreads() {
+        runParallel(1, 50, 1_000_000, new RandomScoreAlgorithm());
+        long expected = RandomManager.getRandom().nextLong();
+        for (int nThreads : new int[]{2, 3, 8}) {
+            runParallel(nThreads, 50, 1_000_000, new RandomScoreAlgorithm());
+            Assertions.assertEquals(expected, RandomManager.getRandom().nextLong(), "nThreads=" + nThreads);
+        }
+    }
+
+    @Test
+    void parallelMaxIterationsIsGlobal() {
+        var algorithm = new RandomScoreAlgorithm();
+        runParallel(4, 100, 1_000_000, algorithm);
+        Assertions.assertEquals(100, algorithm.executions.get());
+    }
+
+    @Test
+    void parallelStopsWithoutImprovement() {
+        var algorithm = new RandomScoreAlgorithm();
+        runParallel(4, 1_000_000, 5, algorithm);
+        // Few iterations can be speculatively executed and discarded
+        Assertions.assertTrue(algorithm.executions.get() < 1000, "Executions: " + algorithm.executions.get());
+    }
+
+    @Test
+    void parallelBuilder() {
+        var sequential = new MultiStartAlgorithmBuilder<TestSolution, TestInstance>().withObjective(maxObj).build(algorithm);
+        Assertions.assertFalse(sequential instanceof ParallelMultiStartAlgorithm);
+        var parallel = new MultiStartAlgorithmBuilder<TestSolution, TestInstance>().withParallelism(4).withObjective(maxObj).build(algorithm);
+        Assertions.assertInstanceOf(ParallelMultiStartAlgorithm.class, parallel);
+        Assertions.assertTrue(parallel.toString().contains("nThreads=4"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelMultiStartAlgorithm<>("Test", maxObj, algorithm, 10, 1, 10, 0));
+    }
+
+    @Test
+    void parallelPropagatesExceptions() {
+        var failing = new Algorithm<TestSolution, TestInstance>("Failing") {
+            @Override
+            public TestSolution algorithm(TestInstance instance) {
+                throw new IllegalStateException("Fail");
+            }
+        };
+        var multistart = new MultiStartAlgorithmBuilder<TestSolution, TestInstance>().withParallelism(4).withObjective(maxObj).build(failing);
+        Assertions.assertThrows(RuntimeException.class, () -> multistart.algorithm(testInstance));
+    }
+
 }
@@ -0,0 +1,145 @@
+package es.urjc.etsii.grafo.algorithms;
+
+import es.urjc.etsii.grafo.create.Constructive;
+import es.urjc.etsii.grafo.create.builder.SolutionBuilder;
+import es.urjc.etsii.grafo.exception.IllegalAlgorithmConfigException;
+import es.urjc.etsii.grafo.improve.Improver;
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.shake.Shake;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.testutil.TestInstance;
+import es.urjc.etsii.grafo.testutil.TestMove;
+import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.random.RandomType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelVNSTest {
+
+    private static final Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+    private final TestInstance testInstance = new TestInstance("testinstance");
+
+    @BeforeAll
+    public static void init() {
+        Metrics.disableMetrics();
+        Context.Configurator.setObjectives(objective);
+    }
+
+    private static VNS.KMapper<TestSolution, TestInstance> maxK(int maxK) {
+        return (solution, k) -> k >= maxK ? VNS.KMapper.STOPNOW : k;
+    }
+
+    private static class FunctionShake extends Shake<TestSolution, TestInstance> {
+        private final List<Integer> ks = Collections.synchronizedList(new ArrayList<>());
+        private final BiFunction<TestSolution, Integer, Double> newScore;
+
+        private FunctionShake(BiFunction<TestSolution, Integer, Double> newScore) {
+            this.newScore = newScore;
+        }
+
+        @Override
+        public TestSolution shake(TestSolution solution, int k) {
+            ks.add(k);
+            solution.setScore(newScore.apply(solution, k));
+            return solution;
+        }
+    }
+
+    private ParallelVNS<TestSolution, TestInstance> vns(Shake<TestSolution, TestInstance> shake, int maxK, int nThreads, ParallelVNS.Strategy strategy) {
+        var vns = new ParallelVNS<>("Test", objective, maxK(maxK), Constructive.nul(), shake, Improver.nul(), nThreads, strategy);
+        vns.setBuilder(new SolutionBuilder<>() {
+            @Override
+            public TestSolution initializeSolution(TestInstance instance) {
+                return new TestSolution(instance);
+            }
+        });
+        return vns;
+    }
+
+    @Test
+    void invalidThreads() {
+        assertThrows(IllegalAlgorithmConfigException.class, () -> vns(Shake.nul(), 5, 0, ParallelVNS.Strategy.SAME_K));
+    }
+
+    @Test
+    void builder() {
+        var builder = new VNSBuilder<TestSolution, TestInstance>()
+                .withConstructive(Constructive.nul())
+                .withShake(Shake.nul());
+        var sequential = builder.build();
+        assertFalse(sequential instanceof ParallelVNS);
+        assertEquals(VNS.class, builder.withParallelism(1).build().getClass());
+
+        var parallel = builder.withAlgorithmName("Parallel").withMaxK(3).withParallelism(4, ParallelVNS.Strategy.SAME_K).build();
+        var parallelVNS = assertInstanceOf(ParallelVNS.class, parallel);
+        assertEquals("Parallel", parallel.getName());
+        assertEquals(4, parallelVNS.nThreads);
+        assertEquals(ParallelVNS.Strategy.SAME_K, parallelVNS.strategy);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.withMaxK(0));
+        assertThrows(IllegalArgumentException.class, () -> new VNSBuilder<TestSolution, TestInstance>().withShake(Shake.nul()).build());
+        assertThrows(IllegalArgumentException.class, () -> new VNSBuilder<TestSolution, TestInstance>().withConstructive(Constructive.nul()).build());
+    }
+
+    @Test
+    void consecutiveKExploresEveryK() {
+        var shake = new FunctionShake((s, k) -> s.getScore() + 1);
+        vns(shake, 5, 2, ParallelVNS.Strategy.CONSECUTIVE_K).algorithm(testInstance);
+        var ks = new ArrayList<>(shake.ks);
+        Collections.sort(ks);
+        assertEquals(List.of(0, 1, 2, 3, 4), ks);
+    }
+
+    @Test
+    void sameKRepeatsEachK() {
+        var shake = new FunctionShake((s, k) -> s.getScore() + 1);
+        vns(shake, 3, 4, ParallelVNS.Strategy.SAME_K).algorithm(testInstance);
+        var ks = new ArrayList<>(shake.ks);
+        Collections.sort(ks);
+        assertEquals(List.of(0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2), ks);
+    }
+
+    @Test
+    void acceptsBestCandidate() {
+        // Candidates from score 0 get scores 0, -1, -2, the best one is accepted and then no candidate improves
+        var shake = new FunctionShake((s, k) -> Math.min(s.getScore(), -k));
+        var solution = vns(shake, 3, 3, ParallelVNS.Strategy.CONSECUTIVE_K).algorithm(testInstance);
+        assertEquals(-2, solution.getScore());
+        assertEquals(6, shake.ks.size());
+    }
+
+    @Test
+    void reproducible() {
+        var shake = new FunctionShake((s, k) -> Math.max(-20, s.getScore() + Context.getRandom().nextInt(-10, 10)));
+        var vns = vns(shake, 5, 4, ParallelVNS.Strategy.SAME_K);
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 7);
+        double first = vns.algorithm(testInstance).getScore();
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 7);
+        double second = vns.algorithm(testInstance).getScore();
+        assertEquals(first, second);
+        assertTrue(first < 0);
+    }
+
+    @Test
+    void poolDoesNotConsumeCallerRandom() {
+        var shake = new FunctionShake((s, k) -> Math.min(s.getScore(), -k));
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 7);
+        var expected = ((RandomGenerator.JumpableGenerator) Context.getRandom()).copy();
+        vns(shake, 3, 3, ParallelVNS.Strategy.CONSECUTIVE_K).algorithm(testInstance);
+        // The caller random generator is only jumped once for each candidate, never when creating pool workers
+        for (int i = 0; i < shake.ks.size(); i++) {
+            expected.jump();
+        }
+        assertEquals(expected.nextLong(), Context.getRandom().nextLong());
+    }
+}
@@ -6,11 +6,16 @@ import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.testutil.TestInstance;
 import es.urjc.etsii.grafo.testutil.TestMove;
 import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
 import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+import es.urjc.etsii.grafo.util.random.RandomType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -300,6 +305,226 @@ class ScatterSearchTest {
         assertTrue(solution.getScore() > 10e20);
     }
 
+    private IslandScatterSearch<TestSolution, TestInstance> islands(Objective<TestMove, TestSolution, TestInstance> objective, int nIslands, IslandScatterSearch.MigrationPolicy policy, int combinationThreads) {
+        var islands = new ScatterSearchBuilder<TestSolution, TestInstance>()
+                .withConstructive(new RandomTestConstructive())
+                .withCombinator(new RandomCombinatorTestHelper())
+                .withDistance(new DistanceTestHelper())
+                .withObjective(objective)
+                .withRefsetSize(10)
+                .withInitialRatio(2)
+                .withDiversity(0.2)
+                .withMaxIterations(30)
+                .withSoftRestart(true)
+                .withParallelCombination(combinationThreads)
+                .buildIslands(nIslands, 3, 2, policy);
+        islands.setBuilder(new TestSolutionBuilder());
+        return islands;
+    }
+
+    private double runWithSeed(IslandScatterSearch<TestSolution, TestInstance> algorithm, long seed) {
+        Context.Configurator.resetRandom(RandomType.DEFAULT, seed);
+        return algorithm.algorithm(new TestInstance("TestInstance")).getScore();
+    }
+
+    @Test
+    void islandsReproducible() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        for (var policy : IslandScatterSearch.MigrationPolicy.values()) {
+            double first = runWithSeed(islands(objective, 4, policy, 1), 42);
+            double second = runWithSeed(islands(objective, 4, policy, 1), 42);
+            assertEquals(first, second, policy.name());
+            // Parallel initialization uses a random generator per solution, results do not depend on the number of threads
+            double parallel = runWithSeed(islands(objective, 4, policy, 2), 42);
+            assertEquals(parallel, runWithSeed(islands(objective, 4, policy, 3), 42), policy.name());
+        }
+    }
+
+    @Test
+    void singleIslandNoMigration() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        var algorithm = islands(objective, 1, IslandScatterSearch.MigrationPolicy.BEST, 1);
+        assertTrue(runWithSeed(algorithm, 1) < 0, "Combinations always decrease score");
+        assertTrue(algorithm.toString().contains("islands=1"));
+        assertThrows(IllegalArgumentException.class, () -> new ScatterSearchBuilder<TestSolution, TestInstance>()
+                .withConstructive(new RandomTestConstructive())
+                .withCombinator(new RandomCombinatorTestHelper())
+                .withRefsetSize(10)
+                .buildIslands(2, 1, 1, IslandScatterSearch.MigrationPolicy.DIVERSE));
+    }
+
+    @Test
+    void receiveMigrants() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        var c = new ScatterSearchTestConstructive();
+        var inst = new TestInstance("TestInstance");
+        var sc = new ScatterSearch<>("Test", 1, 4, c, c, Improver.nul(), new CombinatorTestHelper(), objective, 100, 0, new DistanceTestHelper(), false);
+        var source = TestSolution.from(inst, 1, 2, 8, 50);
+
+        var best = new IslandScatterSearch<>("Test", sc, 2, 1, 2, IslandScatterSearch.MigrationPolicy.BEST);
+        var refset = new RefSet<>(TestSolution.from(inst, 2, 10, 20, 30), 4, 0);
+        var inserted = best.receive(refset, source);
+        // 2 is already in refset, 1 and 8 are the best two remaining
+        assertEquals(Set.of(1d, 8d), inserted.stream().map(TestSolution::getScore).collect(Collectors.toSet()));
+        assertEquals(1, refset.solutions[0].getScore());
+
+        var diverse = new IslandScatterSearch<>("Test", sc, 2, 1, 1, IslandScatterSearch.MigrationPolicy.DIVERSE);
+        refset = new RefSet<>(TestSolution.from(inst, 2, 10, 20, 30), 4, 0);
+        inserted = diverse.receive(refset, TestSolution.from(inst, 1, 3, 15, 29));
+        // 1 is at distance 1 of refset solution 2, 15 is at distance 5 of 10 and 20
+        assertEquals(Set.of(15d), inserted.stream().map(TestSolution::getScore).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void parallelCombinationSameAsSequential() {
+        var inst = new TestInstance("TestInstance");
+        var refset = TestSolution.from(inst, 1, 2, 3, 4, 5);
+        var newSolutions = new HashSet<>(Arrays.asList(TestSolution.from(inst, 10, 20, 30)));
+        var combinator = new CombinatorTestHelper();
+        var pool = new ForkJoinPool(4);
+        try {
+            assertEquals(combinator.newSet(refset, newSolutions), combinator.newSet(refset, newSolutions, pool));
+
+            var randomCombinator = new RandomCombinatorTestHelper();
+            Context.Configurator.resetRandom(RandomType.DEFAULT, 7);
+            var first = randomCombinator.newSet(refset, newSolutions, pool);
+            Context.Configurator.resetRandom(RandomType.DEFAULT, 7);
+            assertEquals(first, randomCombinator.newSet(refset, newSolutions, pool));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelCombinationKeepsSequentialOrder() {
+        var inst = new TestInstance("TestInstance");
+        var refset = TestSolution.from(inst, 1, 2, 3, 4, 5, 6, 7);
+        var newSolutions = new LinkedHashSet<>(Arrays.asList(TestSolution.from(inst, 3, 1, 2)));
+        // Many duplicated solutions
+        var combinator = new SolutionCombinator<TestSolution, TestInstance>() {
+            @Override
+            protected List<TestSolution> apply(TestSolution left, TestSolution right) {
+                return List.of(new TestSolution(left.getInstance(), (left.getScore() * right.getScore()) % 4), new TestSolution(left.getInstance(), right.getScore()));
+            }
+        };
+        var pool = new ForkJoinPool(4);
+        try {
+            var expected = new ArrayList<>(combinator.newSet(refset, newSolutions));
+            for (int i = 0; i < 20; i++) {
+                assertEquals(expected, new ArrayList<>(combinator.newSet(refset, newSolutions, pool)));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void combinationPoolDoesNotConsumeCallerRandom() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        var sc = new ScatterSearchBuilder<TestSolution, TestInstance>()
+                .withConstructive(new RandomTestConstructive())
+                .withCombinator(new RandomCombinatorTestHelper())
+                .withDistance(new DistanceTestHelper())
+                .withObjective(objective)
+                .withRefsetSize(10)
+                .withParallelCombination(4)
+                .build();
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 99);
+        var expected = ((RandomGenerator.JumpableGenerator) Context.getRandom()).copy();
+        var pool = sc.newCombinationPool();
+        try {
+            ConcurrencyUtil.reproducibleMap(pool, 8, i -> Context.getRandom().nextInt());
+        } finally {
+            pool.shutdown();
+        }
+        // Each task jumps the caller random once, creating pool workers must not
+        for (int i = 0; i < 8; i++) {
+            expected.jump();
+        }
+        assertEquals(expected.nextLong(), Context.getRandom().nextLong());
+    }
+
+    @Test
+    void parallelImprovementReproducible() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        var improver = new Improver<TestSolution, TestInstance>(objective) {
+            @Override
+            public TestSolution improve(TestSolution solution) {
+                solution.setScore(solution.getScore() - RandomManager.getRandom().nextInt(5));
+                return solution;
+            }
+        };
+        var results = new ArrayList<Double>();
+        for (int nThreads : new int[]{2, 2, 4}) {
+            var sc = new ScatterSearchBuilder<TestSolution, TestInstance>()
+                    .withConstructive(new RandomTestConstructive())
+                    .withCombinator(new RandomCombinatorTestHelper())
+                    .withDistance(new DistanceTestHelper())
+                    .withImprover(improver)
+                    .withObjective(objective)
+                    .withRefsetSize(10)
+                    .withMaxIterations(20)
+                    .withParallelCombination(nThreads)
+                    .withCombinedSolutionImprovement(true)
+                    .build();
+            sc.setBuilder(new TestSolutionBuilder());
+            Context.Configurator.resetRandom(RandomType.DEFAULT, 99);
+            results.add(sc.algorithm(new TestInstance("TestInstance")).getScore());
+        }
+        assertEquals(results.get(0), results.get(1));
+        assertEquals(results.get(0), results.get(2));
+    }
+
+    @Test
+    void parallelInitializeRefset() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        var constructive = new RandomTestConstructive();
+        var sc = new ScatterSearch<>("Test", 10, 20, constructive, constructive, Improver.nul(), new CombinatorTestHelper(),
+                objective, 100, 0.5, new DistanceTestHelper(), true, 4, false);
+        sc.setBuilder(new TestSolutionBuilder());
+        var inst = new TestInstance("TestInstance");
+        var pool = sc.newCombinationPool();
+        try {
+            Context.Configurator.resetRandom(RandomType.DEFAULT, 3);
+            var first = sc.initializeRefset(TestSolution.class, inst, pool);
+            Context.Configurator.resetRandom(RandomType.DEFAULT, 3);
+            var second = sc.initializeRefset(TestSolution.class, inst, pool);
+            assertArrayEquals(first.solutions, second.solutions);
+            assertEquals(20, first.currentRefset.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void diversitySelection() {
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.ofMinimizing("Test", TestSolution::getScore, TestMove::getScoreChange);
+        // Scores 0..9, best 2 by value are 0 and 1, then the most diverse are 9 (max distance to 1), and 5 (distance 4 to 1 and 9)
+        var c = new ScatterSearchTestConstructive(0, 1);
+        var sc = new ScatterSearch<>("Test", 2.5, 4, c, c, Improver.nul(), new CombinatorTestHelper(),
+                objective, 100, 0.5, new DistanceTestHelper(), false);
+        sc.setBuilder(new TestSolutionBuilder());
+        var refset = sc.initializeRefset(TestSolution.class, new TestInstance("TestInstance"));
+        var scores = Arrays.stream(refset.solutions).map(TestSolution::getScore).toList();
+        assertEquals(List.of(0d, 1d, 5d, 9d), scores);
+    }
+
+    private static class RandomTestConstructive extends Constructive<TestSolution, TestInstance> {
+        @Override
+        public TestSolution construct(TestSolution solution) {
+            solution.setScore(RandomManager.getRandom().nextInt(1_000));
+            return solution;
+        }
+    }
+
+    private static class RandomCombinatorTestHelper extends SolutionCombinator<TestSolution, TestInstance> {
+        @Override
+        protected List<TestSolution> apply(TestSolution left, TestSolution right) {
+            double min = Math.min(left.getScore(), right.getScore());
+            return List.of(new TestSolution(left.getInstance(), min - RandomManager.getRandom().nextInt(3)));
+        }
+    }
+
     private static class CombinatorTestHelper extends SolutionCombinator<TestSolution, TestInstance> {
         @Override
         protected List<TestSolution> apply(TestSolution left, TestSolution right) {
@@ -7,13 +7,13 @@ import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.testutil.TestInstance;
 import es.urjc.etsii.grafo.testutil.TestMove;
 import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 import es.urjc.etsii.grafo.util.Context;
-import es.urjc.etsii.grafo.util.TimeStatsEvent;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class TimeStatsTest {
@@ -24,25 +24,90 @@ public class TimeStatsTest {
         Metrics.resetMetrics();
         Context.Configurator.setObjectives(Objective.ofMinimizing("DefaultMinimize", TestSolution::getScore, TestMove::getScoreChange));
         Metrics.register("DefaultMinimize", ref -> new DeclaredObjective("DefaultMinimize", FMode.MINIMIZE, ref));
+        Context.Configurator.getAndResetComponentTimes();
         // total time is algoritm + constructive + 2 * local search
         var alg = new TimedAlgorithm(3, 5, 1);
         var testInstance = new TestInstance("Test");
         long start = System.nanoTime();
         var solution = alg.algorithm(testInstance);
         long end = System.nanoTime();
-        var timeData = Context.Configurator.getAndResetTimeEvents();
-        Map<String, List<TimeStatsEvent>> organizedData = timeData.stream().collect(Collectors.groupingBy(TimeStatsEvent::method));
+        var timeData = Context.Configurator.getAndResetComponentTimes();
+        Map<String, ComponentTimes.Entry> organizedData = timeData.entries().stream().collect(Collectors.toMap(ComponentTimes.Entry::method, e -> e));
         Assertions.assertEquals(4, organizedData.size());
-        Assertions.assertEquals(2, organizedData.get("algorithm").size());
-        Assertions.assertEquals(2, organizedData.get("construct").size());
-        Assertions.assertEquals(2, organizedData.get("improve").size());
-        Assertions.assertEquals(2, organizedData.get("work1").size());
+        Assertions.assertEquals(1, organizedData.get("algorithm").calls());
+        Assertions.assertEquals(1, organizedData.get("construct").calls());
+        Assertions.assertEquals(1, organizedData.get("improve").calls());
+        Assertions.assertEquals(1, organizedData.get("work1").calls());
         Assertions.assertNull(organizedData.get("work2"));
+        Assertions.assertEquals("", organizedData.get("algorithm").parent());
+        Assertions.assertEquals("TimedAlgorithm::algorithm", organizedData.get("construct").parent());
+        Assertions.assertEquals("TimedAlgorithm::algorithm", organizedData.get("improve").parent());
+        Assertions.assertEquals("TimedAlgorithm::algorithm/TestLocalSearch::improve", organizedData.get("work1").parent());
+
+        var algorithm = organizedData.get("algorithm");
+        Assertions.assertEquals("TimedAlgorithm", algorithm.clazz());
+        Assertions.assertTrue(algorithm.totalNanos() >= TimeUnit.MILLISECONDS.toNanos(3 + 5 + 5));
+        Assertions.assertTrue(algorithm.totalNanos() <= end - start);
+        Assertions.assertEquals(algorithm.minNanos(), algorithm.maxNanos());
+        Assertions.assertTrue(Context.Configurator.getAndResetComponentTimes().isEmpty());
         Metrics.disableMetrics();
     }
 
     @Test
-    void testTimedNoMetrics() {
+    void testCallersAggregatedSeparately() {
+        Metrics.enableMetrics();
+        Metrics.resetMetrics();
+        Context.Configurator.setObjectives(Objective.ofMinimizing("DefaultMinimize", TestSolution::getScore, TestMove::getScoreChange));
+        Metrics.register("DefaultMinimize", ref -> new DeclaredObjective("DefaultMinimize", FMode.MINIMIZE, ref));
+        Context.Configurator.getAndResetComponentTimes();
+        try {
+            var alg = new TimedAlgorithm(0, 0, 0);
+            var testInstance = new TestInstance("Test");
+            alg.algorithm(testInstance);
+            alg.ls.improve(new TestSolution(testInstance));
+            alg.ls.improve(new TestSolution(testInstance));
+            var improves = Context.Configurator.getAndResetComponentTimes().entries().stream()
+                    .filter(e -> e.method().equals("improve"))
+                    .collect(Collectors.toMap(ComponentTimes.Entry::parent, ComponentTimes.Entry::calls));
+            Assertions.assertEquals(Map.of("TimedAlgorithm::algorithm", 1L, "", 2L), improves);
+        } finally {
+            Metrics.disableMetrics();
+        }
+    }
+
+    @Test
+    void testSampling() {
+        Metrics.enableMetrics();
+        Metrics.resetMetrics();
+        Context.Configurator.setObjectives(Objective.ofMinimizing("DefaultMinimize", TestSolution::getScore, TestMove::getScoreChange));
+        Metrics.register("DefaultMinimize", ref -> new DeclaredObjective("DefaultMinimize", FMode.MINIMIZE, ref));
+        Context.Configurator.getAndResetComponentTimes();
+        ComponentTimes.setSamplingPeriod(2);
+        try {
+            var alg = new TimedAlgorithm(0, 0, 0);
+            var testInstance = new TestInstance("Test");
+            for (int i = 0; i < 5; i++) {
+                alg.algorithm(testInstance);
+            }
+            var entries = Context.Configurator.getAndResetComponentTimes().entries();
+            var algorithm = entries.stream().filter(e -> e.method().equals("algorithm")).findFirst().orElseThrow();
+            Assertions.assertEquals(5, algorithm.calls());
+            Assertions.assertEquals(3, algorithm.timedCalls());
+            Assertions.assertTrue(algorithm.minNanos() <= algorithm.maxNanos());
+            Assertions.assertEquals(Math.round(algorithm.totalNanos() * 5 / 3.0), algorithm.estimatedTotalNanos());
+        } finally {
+            ComponentTimes.setSamplingPeriod(1);
+            Metrics.disableMetrics();
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ComponentTimes.setSamplingPeriod(0));
+    }
 
+    @Test
+    void testTimedNoMetrics() {
+        Metrics.disableMetrics();
+        Context.Configurator.setObjectives(Objective.ofMinimizing("DefaultMinimize", TestSolution::getScore, TestMove::getScoreChange));
+        Context.Configurator.getAndResetComponentTimes();
+        new TimedAlgorithm(0, 0, 0).algorithm(new TestInstance("Test"));
+        Assertions.assertTrue(Context.Configurator.getAndResetComponentTimes().isEmpty());
     }
 }
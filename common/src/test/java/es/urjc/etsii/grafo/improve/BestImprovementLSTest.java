@@ -4,6 +4,7 @@ package es.urjc.etsii.grafo.improve;
 import es.urjc.etsii.grafo.algorithms.FMode;
 import es.urjc.etsii.grafo.improve.ls.LocalSearchBestImprovement;
 import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.testutil.TestDeltaNeighborhood;
 import es.urjc.etsii.grafo.testutil.TestInstance;
 import es.urjc.etsii.grafo.testutil.TestMove;
 import es.urjc.etsii.grafo.testutil.TestSolution;
@@ -41,4 +42,39 @@ class BestImprovementLSTest extends BaseLSTest {
         }
     }
 
+    @Test
+    void testDeltasMinimizing(){
+        testDeltas(FMode.MINIMIZE);
+    }
+
+    @Test
+    void testDeltasMaximizing(){
+        testDeltas(FMode.MAXIMIZE);
+    }
+
+    void testDeltas(FMode fmode){
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.of("Test"+fmode, fmode, TestSolution::getScore, TestMove::getScoreChange);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var neighborhood = new TestDeltaNeighborhood(0, 0.5, 195, -95438, 196341, -99614, 12, 861523, Math.PI, Math.E);
+        var ls = new LocalSearchBestImprovement<>(objective, neighborhood);
+        var chosenMove = ls.getMove(solution);
+        Assertions.assertNotNull(chosenMove);
+        // Only the chosen move should be created
+        Assertions.assertEquals(1, neighborhood.getMaterialized());
+        if(fmode == FMode.MAXIMIZE){
+            Assertions.assertEquals(861523, chosenMove.getScoreChange());
+        } else {
+            Assertions.assertEquals(-99614, chosenMove.getScoreChange());
+        }
+    }
+
+    @Test
+    void testDeltasNoImprovement(){
+        Objective<TestMove, TestSolution, TestInstance> objective = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, TestMove::getScoreChange);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var neighborhood = new TestDeltaNeighborhood(0, 1, 2, 3);
+        var ls = new LocalSearchBestImprovement<>(objective, neighborhood);
+        Assertions.assertNull(ls.getMove(solution));
+        Assertions.assertEquals(0, neighborhood.getMaterialized());
+    }
 }
@@ -0,0 +1,134 @@
+package es.urjc.etsii.grafo.improve;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.improve.ls.LocalSearchDontLookBits;
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.neighborhood.DontLookBitsNeighborhood;
+import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
+import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.testutil.TestInstance;
+import es.urjc.etsii.grafo.testutil.TestMove;
+import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.Context;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class DontLookBitsLSTest {
+
+    /**
+     * Each element can be improved a given number of times, improving an element also touches the next one
+     */
+    private static class ElementNeighborhood extends Neighborhood<ElementMove, TestSolution, TestInstance> implements DontLookBitsNeighborhood<ElementMove, TestSolution, TestInstance> {
+        private final int[] pending;
+        private int exploredElements = 0;
+
+        ElementNeighborhood(int[] pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public ExploreResult<ElementMove, TestSolution, TestInstance> explore(TestSolution solution) {
+            var moves = new ArrayList<ElementMove>();
+            for (int i = 0; i < pending.length; i++) {
+                if (pending[i] > 0) {
+                    moves.add(new ElementMove(solution, this, i));
+                }
+            }
+            return ExploreResult.fromList(moves);
+        }
+
+        @Override
+        public int nElements(TestSolution solution) {
+            return pending.length;
+        }
+
+        @Override
+        public ExploreResult<ElementMove, TestSolution, TestInstance> explore(TestSolution solution, int element) {
+            exploredElements++;
+            return ExploreResult.fromList(pending[element] > 0 ? List.of(new ElementMove(solution, this, element)) : List.of());
+        }
+
+        @Override
+        public int[] touchedElements(TestSolution solution, ElementMove move) {
+            return new int[]{move.element, (move.element + 1) % pending.length};
+        }
+    }
+
+    private static class ElementMove extends TestMove {
+        private final ElementNeighborhood neighborhood;
+        private final int element;
+
+        ElementMove(TestSolution solution, ElementNeighborhood neighborhood, int element) {
+            super(solution, -1);
+            this.neighborhood = neighborhood;
+            this.element = element;
+        }
+
+        @Override
+        protected TestSolution _execute(TestSolution solution) {
+            neighborhood.pending[element]--;
+            return super._execute(solution);
+        }
+    }
+
+    private static final Objective<ElementMove, TestSolution, TestInstance> objective = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, TestMove::getScoreChange);
+
+    @BeforeAll
+    static void init(){
+        Metrics.disableMetrics();
+        Context.Configurator.setObjectives(objective);
+    }
+
+    @Test
+    void onlyTouchedElementsAreExploredAgain() {
+        int[] pending = new int[100];
+        pending[5] = 3;
+        var neighborhood = new ElementNeighborhood(pending);
+        var ls = new LocalSearchDontLookBits<>(objective, neighborhood);
+        var solution = ls.improve(new TestSolution(new TestInstance("Fake Instance")));
+        Assertions.assertEquals(-3, solution.getScore());
+        Assertions.assertArrayEquals(new int[100], pending);
+        // 0-4 once, 5 four times (3 moves + 1 without moves), 6-99 once
+        Assertions.assertEquals(5 + 4 + 94, neighborhood.exploredElements);
+    }
+
+    @Test
+    void touchedElementsAreReactivated() {
+        int[] pending = new int[10];
+        pending[9] = 1;
+        pending[0] = 2;
+        var neighborhood = new ElementNeighborhood(pending);
+        var ls = new LocalSearchDontLookBits<>(objective, neighborhood);
+        var solution = ls.improve(new TestSolution(new TestInstance("Fake Instance")));
+        Assertions.assertEquals(-3, solution.getScore());
+        Assertions.assertTrue(IntStream.of(pending).allMatch(i -> i == 0));
+    }
+
+    @Test
+    void getMoveExploresAllElements() {
+        int[] pending = new int[10];
+        pending[7] = 1;
+        var neighborhood = new ElementNeighborhood(pending);
+        var ls = new LocalSearchDontLookBits<>(objective, neighborhood);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var move = ls.getMove(solution);
+        Assertions.assertNotNull(move);
+        Assertions.assertEquals(7, move.element);
+        Assertions.assertTrue(ls.iteration(solution));
+        Assertions.assertFalse(ls.iteration(solution));
+    }
+
+    @Test
+    void emptySolution() {
+        var neighborhood = new ElementNeighborhood(new int[0]);
+        var ls = new LocalSearchDontLookBits<>(objective, neighborhood);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        Assertions.assertSame(solution, ls.improve(solution));
+    }
+}
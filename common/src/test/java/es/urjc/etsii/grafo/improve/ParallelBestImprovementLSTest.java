@@ -0,0 +1,93 @@
+package es.urjc.etsii.grafo.improve;
+
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.improve.ls.LocalSearchParallelBestImprovement;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
+import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.testutil.TestInstance;
+import es.urjc.etsii.grafo.testutil.TestMove;
+import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.ArrayUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.mockito.Mockito.when;
+
+class ParallelBestImprovementLSTest extends BaseLSTest {
+
+    @Test
+    void testOrderMinimizing(){
+        testOrder(FMode.MINIMIZE);
+    }
+
+    @Test
+    void testOrderMaximizing(){
+        testOrder(FMode.MAXIMIZE);
+    }
+
+    void testOrder(FMode fmode){
+        var objective = Objective.of("Test", fmode, TestSolution::getScore, TestMove::getScoreChange);
+        double[] values = {
+                0, 0.5, 195, -95438, 196341, -99614, 12, 861523, Math.PI, Math.E
+        };
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var mockNeighborhod = getNeighborhoodMock(fmode, values, solution);
+        var ls = new LocalSearchParallelBestImprovement<>(objective, mockNeighborhod, ForkJoinPool.commonPool(), 2);
+        var chosenMove = ls.getMove(solution);
+        Assertions.assertNotNull(chosenMove);
+        double value = chosenMove.getScoreChange();
+        if(fmode == FMode.MAXIMIZE){
+            Assertions.assertEquals(value, ArrayUtil.max(values));
+        } else {
+            Assertions.assertEquals(value, ArrayUtil.min(values));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTiesResolvedInOrder(){
+        var objective = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, TestMove::getScoreChange);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var moves = new ArrayList<TestMove>();
+        for (int i = 0; i < 10_000; i++) {
+            // Several equivalent best moves, the first one must always be chosen
+            moves.add(new TestMove(solution, i % 1000 == 500 ? -10 : i % 7));
+        }
+        var first = moves.get(500);
+
+        Neighborhood<TestMove, TestSolution, TestInstance> listNeighborhood = Mockito.mock(Neighborhood.class);
+        when(listNeighborhood.explore(solution)).thenAnswer(a -> ExploreResult.fromList(moves));
+        Neighborhood<TestMove, TestSolution, TestInstance> streamNeighborhood = Mockito.mock(Neighborhood.class);
+        when(streamNeighborhood.explore(solution)).thenAnswer(a -> ExploreResult.fromStream(moves.stream(), moves.size()));
+
+        for (int i = 0; i < 20; i++) {
+            var lsList = new LocalSearchParallelBestImprovement<>(objective, listNeighborhood, ForkJoinPool.commonPool(), 16);
+            Assertions.assertSame(first, lsList.getMove(solution));
+            var lsStream = new LocalSearchParallelBestImprovement<>(objective, streamNeighborhood, ForkJoinPool.commonPool(), 16);
+            Assertions.assertSame(first, lsStream.getMove(solution));
+        }
+    }
+
+    @Test
+    void testNoImprovingMove(){
+        var objective = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, TestMove::getScoreChange);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var neighborhood = getNeighborhoodMock(FMode.MINIMIZE, new double[]{1, 2, 3, 0, 5}, solution);
+        var ls = new LocalSearchParallelBestImprovement<>(objective, neighborhood, ForkJoinPool.commonPool(), 1);
+        Assertions.assertNull(ls.getMove(solution));
+    }
+
+    @Test
+    void invalidChunkSize(){
+        var objective = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, TestMove::getScoreChange);
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        var neighborhood = getNeighborhoodMock(FMode.MINIMIZE, new double[]{1}, solution);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LocalSearchParallelBestImprovement<>(objective, neighborhood, ForkJoinPool.commonPool(), 0));
+    }
+}
@@ -251,4 +251,117 @@ class SimulatedAnnealingUnitAlgorithmTest {
         Assertions.assertTrue(ellapsed > 5, "Stops in less than 5 millis");
     }
 
+    @Test
+    void deltaNeighborhoodOnlyMaterializesExecutedMoves() {
+        var neighborhood = new TestDeltaNeighborhood(-1, -1, -1);
+        SimulatedAnnealing<TestMove, TestSolution, TestInstance> sa = new SimulatedAnnealingBuilder<TestMove, TestSolution, TestInstance>()
+                .withCoolDownExponential(0.5)
+                .withCycleLength(1)
+                .withTerminationCriteriaMaxIterations(5)
+                .withInitialTempValue(100)
+                .withObjective((Objective<TestMove, TestSolution, TestInstance>) objective)
+                .withNeighborhood(neighborhood)
+                .build();
+        var best = sa.improve(new TestSolution(testInstance));
+        Assertions.assertEquals(-5, best.getScore());
+        Assertions.assertEquals(5, neighborhood.getMaterialized());
+    }
+
+    @Test
+    void customAcceptanceCriteriaMaterializesCandidates() {
+        // Only delta acceptance criteria can reject a worsening move without creating it
+        var deltaNeighborhood = new TestDeltaNeighborhood(1);
+        rejectAll(deltaNeighborhood, new MetropolisAcceptanceCriteria<>((Objective<TestMove, TestSolution, TestInstance>) objective));
+        Assertions.assertEquals(0, deltaNeighborhood.getMaterialized());
+
+        var customNeighborhood = new TestDeltaNeighborhood(1);
+        rejectAll(customNeighborhood, (move, temperature) -> false);
+        Assertions.assertEquals(1, customNeighborhood.getMaterialized());
+    }
+
+    private void rejectAll(TestDeltaNeighborhood neighborhood, AcceptanceCriteria<TestMove, TestSolution, TestInstance> acceptanceCriteria) {
+        SimulatedAnnealing<TestMove, TestSolution, TestInstance> sa = new SimulatedAnnealingBuilder<TestMove, TestSolution, TestInstance>()
+                .withCoolDownExponential(0.5)
+                .withCycleLength(1)
+                .withTerminationCriteriaMaxIterations(5)
+                .withInitialTempValue(1e-9)
+                .withAcceptanceCriteriaCustom(acceptanceCriteria)
+                .withObjective((Objective<TestMove, TestSolution, TestInstance>) objective)
+                .withNeighborhood(neighborhood)
+                .build();
+        var best = sa.improve(new TestSolution(testInstance));
+        Assertions.assertEquals(0, best.getScore());
+    }
+
+    private SimulatedAnnealing<TestMove, TestSolution, TestInstance> parallelTempering(int nReplicas, double ladderRatio, int exchangeInterval) {
+        return new SimulatedAnnealingBuilder<TestMove, TestSolution, TestInstance>()
+                .withCoolDownExponential(0.9)
+                .withCycleLength(5)
+                .withTerminationCriteriaMaxIterations(30)
+                .withInitialTempValue(10)
+                .withObjective((Objective<TestMove, TestSolution, TestInstance>) objective)
+                .withNeighborhood(new TestDeltaNeighborhood(-1, 2, -3, 1, 4))
+                .withParallelTempering(nReplicas, ladderRatio, exchangeInterval)
+                .build();
+    }
+
+    @Test
+    void parallelTemperingBuilder() {
+        Assertions.assertInstanceOf(ParallelTemperingSimulatedAnnealing.class, parallelTempering(4, 0.5, 3));
+        Assertions.assertFalse(parallelTempering(1, 0.5, 3) instanceof ParallelTemperingSimulatedAnnealing);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parallelTempering(0, 0.5, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parallelTempering(4, 1, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parallelTempering(4, 0.5, 0));
+    }
+
+    @Test
+    void parallelTemperingReproducible() {
+        var sa = parallelTempering(4, 0.5, 3);
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 42);
+        var first = sa.improve(new TestSolution(testInstance));
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 42);
+        var second = sa.improve(new TestSolution(testInstance));
+        Assertions.assertEquals(first.getScore(), second.getScore());
+        Assertions.assertTrue(first.getScore() < 0);
+    }
+
+    @Test
+    void parallelTemperingKeepsRandomState() {
+        // First call creates the pool workers, the second one reuses them, a third instance creates its own
+        var sa = parallelTempering(4, 0.5, 3);
+        var results = new long[3];
+        var scores = new double[3];
+        for (int i = 0; i < 3; i++) {
+            var current = i < 2 ? sa : parallelTempering(4, 0.5, 3);
+            Context.Configurator.resetRandom(RandomType.DEFAULT, 42);
+            scores[i] = current.improve(new TestSolution(testInstance)).getScore();
+            // Depends on every swap decision and every replica round
+            results[i] = Context.getRandom().nextLong();
+        }
+        Assertions.assertEquals(scores[0], scores[1]);
+        Assertions.assertEquals(scores[0], scores[2]);
+        Assertions.assertEquals(results[0], results[1]);
+        Assertions.assertEquals(results[0], results[2]);
+    }
+
+    @Test
+    void repeatedMovesEndCycle() {
+        // Every random move is equal to the previous one, so each step ends after the first tested move is rejected
+        var neighborhood = new TestNeighborhood(testSolution, 5);
+        SimulatedAnnealing<TestMove, TestSolution, TestInstance> sa = new SimulatedAnnealingBuilder<TestMove, TestSolution, TestInstance>()
+                .withCycleLength(100)
+                .withTerminationCriteriaMaxIterations(10)
+                .withInitialTempValue(0.001)
+                .withTimeCheckInterval(1)
+                .withObjective((Objective<TestMove, TestSolution, TestInstance>) objective)
+                .withNeighborhood(neighborhood)
+                .build();
+        var best = sa.improve(new TestSolution(testInstance));
+        Assertions.assertEquals(0, best.getScore());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SimulatedAnnealingBuilder<TestMove, TestSolution, TestInstance>()
+                .withTimeCheckInterval(0)
+                .withObjective((Objective<TestMove, TestSolution, TestInstance>) objective)
+                .withNeighborhood(neighborhood)
+                .build());
+    }
 }
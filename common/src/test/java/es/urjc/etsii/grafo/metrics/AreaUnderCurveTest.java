@@ -0,0 +1,103 @@
+package es.urjc.etsii.grafo.metrics;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AreaUnderCurveTest {
+
+    private static DeclaredObjective objective(FMode fMode) {
+        return new DeclaredObjective("Test", fMode, 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FMode.class)
+    void sameAsPostHoc(FMode fMode) {
+        var random = new Random(1234);
+        for (int round = 0; round < 50; round++) {
+            long skip = random.nextInt(100), duration = random.nextInt(1000);
+            var full = objective(fMode);
+            var streamed = objective(fMode);
+            var area = new AreaUnderCurve(fMode, skip, duration);
+            streamed.setRetention(area);
+
+            long instant = random.nextInt((int) skip + 1);
+            while (instant < 1500) {
+                double value = random.nextInt(1000);
+                full.add(instant, value);
+                streamed.add(instant, value);
+                instant += random.nextInt(50);
+            }
+            assertEquals(MetricUtil.areaUnderCurve(full, skip, duration, false), area.getArea(false), 1e-6);
+            assertEquals(MetricUtil.areaUnderCurve(full, skip, duration, true), area.getArea(true), 1e-9);
+            // History is not kept
+            assertTrue(streamed.isEmpty());
+        }
+    }
+
+    @Test
+    void partialArea() {
+        var area = new AreaUnderCurve(FMode.MINIMIZE, 10, 100);
+        var metric = objective(FMode.MINIMIZE);
+        metric.setRetention(area);
+        assertTrue(Double.isNaN(area.getCurrentValue()));
+
+        metric.add(0, 20);
+        metric.add(5, 10);
+        assertEquals(0, area.getPartialArea());
+        assertEquals(10, area.getLastInstant());
+
+        metric.add(30, 5);
+        metric.add(40, 6);
+        assertEquals(200, area.getPartialArea());
+        assertEquals(30, area.getLastInstant());
+        assertEquals(5, area.getCurrentValue());
+        assertEquals(200 + 80 * 5, area.getArea(false));
+        assertEquals(200, area.getAccruedArea(20));
+        assertEquals(200 + 20 * 5, area.getAccruedArea(50));
+        assertEquals(200 + 80 * 5, area.getAccruedArea(500));
+
+        // Points after the range are ignored
+        metric.add(200, 1);
+        assertEquals(200 + 80 * 5, area.getArea(false));
+    }
+
+    @Test
+    void outOfOrder() {
+        var area = new AreaUnderCurve(FMode.MINIMIZE, 0, 100);
+        var metric = objective(FMode.MINIMIZE);
+        metric.setRetention(area);
+        metric.add(0, 10);
+        metric.add(50, 8);
+        // Counted as if recorded at 50
+        metric.add(20, 4);
+        assertEquals(50 * 10 + 50 * 4, area.getArea(false));
+    }
+
+    @Test
+    void invalidCurves() {
+        assertThrows(IllegalArgumentException.class, () -> new AreaUnderCurve(FMode.MINIMIZE, -1, 10));
+
+        var empty = new AreaUnderCurve(FMode.MINIMIZE, 10, 100);
+        assertThrows(IllegalArgumentException.class, () -> empty.getArea(false));
+
+        // First point after the start of the range
+        var late = new AreaUnderCurve(FMode.MINIMIZE, 10, 100);
+        var metric = objective(FMode.MINIMIZE);
+        metric.setRetention(late);
+        metric.add(20, 5);
+        assertThrows(IllegalArgumentException.class, () -> late.getArea(false));
+
+        var negative = new AreaUnderCurve(FMode.MAXIMIZE, 0, 100);
+        metric = objective(FMode.MAXIMIZE);
+        metric.setRetention(negative);
+        metric.add(0, -5);
+        metric.add(50, 5);
+        assertThrows(IllegalArgumentException.class, () -> negative.getArea(false));
+    }
+}
@@ -4,6 +4,8 @@ import es.urjc.etsii.grafo.algorithms.FMode;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -29,7 +31,7 @@ public class DeclaredObjectiveTest {
         int[] values = {100, 99, 80, 70, 40};
         int[] instants = {1,2,5,10, 20};
 
-        var it = metric.values.iterator();
+        var it = metric.getValues().iterator();
         for (int i = 0; i < values.length; i++) {
             assertTrue(it.hasNext());
             var n = it.next();
@@ -42,7 +44,7 @@ public class DeclaredObjectiveTest {
 
         values = new int[]{100, 99, 70, 40};
         instants = new int[]{1, 2, 4,20};
-        it = metric.values.iterator();
+        it = metric.getValues().iterator();
         for (int i = 0; i < values.length; i++) {
             assertTrue(it.hasNext());
             var n = it.next();
@@ -50,4 +52,18 @@ public class DeclaredObjectiveTest {
             assertEquals(instants[i], n.instant());
         }
     }
+
+    @Test
+    public void testSameInstant(){
+        var metric = new DeclaredObjective("Test", FMode.MAXIMIZE, 100);
+        metric.add(110, 5);
+        metric.add(120, 6);
+        metric.add(130, 8);
+        // better value at an existing instant replaces it, and removes dominated points
+        metric.add(120, 10);
+        assertEquals(List.of(new TimeValue(10, 5), new TimeValue(20, 10)), metric.getValues());
+        // worse value at an existing instant is ignored
+        metric.add(120, 7);
+        assertEquals(2, metric.size());
+    }
 }
@@ -0,0 +1,124 @@
+package es.urjc.etsii.grafo.metrics;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricRetentionTest {
+
+    private static TestMetric metric(MetricRetention retention) {
+        var metric = new TestMetric(0);
+        metric.setRetention(retention);
+        return metric;
+    }
+
+    @AfterEach
+    void cleanup() {
+        Metrics.disableMetrics();
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MetricRetention.reservoir(0));
+        assertThrows(IllegalArgumentException.class, () -> MetricRetention.timeBuckets(0, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> MetricRetention.monotone(FMode.MINIMIZE, -1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void keepAll() {
+        var metric = metric(MetricRetention.all());
+        for (int i = 0; i < 100; i++) {
+            metric.add(i, i % 7);
+        }
+        assertEquals(100, metric.size());
+        assertEquals(100, metric.getOffered());
+    }
+
+    @Test
+    void timeBuckets() {
+        var metric = metric(MetricRetention.timeBuckets(10, TimeUnit.NANOSECONDS));
+        for (int i = 0; i < 100; i++) {
+            metric.add(i, i);
+        }
+        // First point is always kept, then the last point of each bucket
+        assertEquals(11, metric.size());
+        assertEquals(new TimeValue(0, 0), metric.getValues().get(0));
+        assertEquals(new TimeValue(9, 9), metric.getValues().get(1));
+        assertEquals(new TimeValue(19, 19), metric.getValues().get(2));
+        assertEquals(new TimeValue(99, 99), metric.getValues().get(10));
+        assertEquals(100, metric.getOffered());
+    }
+
+    @Test
+    void monotone() {
+        var metric = metric(MetricRetention.monotone(FMode.MINIMIZE));
+        double[] values = {10, 12, 9, 9, 11, 5, 6, 4};
+        for (int i = 0; i < values.length; i++) {
+            metric.add(i, values[i]);
+        }
+        assertEquals(List.of(new TimeValue(0, 10), new TimeValue(2, 9), new TimeValue(5, 5), new TimeValue(7, 4)), metric.getValues());
+    }
+
+    @Test
+    void monotoneBuckets() {
+        var metric = metric(MetricRetention.monotone(FMode.MAXIMIZE, 100, TimeUnit.NANOSECONDS));
+        // Improves every time, but only one point per bucket should be kept
+        for (int i = 0; i < 1000; i++) {
+            metric.add(i, i);
+        }
+        assertEquals(11, metric.size());
+        assertEquals(new TimeValue(0, 0), metric.getValues().get(0));
+        assertEquals(new TimeValue(99, 99), metric.getValues().get(1));
+        assertEquals(new TimeValue(999, 999), metric.getValues().get(10));
+        // Downsampled curve is never better than the real one
+        var full = metric(MetricRetention.monotone(FMode.MAXIMIZE));
+        for (int i = 0; i < 1000; i++) {
+            full.add(i, i);
+        }
+        assertTrue(MetricUtil.areaUnderCurve(metric, 0, 1000, false) <= MetricUtil.areaUnderCurve(full, 0, 1000, false));
+    }
+
+    @Test
+    void reservoir() {
+        int maxPoints = 50, n = 10_000;
+        var a = metric(MetricRetention.reservoir(maxPoints));
+        var b = metric(MetricRetention.reservoir(maxPoints));
+        for (int i = 0; i < n; i++) {
+            a.add(i, i);
+            b.add(i, i);
+        }
+        assertEquals(maxPoints, a.size());
+        assertEquals(n, a.getOffered());
+        // Deterministic and sorted
+        assertEquals(a.getValues(), b.getValues());
+        for (int i = 1; i < a.size(); i++) {
+            assertTrue(a.instant(i - 1) < a.instant(i));
+        }
+        // Sample is spread over the whole run
+        assertTrue(a.instant(a.size() - 1) > n / 2);
+    }
+
+    @Test
+    void declaredAtRegistration() {
+        Metrics.enableMetrics();
+        Metrics.register(TestMetric.class, TestMetric::new, MetricRetention.reservoir(5));
+        Metrics.register("Objective", ref -> new DeclaredObjective("Objective", FMode.MINIMIZE, ref));
+        Metrics.resetMetrics(0);
+        for (int i = 0; i < 100; i++) {
+            Metrics.add(TestMetric.class, i, i);
+            Metrics.add("Objective", i, 100 - i);
+        }
+        assertEquals(5, Metrics.get(TestMetric.class).size());
+        // Objectives keep their default policy if none is declared
+        assertEquals(100, Metrics.get("Objective").size());
+
+        // Merged metrics use the same policy
+        var merged = Metrics.merge(Metrics.getCurrentThreadMetrics(), Metrics.getCurrentThreadMetrics());
+        assertEquals(5, merged.getMetrics().get("TestMetric").size());
+    }
+}
@@ -35,10 +35,10 @@ class MetricsStorageManagerTest {
         assertEquals(testMetric2, Metrics.get(TestMetric.class.getSimpleName()));
         assertEquals(testMetric2, Metrics.get(testMetric.getName()));
 
-        assertEquals(2, testMetric2.values.size());
-        assertEquals(10, testMetric2.values.iterator().next().value());
+        assertEquals(2, testMetric2.size());
+        assertEquals(10, testMetric2.getValues().iterator().next().value());
         Metrics.resetMetrics(System.nanoTime());
-        assertTrue(Metrics.get(TestMetric.class).values.isEmpty());
+        assertTrue(Metrics.get(TestMetric.class).isEmpty());
 
 
         Metrics.disableMetrics();
@@ -30,9 +30,9 @@ class MetricsStorageTest {
         assertNull(Metrics.get(UnregisteredTestMetric.class));
         assertNull(Metrics.get("asdfg"));
         var testMetric = Metrics.get(TestMetric.class);
-        assertEquals(1, testMetric.values.size());
+        assertEquals(1, testMetric.size());
 
-        var timeValue = testMetric.values.iterator().next();
+        var timeValue = testMetric.getValues().iterator().next();
         diff = timeValue.instant() - currentTime;
         assertTrue(diff < ERROR_MARGIN);
         assertEquals(76, timeValue.value());
@@ -65,14 +65,14 @@ class MetricsStorageTest {
         assertEquals(MetricsStorage.NO_REF, merged.referenceNanoTime);
 
         assertEquals(2, merged.metrics.size());
-        assertEquals(3, merged.metrics.get("TestMetric").values.size());
-        assertEquals(2, merged.metrics.get("TestMetric2").values.size());
+        assertEquals(3, merged.metrics.get("TestMetric").size());
+        assertEquals(2, merged.metrics.get("TestMetric2").size());
 
-        var orderedA = merged.metrics.get("TestMetric").values.toArray(TYPEREF);
+        var orderedA = merged.metrics.get("TestMetric").getValues().toArray(TYPEREF);
         assertEquals(4, orderedA[0].value());
         assertEquals(1, orderedA[1].value());
         assertEquals(5, orderedA[2].value());
-        var orderedB = merged.metrics.get("TestMetric2").values.toArray(TYPEREF);
+        var orderedB = merged.metrics.get("TestMetric2").getValues().toArray(TYPEREF);
         assertEquals(6, orderedB[0].value());
         assertEquals(8, orderedB[1].value());
 
@@ -103,4 +103,30 @@ class MetricsStorageTest {
         assertEquals(Math.log(expected2), area2log);
     }
 
-}
\ No newline at end of file
+    @Test
+    void outOfOrderInserts(){
+        var ordered = new TestMetric(0);
+        var unordered = new TestMetric(0);
+        int n = 1000;
+        for (int i = 0; i < n; i++) {
+            ordered.add(i * 10L, n - i);
+        }
+        // Same points in a different order, with duplicated instants that must be ignored
+        for (int i = n - 1; i >= 0; i -= 2) {
+            unordered.add(i * 10L, n - i);
+        }
+        for (int i = 0; i < n; i += 2) {
+            unordered.add(i * 10L, n - i);
+            unordered.add(i * 10L, -1);
+        }
+        unordered.add(20, -1);
+
+        assertEquals(n, unordered.size());
+        assertEquals(ordered.getValues(), unordered.getValues());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i * 10L, unordered.instant(i));
+            assertEquals(n - i, unordered.value(i));
+        }
+        assertEquals(MetricUtil.areaUnderCurve(ordered, 15, 5000, false), MetricUtil.areaUnderCurve(unordered, 15, 5000, false));
+    }
+}
@@ -0,0 +1,160 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.improve.ls.LocalSearchBestImprovement;
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.testutil.TestInstance;
+import es.urjc.etsii.grafo.testutil.TestMove;
+import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.Context;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CachedNeighborhoodTest {
+
+    /**
+     * Executing the move at position i empties position i and adds one unit to position i+1
+     */
+    private static class ShiftMove extends TestMove {
+        private final int[] data;
+        private final int position;
+
+        ShiftMove(TestSolution solution, int[] data, int position) {
+            super(solution, -data[position] + (position + 1 < data.length ? 1 : 0));
+            this.data = data;
+            this.position = position;
+        }
+
+        @Override
+        protected TestSolution _execute(TestSolution solution) {
+            if (position + 1 < data.length) {
+                data[position + 1]++;
+            }
+            data[position] = 0;
+            return super._execute(solution);
+        }
+    }
+
+    private static class ShiftNeighborhood extends Neighborhood<ShiftMove, TestSolution, TestInstance> {
+        private final int[] data;
+
+        ShiftNeighborhood(int[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public ExploreResult<ShiftMove, TestSolution, TestInstance> explore(TestSolution solution) {
+            var moves = new ArrayList<ShiftMove>();
+            for (int i = 0; i < data.length; i++) {
+                moves.add(new ShiftMove(solution, data, i));
+            }
+            return ExploreResult.fromList(moves);
+        }
+    }
+
+    private static class CachedShiftNeighborhood extends CachedNeighborhood<ShiftMove, TestSolution, TestInstance> {
+        int refreshed = 0;
+
+        CachedShiftNeighborhood(ShiftNeighborhood neighborhood) {
+            super(neighborhood);
+        }
+
+        @Override
+        public int[] affectedPositions(TestSolution solution, ShiftMove move) {
+            return new int[]{move.position, move.position + 1};
+        }
+
+        @Override
+        public ShiftMove refresh(TestSolution solution, ShiftMove move) {
+            refreshed++;
+            return new ShiftMove(solution, move.data, move.position);
+        }
+    }
+
+    private static final AtomicInteger evaluations = new AtomicInteger();
+    private static final Objective<ShiftMove, TestSolution, TestInstance> objective = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, m -> {
+        evaluations.incrementAndGet();
+        return m.getScoreChange();
+    });
+
+    @BeforeAll
+    static void init() {
+        Metrics.disableMetrics();
+        Context.Configurator.setObjectives(objective);
+    }
+
+    private static TestSolution solutionFor(int[] data) {
+        var solution = new TestSolution(new TestInstance("Fake Instance"));
+        solution.setScore(Arrays.stream(data).sum());
+        return solution;
+    }
+
+    @Test
+    void sameResultAsFullExploration() {
+        var r = new Random(0);
+        int[] original = new int[500];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = r.nextInt(10);
+        }
+
+        int[] plainData = original.clone();
+        var plainSolution = solutionFor(plainData);
+        evaluations.set(0);
+        new LocalSearchBestImprovement<>(objective, new ShiftNeighborhood(plainData)).improve(plainSolution);
+        int plainEvaluations = evaluations.get();
+
+        int[] cachedData = original.clone();
+        var cachedSolution = solutionFor(cachedData);
+        evaluations.set(0);
+        new LocalSearchBestImprovement<>(objective, new CachedShiftNeighborhood(new ShiftNeighborhood(cachedData))).improve(cachedSolution);
+        int cachedEvaluations = evaluations.get();
+
+        Assertions.assertArrayEquals(plainData, cachedData);
+        Assertions.assertEquals(plainSolution.getScore(), cachedSolution.getScore());
+        Assertions.assertTrue(cachedEvaluations * 10 < plainEvaluations, "Cached: %s, plain: %s".formatted(cachedEvaluations, plainEvaluations));
+    }
+
+    @Test
+    void onlyOverlappingMovesAreRefreshed() {
+        int[] data = {0, 0, 5, 0, 0, 0, 0};
+        var solution = solutionFor(data);
+        var neighborhood = new CachedShiftNeighborhood(new ShiftNeighborhood(data));
+        var cache = neighborhood.cache(solution, objective);
+        Assertions.assertEquals(data.length, cache.size());
+
+        var best = cache.best();
+        Assertions.assertEquals(2, best.position);
+        cache.execute(best);
+        // Moves at positions 1, 2 and 3 share a position with the executed move
+        Assertions.assertEquals(3, neighborhood.refreshed);
+        Assertions.assertEquals(data.length, cache.size());
+        Assertions.assertArrayEquals(new int[]{0, 0, 0, 1, 0, 0, 0}, data);
+
+        // Ties resolved by neighborhood order, first move is refreshed as it references an old solution version
+        best = cache.best();
+        Assertions.assertEquals(3, best.position);
+        Assertions.assertEquals(0, best.getScoreChange());
+    }
+
+    @Test
+    void rebuildIfModifiedOutside() {
+        int[] data = {0, 3, 0};
+        var solution = solutionFor(data);
+        var neighborhood = new CachedShiftNeighborhood(new ShiftNeighborhood(data));
+        var cache = neighborhood.cache(solution, objective);
+        new ShiftMove(solution, data, 1).execute(solution);
+        // Cached best move was position 1, data is now {0, 0, 1}
+        var best = cache.best();
+        Assertions.assertEquals(2, best.position);
+        Assertions.assertEquals(-1, best.getScoreChange());
+        Assertions.assertEquals(0, neighborhood.refreshed);
+        Assertions.assertDoesNotThrow(() -> cache.execute(best));
+    }
+}
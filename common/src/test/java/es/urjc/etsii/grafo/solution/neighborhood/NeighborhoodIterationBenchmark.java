@@ -0,0 +1,93 @@
+package es.urjc.etsii.grafo.solution.neighborhood;
+
+import es.urjc.etsii.grafo.testutil.TestInstance;
+import es.urjc.etsii.grafo.testutil.TestMove;
+import es.urjc.etsii.grafo.testutil.TestSolution;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark, not executed during the build. Compares the per move overhead of iterating
+ * concatenated and interleaved neighborhoods using streams and cursors.
+ * Run using: mvn test -pl common -Dtest=NeighborhoodIterationBenchmark -Dsurefire.excludedGroups= -Dgroups=benchmark
+ */
+@Tag("benchmark")
+class NeighborhoodIterationBenchmark {
+
+    private static final int N_NEIGHBORHOODS = 8;
+    private static final int MOVES_PER_NEIGHBORHOOD = 50_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void iterationOverhead() {
+        var solution = new TestSolution(new TestInstance("BenchmarkInstance"));
+        var children = new Neighborhood[N_NEIGHBORHOODS];
+        for (int i = 0; i < N_NEIGHBORHOODS; i++) {
+            var moves = new ArrayList<TestMove>(MOVES_PER_NEIGHBORHOOD);
+            for (int j = 0; j < MOVES_PER_NEIGHBORHOOD; j++) {
+                moves.add(new TestMove(solution, (i * 31 + j * 17) % 1000));
+            }
+            children[i] = NeighTestHelper.neighborhood(moves.toArray(new TestMove[0]));
+        }
+        Neighborhood<TestMove, TestSolution, TestInstance> concat = Neighborhood.concat(children);
+        Neighborhood<TestMove, TestSolution, TestInstance> interleave = Neighborhood.interleave(children);
+        int totalMoves = N_NEIGHBORHOODS * MOVES_PER_NEIGHBORHOOD;
+
+        System.out.printf("%-12s %-8s %12s%n", "Neighborhood", "Mode", "ns/move");
+        double concatStream = report("concat", "stream", totalMoves, () -> bestFromStream(concat, solution));
+        double concatCursor = report("concat", "cursor", totalMoves, () -> bestFromCursor(concat, solution));
+        double interleaveStream = report("interleave", "stream", totalMoves, () -> bestFromStream(interleave, solution));
+        double interleaveCursor = report("interleave", "cursor", totalMoves, () -> bestFromCursor(interleave, solution));
+
+        // Both iteration modes must visit the same moves
+        assertEquals(concatStream, concatCursor);
+        assertEquals(interleaveStream, interleaveCursor);
+    }
+
+    private static double bestFromStream(Neighborhood<TestMove, TestSolution, TestInstance> neighborhood, TestSolution solution) {
+        return neighborhood.explore(solution).moves().mapToDouble(TestMove::getScoreChange).min().orElse(Double.NaN);
+    }
+
+    private static double bestFromCursor(Neighborhood<TestMove, TestSolution, TestInstance> neighborhood, TestSolution solution) {
+        var cursor = neighborhood.cursor(solution);
+        double best = Double.NaN;
+        TestMove move;
+        while ((move = cursor.next()) != null) {
+            double score = move.getScoreChange();
+            if (Double.isNaN(best) || score < best) {
+                best = score;
+            }
+        }
+        return best;
+    }
+
+    private static double report(String neighborhood, String mode, int totalMoves, BenchmarkTask task) {
+        double result = task.run();
+        double blackhole = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            blackhole += task.run();
+        }
+        long[] times = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            blackhole += task.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        double median = times[ROUNDS / 2];
+        System.out.printf("%-12s %-8s %12.3f    (%s)%n", neighborhood, mode, median / totalMoves, blackhole);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface BenchmarkTask {
+        double run();
+    }
+}
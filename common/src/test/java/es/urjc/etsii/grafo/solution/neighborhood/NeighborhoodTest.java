@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unchecked")
@@ -74,6 +78,102 @@ public class NeighborhoodTest {
         verifyMoveOrder(neighborhood.explore(solution), 1,4,7,9,13,2,5,8,10,3,6,11,12);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void cursorOrder(){
+        var neighborhoods = new Neighborhood[]{
+                NeighTestHelper.neighborhood(solution, 1, 2, 3),
+                NeighTestHelper.neighborhood(solution, 4, 5, 6),
+                NeighTestHelper.neighborhood(solution),
+                NeighTestHelper.neighborhood(solution, 7, 8),
+                NeighTestHelper.neighborhood(solution, 9, 10, 11, 12),
+                NeighTestHelper.neighborhood(solution, 13),
+        };
+
+        var concat = Neighborhood.concat(neighborhoods);
+        Assertions.assertTrue(concat.hasNativeCursor());
+        verifyMoveOrder(concat.cursor(solution), 1,2,3,4,5,6,7,8,9,10,11,12,13);
+
+        var interleaved = Neighborhood.interleave(neighborhoods);
+        Assertions.assertTrue(interleaved.hasNativeCursor());
+        verifyMoveOrder(interleaved.cursor(solution), 1,4,7,9,13,2,5,8,10,3,6,11,12);
+
+        verifyMoveOrder(Neighborhood.interleave(concat, interleaved).cursor(solution), 1,1,2,4,3,7,4,9,5,13,6,2,7,5,8,8,9,10,10,3,11,6,12,11,13,12);
+        verifyMoveOrder(Neighborhood.<TestMove, TestSolution, TestInstance>empty().cursor(solution));
+        verifyMoveOrder(Neighborhood.<TestMove, TestSolution, TestInstance>concat().cursor(solution));
+        verifyMoveOrder(Neighborhood.<TestMove, TestSolution, TestInstance>interleave().cursor(solution));
+    }
+
+    @Test
+    public void cursorExploresLazily(){
+        var explored = new AtomicInteger();
+        var neighA = NeighTestHelper.neighborhood(solution, 1, 2);
+        Neighborhood<TestMove, TestSolution, TestInstance> neighB = new Neighborhood<>() {
+            @Override
+            public ExploreResult<TestMove, TestSolution, TestInstance> explore(TestSolution solution) {
+                explored.incrementAndGet();
+                return ExploreResult.fromList(List.of(new TestMove(solution, 3)));
+            }
+        };
+
+        var concatCursor = Neighborhood.concat(neighA, neighB).cursor(solution);
+        Assertions.assertEquals(1, concatCursor.next().getScoreChange());
+        Assertions.assertEquals(2, concatCursor.next().getScoreChange());
+        Assertions.assertEquals(0, explored.get());
+        Assertions.assertEquals(3, concatCursor.next().getScoreChange());
+        Assertions.assertEquals(1, explored.get());
+        Assertions.assertNull(concatCursor.next());
+
+        var interleavedCursor = Neighborhood.interleave(neighA, neighB).cursor(solution);
+        Assertions.assertEquals(1, interleavedCursor.next().getScoreChange());
+        Assertions.assertEquals(1, explored.get());
+    }
+
+    @Test
+    public void cursorMatchesStream(){
+        var random = new Random(1234);
+        for (int round = 0; round < 20; round++) {
+            var children = new Neighborhood[1 + random.nextInt(8)];
+            for (int i = 0; i < children.length; i++) {
+                var moves = new TestMove[random.nextInt(20)];
+                for (int j = 0; j < moves.length; j++) {
+                    moves[j] = new TestMove(solution, random.nextInt(100));
+                }
+                children[i] = NeighTestHelper.neighborhood(moves);
+            }
+            Neighborhood<TestMove, TestSolution, TestInstance> concat = Neighborhood.concat(children);
+            Neighborhood<TestMove, TestSolution, TestInstance> interleaved = Neighborhood.interleave(children);
+            verifySameMoves(concat);
+            verifySameMoves(interleaved);
+            verifySameMoves(Neighborhood.concat(interleaved, concat));
+            verifySameMoves(Neighborhood.interleave(concat, interleaved));
+        }
+    }
+
+    private void verifySameMoves(Neighborhood<TestMove, TestSolution, TestInstance> neighborhood){
+        var fromStream = neighborhood.explore(solution).moves().toList();
+        var fromCursor = new ArrayList<TestMove>();
+        var cursor = neighborhood.cursor(solution);
+        TestMove move;
+        while ((move = cursor.next()) != null) {
+            fromCursor.add(move);
+        }
+        Assertions.assertEquals(fromStream.size(), fromCursor.size());
+        for (int i = 0; i < fromStream.size(); i++) {
+            Assertions.assertSame(fromStream.get(i), fromCursor.get(i), "Different move at position " + i);
+        }
+    }
+
+    private void verifyMoveOrder(MoveCursor<TestMove> cursor, double... expectedValues){
+        var values = new ArrayList<Double>();
+        TestMove move;
+        while ((move = cursor.next()) != null) {
+            values.add(move.getScoreChange());
+        }
+        Assertions.assertArrayEquals(expectedValues, values.stream().mapToDouble(Double::doubleValue).toArray());
+        Assertions.assertNull(cursor.next());
+    }
+
     private void verifyMoveOrder(ExploreResult<TestMove,TestSolution,TestInstance> exploreResult, double... expectedValues){
         Stream<TestMove> moves = exploreResult.moves();
         double[] values = moves.mapToDouble(TestMove::getScoreChange).toArray();
@@ -0,0 +1,54 @@
+package es.urjc.etsii.grafo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyUtilTest {
+
+    @Test
+    void cpuPermitHeldWhileRunning() {
+        var permits = new Semaphore(2);
+        int result = ConcurrencyUtil.withCpuPermit(permits, () -> {
+            assertEquals(1, permits.availablePermits());
+            return 7;
+        });
+        assertEquals(7, result);
+        assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    void cpuPermitNotReentrant() {
+        var permits = new Semaphore(2);
+        assertThrows(IllegalStateException.class, () -> ConcurrencyUtil.withCpuPermit(permits, () -> ConcurrencyUtil.withCpuPermit(permits, () -> 1)));
+        assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    void cpuPermitReleasedOnException() {
+        var permits = new Semaphore(1);
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyUtil.withCpuPermit(permits, () -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void blockingGivesBackPermit() {
+        var permits = new Semaphore(1);
+        ConcurrencyUtil.withCpuPermit(permits, () -> {
+            assertEquals(0, permits.availablePermits());
+            ConcurrencyUtil.blocking(() -> assertEquals(1, permits.availablePermits()));
+            assertEquals(0, permits.availablePermits());
+            return null;
+        });
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void blockingWithoutPermit() {
+        assertEquals(3, ConcurrencyUtil.blocking(() -> 3));
+    }
+}
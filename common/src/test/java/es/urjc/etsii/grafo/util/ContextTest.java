@@ -0,0 +1,87 @@
+package es.urjc.etsii.grafo.util;
+
+import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.util.random.RandomType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        // Worker thread started before the caller state is configured, so it cannot inherit it
+        pool = Executors.newSingleThreadExecutor();
+        ConcurrencyUtil.await(pool.submit(() -> {}));
+        TimeControl.remove();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Context.Configurator.setExecutor(null);
+        TimeControl.remove();
+        Metrics.disableMetrics();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void tasksSeeCallerDeadline() {
+        Context.Configurator.setExecutor(pool);
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        assertFalse(ConcurrencyUtil.await(Context.submit(TimeControl::isTimeUp)));
+
+        TimeControl.deadline().cancel();
+        assertTrue(ConcurrencyUtil.await(Context.submit(TimeControl::isTimeUp)));
+        // Worker state is restored after each task
+        assertFalse(ConcurrencyUtil.await(pool.submit(TimeControl::isTimeUp)));
+    }
+
+    @Test
+    void tasksUseCallerMetrics() {
+        Metrics.enableMetrics();
+        Metrics.resetMetrics();
+        var metrics = Metrics.getCurrentThreadMetrics();
+        Context.Configurator.setExecutor(pool);
+        assertSame(metrics, ConcurrencyUtil.await(Context.submit(Metrics::getCurrentThreadMetricsOrNull)));
+        assertNull(ConcurrencyUtil.await(pool.submit(Metrics::getCurrentThreadMetricsOrNull)));
+    }
+
+    @Test
+    void taskRandomIndependentOfExecutor() {
+        var inline = randomNumbers(null);
+        var pooled = randomNumbers(pool);
+        var pooledAgain = randomNumbers(pool);
+        assertEquals(inline, pooled);
+        assertEquals(inline, pooledAgain);
+        // Tasks do not share the caller random generator
+        assertEquals(11, inline.stream().distinct().count());
+    }
+
+    private List<Integer> randomNumbers(ExecutorService executor) {
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 1234);
+        Context.Configurator.setExecutor(executor);
+        var futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(Context.submit(() -> Context.getRandom().nextInt()));
+        }
+        var numbers = new ArrayList<Integer>();
+        for (var f : futures) {
+            numbers.add(ConcurrencyUtil.await(f));
+        }
+        // Caller random state does not depend on where tasks run
+        numbers.add(Context.getRandom().nextInt());
+        return numbers;
+    }
+}
@@ -1,9 +1,11 @@
 package es.urjc.etsii.grafo.util;
 
+import es.urjc.etsii.grafo.util.random.RandomType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,4 +42,78 @@ class TimeControlTest {
         TimeControl.remove();
         assertFalse(TimeControl.isEnabled());
     }
-}
\ No newline at end of file
+
+    @Test
+    void deadlineExpiredByTimer(){
+        var deadline = TimeControl.deadline();
+        assertFalse(deadline.isExpired());
+        TimeControl.setMaxExecutionTime(20, TimeUnit.MILLISECONDS);
+        TimeControl.start();
+        assertFalse(deadline.isExpired());
+        // Do not call remaining or isTimeUp, the flag must be set by the timer thread
+        long limit = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!deadline.isExpired() && System.nanoTime() < limit) {
+            Thread.onSpinWait();
+        }
+        assertTrue(deadline.isExpired());
+
+        // Restarting clears the flag, and stale expirations are ignored
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        assertFalse(deadline.isExpired());
+        ConcurrencyUtil.sleep(30, TimeUnit.MILLISECONDS);
+        assertFalse(TimeControl.isTimeUp());
+    }
+
+    @Test
+    void deadlineSharedWithChildThreads() throws InterruptedException {
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        var parent = TimeControl.deadline();
+        var child = new TimeControl.Deadline[1];
+        var thread = new Thread(() -> child[0] = TimeControl.deadline());
+        thread.start();
+        thread.join();
+        assertSame(parent, child[0]);
+    }
+
+    @Test
+    void cancelledDeadlineStaysExpired(){
+        var deadline = TimeControl.deadline();
+        assertFalse(TimeControl.isTimeUp());
+        // Cancellation works even if time control is not enabled
+        deadline.cancel();
+        assertTrue(deadline.isCancelled());
+        assertTrue(TimeControl.isTimeUp());
+
+        // Restarting does not undo cancellation
+        TimeControl.setMaxExecutionTime(1, TimeUnit.MINUTES);
+        TimeControl.start();
+        assertTrue(TimeControl.isTimeUp());
+
+        // A new deadline is not cancelled
+        TimeControl.remove();
+        assertFalse(TimeControl.isTimeUp());
+    }
+
+    @Test
+    void removeCancelsExpiration(){
+        int pending = TimeControl.timer().getQueue().size();
+        TimeControl.setMaxExecutionTime(1, TimeUnit.HOURS);
+        TimeControl.start();
+        assertEquals(pending + 1, TimeControl.timer().getQueue().size());
+        TimeControl.remove();
+        assertEquals(pending, TimeControl.timer().getQueue().size());
+    }
+
+    @Test
+    void timerThreadDoesNotInheritContext() throws InterruptedException {
+        Context.Configurator.resetRandom(RandomType.DEFAULT, 1234);
+        var expected = ((RandomGenerator.JumpableGenerator) Context.getRandom()).copy();
+        var thread = TimeControl.timer().getThreadFactory().newThread(() -> {});
+        thread.start();
+        thread.join();
+        // Creating the timer thread does not consume the random state of the thread that creates it
+        assertEquals(expected.nextLong(), Context.getRandom().nextLong());
+    }
+}
@@ -0,0 +1,51 @@
+package es.urjc.etsii.grafo.util.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+class LongHashSetTest {
+
+    @Test
+    void addContains(){
+        var set = new LongHashSet();
+        Assertions.assertTrue(set.isEmpty());
+        Assertions.assertTrue(set.add(5));
+        Assertions.assertFalse(set.add(5));
+        Assertions.assertTrue(set.add(-5));
+        Assertions.assertTrue(set.contains(5));
+        Assertions.assertTrue(set.contains(-5));
+        Assertions.assertFalse(set.contains(6));
+        Assertions.assertEquals(2, set.size());
+    }
+
+    @Test
+    void reservedValue(){
+        var set = new LongHashSet();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> set.add(Long.MIN_VALUE));
+        Assertions.assertFalse(set.contains(Long.MIN_VALUE));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LongHashSet(-1));
+    }
+
+    @Test
+    void growAndClear(){
+        var set = new LongHashSet(2);
+        var reference = new HashSet<Long>();
+        var r = new Random(0);
+        for (int i = 0; i < 10_000; i++) {
+            long v = r.nextLong(1000);
+            Assertions.assertEquals(reference.add(v), set.add(v));
+        }
+        Assertions.assertEquals(reference.size(), set.size());
+        for (long i = 0; i < 1000; i++) {
+            Assertions.assertEquals(reference.contains(i), set.contains(i));
+        }
+        set.clear();
+        Assertions.assertTrue(set.isEmpty());
+        for (long i = 0; i < 1000; i++) {
+            Assertions.assertFalse(set.contains(i));
+        }
+    }
+}
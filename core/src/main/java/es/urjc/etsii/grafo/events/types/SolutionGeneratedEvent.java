@@ -5,10 +5,9 @@ import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.metrics.MetricsStorage;
 import es.urjc.etsii.grafo.solution.Solution;
 import es.urjc.etsii.grafo.util.Context;
-import es.urjc.etsii.grafo.util.TimeStatsEvent;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 
 import java.lang.ref.SoftReference;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -25,7 +24,7 @@ public class SolutionGeneratedEvent<S extends Solution<S,I>, I extends Instance>
     private final String instanceName;
     private final String algorithmName;
     private final MetricsStorage metrics;
-    private final List<TimeStatsEvent> timeStatsEvents;
+    private final ComponentTimes componentTimes;
     private final boolean success;
     private final String iteration;
     private final String instancePath;
@@ -45,9 +44,9 @@ public class SolutionGeneratedEvent<S extends Solution<S,I>, I extends Instance>
      * @param executionTime   time used to generate this solution
      * @param timeToBest      time needed ot reach the best solution. timeToBest = totalTime - timeSinceLastModification
      * @param metrics         both framework calculated and user defined metrics
-     * @param timeStatsEvents
+     * @param componentTimes  execution time of the algorithm components called while generating this solution
      */
-    public SolutionGeneratedEvent(boolean success, String iteration, String instancePath, S solution, String experimentName, Algorithm<S, I> algorithm, long executionTime, long timeToBest, MetricsStorage metrics, List<TimeStatsEvent> timeStatsEvents) {
+    public SolutionGeneratedEvent(boolean success, String iteration, String instancePath, S solution, String experimentName, Algorithm<S, I> algorithm, long executionTime, long timeToBest, MetricsStorage metrics, ComponentTimes componentTimes) {
         super();
         this.success = success;
         this.iteration = iteration;
@@ -59,7 +58,7 @@ public class SolutionGeneratedEvent<S extends Solution<S,I>, I extends Instance>
         this.timeToBest = timeToBest;
         this.algorithmName = algorithm.getName();
         this.metrics = metrics;
-        this.timeStatsEvents = timeStatsEvents;
+        this.componentTimes = componentTimes;
         if(solution != null){
             this.objectives = Context.evalSolution(solution);
             this.instanceName = solution.getInstance().getId();
@@ -69,6 +68,31 @@ public class SolutionGeneratedEvent<S extends Solution<S,I>, I extends Instance>
         }
     }
 
+    /**
+     * Create a new SolutionGeneratedEvent for a solution that is not available in this process,
+     * for example because it was generated by a different shard.
+     *
+     * @param instanceName    name of the instance used to generate the solution
+     * @param objectives      objective values of the generated solution
+     * @see #SolutionGeneratedEvent(boolean, String, String, Solution, String, Algorithm, long, long, MetricsStorage, ComponentTimes)
+     */
+    public SolutionGeneratedEvent(boolean success, String iteration, String instancePath, String instanceName, Map<String, Double> objectives, String experimentName, Algorithm<S, I> algorithm, long executionTime, long timeToBest, MetricsStorage metrics, ComponentTimes componentTimes) {
+        super();
+        this.success = success;
+        this.iteration = iteration;
+        this.instancePath = instancePath;
+        this.solution = new SoftReference<>(null);
+        this.experimentName = experimentName;
+        this.algorithm = algorithm;
+        this.executionTime = executionTime;
+        this.timeToBest = timeToBest;
+        this.algorithmName = algorithm.getName();
+        this.metrics = metrics;
+        this.componentTimes = componentTimes;
+        this.instanceName = instanceName;
+        this.objectives = objectives;
+    }
+
     /**
      * Which iteration this solution corresponds to
      *
@@ -159,6 +183,14 @@ public class SolutionGeneratedEvent<S extends Solution<S,I>, I extends Instance>
         return metrics;
     }
 
+    /**
+     * Get the execution time of the algorithm components called while generating this solution
+     * @return aggregated component times
+     */
+    public ComponentTimes getComponentTimes() {
+        return componentTimes;
+    }
+
     /**
      * Was the solution generated successfully?
      * @return true if the solution was generated successfully, false otherwise
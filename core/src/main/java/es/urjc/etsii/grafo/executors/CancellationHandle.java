@@ -0,0 +1,70 @@
+package es.urjc.etsii.grafo.executors;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.TimeControl;
+
+/**
+ * Allows cancelling a running work unit from any thread.
+ * Cancellation is cooperative: the deadline of the thread executing the work unit is cancelled,
+ * so {@link TimeControl#isTimeUp()} returns true from then on, and well-behaved algorithms return as soon as possible.
+ *
+ * @param <S> Solution class
+ * @param <I> Instance class
+ */
+public class CancellationHandle<S extends Solution<S, I>, I extends Instance> {
+
+    private final WorkUnit<S, I> workUnit;
+    private final TimeControl.Deadline deadline;
+    private volatile String reason;
+
+    /**
+     * Create a cancellation handle for the given work unit
+     *
+     * @param workUnit work unit being executed
+     * @param deadline deadline used by the thread executing the work unit
+     */
+    public CancellationHandle(WorkUnit<S, I> workUnit, TimeControl.Deadline deadline) {
+        this.workUnit = workUnit;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Request cancellation of the work unit. If the work unit has already been cancelled, the original reason is kept.
+     *
+     * @param reason why the work unit is being cancelled, used for logging
+     */
+    public synchronized void cancel(String reason) {
+        if (this.reason == null) {
+            this.reason = reason;
+        }
+        deadline.cancel();
+    }
+
+    /**
+     * Check if the work unit has been cancelled
+     *
+     * @return true if cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return deadline.isCancelled();
+    }
+
+    /**
+     * Why the work unit was cancelled
+     *
+     * @return reason given when cancelling, or null if not cancelled
+     */
+    public String reason() {
+        return reason;
+    }
+
+    /**
+     * Work unit being executed
+     *
+     * @return work unit
+     */
+    public WorkUnit<S, I> workUnit() {
+        return workUnit;
+    }
+}
@@ -1,6 +1,8 @@
 package es.urjc.etsii.grafo.executors;
 
 import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.config.ExecutorType;
+import es.urjc.etsii.grafo.config.SchedulingPolicy;
 import es.urjc.etsii.grafo.config.SolverConfig;
 import es.urjc.etsii.grafo.events.EventPublisher;
 import es.urjc.etsii.grafo.events.types.AlgorithmProcessingEndedEvent;
@@ -14,6 +16,7 @@ import es.urjc.etsii.grafo.io.Instance;
 import es.urjc.etsii.grafo.io.InstanceManager;
 import es.urjc.etsii.grafo.services.IOManager;
 import es.urjc.etsii.grafo.services.TimeLimitCalculator;
+import es.urjc.etsii.grafo.services.WorkUnitCostEstimator;
 import es.urjc.etsii.grafo.solution.Solution;
 import es.urjc.etsii.grafo.solution.SolutionValidator;
 import es.urjc.etsii.grafo.util.ConcurrencyUtil;
@@ -22,30 +25,61 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
 
 /**
- * Concurrent executor, execute multiple runs in parallel for a given instance-algorithm pair
+ * Concurrent executor, execute multiple runs in parallel for a given instance-algorithm pair.
+ * Work units are submitted lazily: at most {@link SolverConfig#getMaxPendingWorkUnits()} work units are running
+ * or completed but not processed at any given moment, and results are processed in the same order as in the sequential executor.
+ * Work units are started in the same order by default, or most expensive first, see {@link SchedulingPolicy}.
+ * Work units run in a pool of platform threads, or each one in its own virtual thread, see {@link ExecutorType}.
+ * If work units may use several threads each, see {@link SolverConfig#getAlgorithmThreads()}, work units and the tasks they submit
+ * using {@link es.urjc.etsii.grafo.util.Context#submit(Callable)} share a single pool.
  *
  * @param <S> Solution class
  * @param <I> Instance class
  */
-@ConditionalOnExpression(value = "${solver.parallelExecutor}")
+@ConditionalOnExpression(value = "${solver.parallelExecutor} or '${solver.executor:platform}'.equalsIgnoreCase('virtual')")
 public class ConcurrentExecutor<S extends Solution<S, I>, I extends Instance> extends Executor<S, I> {
 
     private static final Logger log = LoggerFactory.getLogger(ConcurrentExecutor.class);
 
     private final int nWorkers;
+    private final int maxPending;
+    private final SchedulingPolicy scheduling;
+    private final ExecutorType executorType;
+    private final Optional<WorkUnitCostEstimator<S, I>> costEstimator;
     private ExecutorService executor;
 
+    /**
+     * Limits how many work units use the CPU at the same time when running in virtual threads, null otherwise
+     */
+    private Semaphore cpuPermits;
+
+    /**
+     * Limits how many work units run at the same time when they share the pool with their own tasks, null otherwise
+     */
+    private Semaphore runningUnits;
+
+    /**
+     * Execution time of previous work units, by (instance, algorithm) pair and by instance, with a null algorithm name.
+     * Only accessed from the thread processing results.
+     */
+    private final Map<RuntimeKey, LongSummaryStatistics> runtimes = new HashMap<>();
+
+    private record RuntimeKey(String instancePath, String algorithmName) {}
+
     /**
      * Create a new ConcurrentExecutor. Do not create executors manually, inject them.
      *
      * @param solverConfig Solver configuration instance
      * @param validator    Solution validator
      * @param io           IOManager
+     * @param costEstimator work unit cost estimator, if implemented by the user
      */
     public ConcurrentExecutor(
             SolverConfig solverConfig,
@@ -54,28 +88,120 @@ public class ConcurrentExecutor<S extends Solution<S, I>, I extends Instance> ex
             IOManager<S, I> io,
             InstanceManager<I> instanceManager,
             List<ExceptionHandler<S,I>> exceptionHandlers,
-            ReferenceResultManager referenceResultManager
+            ReferenceResultManager referenceResultManager,
+            Optional<WorkUnitCostEstimator<S, I>> costEstimator
     ) {
         super(validator, timeLimitCalculator, io, instanceManager, solverConfig, exceptionHandlers, referenceResultManager);
         this.nWorkers = solverConfig.getnWorkers();
+        this.maxPending = solverConfig.getMaxPendingWorkUnits();
+        this.scheduling = solverConfig.getScheduling();
+        this.executorType = solverConfig.getExecutor();
+        this.costEstimator = costEstimator;
     }
 
-    private Map<String, Map<Algorithm<S, I>, List<Future<WorkUnitResult<S, I>>>>> submitAll(Map<String, Map<Algorithm<S, I>, List<WorkUnit<S, I>>>> workUnits) {
-        var result = new LinkedHashMap<String, Map<Algorithm<S, I>, List<Future<WorkUnitResult<S, I>>>>>();
-        for (var e : workUnits.entrySet()) {
-            var perAlgorithm = new LinkedHashMap<Algorithm<S, I>, List<Future<WorkUnitResult<S, I>>>>();
-            for (var algorithmWork : e.getValue().entrySet()) {
-                var algorithm = algorithmWork.getKey();
-                var list = new ArrayList<Future<WorkUnitResult<S, I>>>();
+    private SubmissionWindow<WorkUnitResult<S, I>> submitInOrder(Map<String, Map<Algorithm<S, I>, List<WorkUnit<S, I>>>> workUnits) {
+        var tasks = new ArrayList<Callable<WorkUnitResult<S, I>>>();
+        var costs = new ArrayList<Double>();
+        boolean longestFirst = this.scheduling == SchedulingPolicy.LONGEST_FIRST;
+        double runtimePerLoadTime = longestFirst ? runtimePerLoadTime() : 0;
+        for (var instanceWork : workUnits.entrySet()) {
+            for (var algorithmWork : instanceWork.getValue().entrySet()) {
+                // All repetitions of the same (instance, algorithm) pair have the same cost
+                double cost = longestFirst ? estimateCost(instanceWork.getKey(), algorithmWork.getKey(), runtimePerLoadTime) : 0;
                 for (var workUnit : algorithmWork.getValue()) {
-                    var future = this.executor.submit(() -> doWork(workUnit));
-                    list.add(future);
+                    tasks.add(() -> runWorkUnit(workUnit));
+                    costs.add(cost);
                 }
-                perAlgorithm.put(algorithm, list);
             }
-            result.put(e.getKey(), perAlgorithm);
         }
-        return result;
+        int[] order = longestFirst ?
+                SubmissionWindow.largestFirst(withUnknownCosts(costs)) :
+                IntStream.range(0, tasks.size()).toArray();
+        return new SubmissionWindow<>(this.executor, tasks, order, this.maxPending, this.runningUnits);
+    }
+
+    /**
+     * Replace unknown costs by the average known cost, so work units without any estimate are started
+     * after the most expensive ones and before the cheapest ones. If no cost is known, all are 0, keeping the original order.
+     *
+     * @param costs estimated costs, NaN if unknown
+     * @return costs without unknown values
+     */
+    private static double[] withUnknownCosts(List<Double> costs) {
+        double average = costs.stream().mapToDouble(Double::doubleValue).filter(c -> !Double.isNaN(c)).average().orElse(0);
+        return costs.stream().mapToDouble(c -> Double.isNaN(c) ? average : c).toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Iterator<WorkUnitResult<S, I>> solveInOrder(Map<String, Map<Algorithm<S, I>, List<WorkUnit<S, I>>>> workUnits) {
+        return submitInOrder(workUnits);
+    }
+
+    private WorkUnitResult<S, I> runWorkUnit(WorkUnit<S, I> workUnit) {
+        if (this.cpuPermits == null) {
+            return doWork(workUnit);
+        }
+        return ConcurrencyUtil.withCpuPermit(this.cpuPermits, () -> doWork(workUnit));
+    }
+
+    /**
+     * Estimate the cost of solving the given instance with the given algorithm.
+     * Uses the user provided {@link WorkUnitCostEstimator} if available, for every work unit.
+     * If not, every estimate is an execution time in nanoseconds, so all of them are comparable: the average execution time
+     * of previous work units for the same (instance, algorithm) pair, then for the same instance, and finally
+     * the instance load time scaled by the observed execution time per nanosecond of load time.
+     * Instances are never loaded to estimate their cost, only the load time of instances already loaded is used.
+     *
+     * @param instancePath       instance path
+     * @param algorithm          algorithm
+     * @param runtimePerLoadTime execution time per nanosecond of load time, see {@link #runtimePerLoadTime()}
+     * @return estimated cost, greater values are started first, or NaN if there is no information about the instance
+     */
+    protected double estimateCost(String instancePath, Algorithm<S, I> algorithm, double runtimePerLoadTime) {
+        if (this.costEstimator.isPresent()) {
+            return this.costEstimator.get().estimateCost(this.instanceManager.getInstance(instancePath), algorithm);
+        }
+        var pairStats = this.runtimes.get(new RuntimeKey(instancePath, algorithm.getName()));
+        if (pairStats != null) {
+            return pairStats.getAverage();
+        }
+        var instanceStats = this.runtimes.get(new RuntimeKey(instancePath, null));
+        if (instanceStats != null) {
+            return instanceStats.getAverage();
+        }
+        var loadTime = this.instanceManager.getLoadTime(instancePath);
+        return loadTime.isPresent() ? loadTime.getAsLong() * runtimePerLoadTime : Double.NaN;
+    }
+
+    /**
+     * Ratio between the average execution time of the instances solved until now and their load time.
+     *
+     * @return execution time per nanosecond of load time, 1 if no instance has been solved yet
+     */
+    protected double runtimePerLoadTime() {
+        double totalRuntime = 0, totalLoadTime = 0;
+        for (var e : this.runtimes.entrySet()) {
+            if (e.getKey().algorithmName() != null) {
+                continue;
+            }
+            var loadTime = this.instanceManager.getLoadTime(e.getKey().instancePath());
+            if (loadTime.isPresent() && loadTime.getAsLong() > 0) {
+                totalRuntime += e.getValue().getAverage();
+                totalLoadTime += loadTime.getAsLong();
+            }
+        }
+        return totalLoadTime > 0 ? totalRuntime / totalLoadTime : 1;
+    }
+
+    private void recordRuntime(WorkUnitResult<S, I> r) {
+        if (!r.success()) {
+            return;
+        }
+        this.runtimes.computeIfAbsent(new RuntimeKey(r.instancePath(), r.algorithm().getName()), k -> new LongSummaryStatistics()).accept(r.executionTime());
+        this.runtimes.computeIfAbsent(new RuntimeKey(r.instancePath(), null), k -> new LongSummaryStatistics()).accept(r.executionTime());
     }
 
     /**
@@ -90,12 +216,12 @@ public class ConcurrentExecutor<S extends Solution<S, I>, I extends Instance> ex
         var events = EventPublisher.getInstance();
 
         try (var pb = getGlobalSolvingProgressBar(experimentName, workUnits)) {
-            // Launch execution of all work units in parallel
-            var futures = submitAll(workUnits);
+            // Launch work units in parallel, at most maxPending at the same time
+            var window = submitInOrder(workUnits);
 
-            // Simulate sequential execution to trigger all events in correct order
+            // Simulate sequential execution to trigger all events in correct order, results are retrieved in submission order
             // K: Instance name --> V: List of WorkUnits
-            for (var e : futures.entrySet()) {
+            for (var e : workUnits.entrySet()) {
                 WorkUnitResult<S, I> instanceBest = null;
                 var instancePath = e.getKey();
                 var instanceName = instanceName(instancePath);
@@ -110,8 +236,10 @@ public class ConcurrentExecutor<S extends Solution<S, I>, I extends Instance> ex
                     events.publishEvent(new AlgorithmProcessingStartedEvent<>(experimentName, instanceName, algorithm, solverConfig.getRepetitions()));
                     log.debug("Running algorithm {} for instance {}", algorithm.getName(), instanceName);
                     for (var workUnit : algorithmWork.getValue()) {
-                        var workUnitResult = ConcurrencyUtil.await(workUnit);
+                        var workUnitResult = window.next();
+                        assert workUnitResult.instancePath().equals(workUnit.instancePath()) && workUnitResult.algorithm() == workUnit.algorithm() : "Work unit results out of order";
                         this.processWorkUnitResult(workUnitResult, pb);
+                        recordRuntime(workUnitResult);
                         if (improves(workUnitResult, algorithmBest)) {
                             algorithmBest = workUnitResult;
                         }
@@ -131,13 +259,37 @@ public class ConcurrentExecutor<S extends Solution<S, I>, I extends Instance> ex
                 events.publishEvent(new InstanceProcessingEndedEvent(experimentName, instanceName, totalInstanceTime, startTimestamp));
             }
         }
+        logSkipped();
 
     }
 
     @Override
     public void startup() {
-        this.executor = Executors.newFixedThreadPool(this.nWorkers);
-        log.debug("Allocating threadpool with {} workers", this.nWorkers);
+        if (this.nWorkers < 1) {
+            throw new IllegalArgumentException("Number of workers must be at least 1, got %s. Set solver.nWorkers explicitly if the automatic value, availableProcessors / 2, is 0".formatted(this.nWorkers));
+        }
+        int algorithmThreads = solverConfig.getAlgorithmThreads();
+        // Must be created before any worker thread, so they inherit it
+        var pool = algorithmThreads > 1 ? startSharedPool(this.nWorkers * algorithmThreads) : null;
+        this.cpuPermits = null;
+        this.runningUnits = null;
+        if (this.executorType == ExecutorType.VIRTUAL) {
+            // Virtual threads inherit the context of the thread submitting work units, as platform threads do.
+            // Permits are granted in FIFO order, so work units start in submission order
+            this.executor = Executors.newVirtualThreadPerTaskExecutor();
+            this.cpuPermits = new Semaphore(this.nWorkers, true);
+        } else if (pool != null) {
+            // Work units and their tasks share the same pool, at most nWorkers work units run at the same time
+            this.executor = pool;
+            this.runningUnits = new Semaphore(this.nWorkers);
+        } else {
+            this.executor = switch (this.scheduling) {
+                case ORDERED -> Executors.newFixedThreadPool(this.nWorkers);
+                case LONGEST_FIRST -> Executors.newWorkStealingPool(this.nWorkers);
+            };
+        }
+        log.debug("Allocating {} executor with {} workers, {} threads per work unit, at most {} pending work units, scheduling {}", this.executorType, this.nWorkers, algorithmThreads, this.maxPending, this.scheduling);
+        startGlobalTimeLimit();
     }
 
     /**
@@ -146,6 +298,11 @@ public class ConcurrentExecutor<S extends Solution<S, I>, I extends Instance> ex
     @Override
     public void shutdown() {
         log.debug("Requesting threadpool shutdown");
-        this.executor.shutdown();
+        // Null if startup failed
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+        stopGlobalTimeLimit();
+        stopSharedPool();
     }
 }
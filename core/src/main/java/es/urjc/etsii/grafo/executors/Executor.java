@@ -4,7 +4,11 @@ import es.urjc.etsii.grafo.algorithms.Algorithm;
 import es.urjc.etsii.grafo.annotations.InheritedComponent;
 import es.urjc.etsii.grafo.config.SolverConfig;
 import es.urjc.etsii.grafo.events.EventPublisher;
+import es.urjc.etsii.grafo.events.types.AlgorithmProcessingEndedEvent;
+import es.urjc.etsii.grafo.events.types.AlgorithmProcessingStartedEvent;
 import es.urjc.etsii.grafo.events.types.ErrorEvent;
+import es.urjc.etsii.grafo.events.types.InstanceProcessingEndedEvent;
+import es.urjc.etsii.grafo.events.types.InstanceProcessingStartedEvent;
 import es.urjc.etsii.grafo.events.types.SolutionGeneratedEvent;
 import es.urjc.etsii.grafo.exception.ExceptionHandler;
 import es.urjc.etsii.grafo.exceptions.DefaultExceptionHandler;
@@ -19,6 +23,7 @@ import es.urjc.etsii.grafo.services.TimeLimitCalculator;
 import es.urjc.etsii.grafo.solution.Objective;
 import es.urjc.etsii.grafo.solution.Solution;
 import es.urjc.etsii.grafo.solution.SolutionValidator;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.TimeControl;
 import es.urjc.etsii.grafo.util.TimeUtil;
@@ -28,8 +33,15 @@ import me.tongfei.progressbar.ProgressBarStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static es.urjc.etsii.grafo.orchestrator.AbstractOrchestrator.decideImplementation;
 import static es.urjc.etsii.grafo.util.TimeUtil.nanosToSecs;
@@ -55,7 +67,27 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
 
     private final ExceptionHandler<S, I> exceptionHandler;
 
+    /**
+     * Work units currently being executed
+     */
+    private final Set<CancellationHandle<S, I>> running = ConcurrentHashMap.newKeySet();
 
+    /**
+     * If not null, every running work unit is cancelled with this reason, and future work units are skipped
+     */
+    private volatile String cancellationReason;
+
+    /**
+     * Number of work units skipped because work was cancelled before they started, see {@link #logSkipped()}
+     */
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private ScheduledExecutorService globalTimer;
+
+    /**
+     * Pool used by algorithms to execute their own tasks using {@link Context#submit(java.util.concurrent.Callable)}, null if not enabled
+     */
+    protected ForkJoinPool sharedPool;
 
     /**
      * If time control is enabled, remove it and check ellapsed time to see if too many time has been spent
@@ -113,6 +145,130 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
      */
     public abstract void shutdown();
 
+    /**
+     * Cooperatively cancel all running work units, and skip any work unit not started yet.
+     * Cancelled algorithms see {@link TimeControl#isTimeUp()} as true and should return as soon as possible,
+     * their results are processed as usual. Skipped work units are reported as failed. Can be called from any thread.
+     *
+     * @param reason why work is being cancelled, used for logging
+     */
+    public void cancelAll(String reason) {
+        synchronized (running) {
+            if (this.cancellationReason == null) {
+                this.cancellationReason = reason;
+                if (running.isEmpty()) {
+                    log.debug("No running work units to cancel: {}", reason);
+                } else {
+                    log.warn("Cancelling {} running work units: {}", running.size(), reason);
+                }
+            }
+            for (var handle : running) {
+                handle.cancel(reason);
+            }
+        }
+    }
+
+    /**
+     * Check if work has been cancelled using {@link #cancelAll(String)}
+     *
+     * @return true if cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return this.cancellationReason != null;
+    }
+
+    /**
+     * Get the handles of the work units being executed right now
+     *
+     * @return unmodifiable snapshot of the running work units
+     */
+    public Set<CancellationHandle<S, I>> getRunning() {
+        return Set.copyOf(running);
+    }
+
+    /**
+     * Start counting the global time limit if configured, see {@link SolverConfig#getGlobalTimeLimitMillis()}.
+     * Implementations should call this method when starting up.
+     */
+    protected void startGlobalTimeLimit() {
+        long limit = solverConfig.getGlobalTimeLimitMillis();
+        if (limit <= 0 || globalTimer != null) {
+            return;
+        }
+        globalTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "Executor-global-time-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        globalTimer.schedule(() -> cancelAll("Global time limit of %sms reached".formatted(limit)), limit, TimeUnit.MILLISECONDS);
+        log.debug("Global time limit set to {}ms", limit);
+    }
+
+    /**
+     * Stop counting the global time limit if it was started. Implementations should call this method when shutting down.
+     */
+    protected void stopGlobalTimeLimit() {
+        if (globalTimer != null) {
+            globalTimer.shutdownNow();
+            globalTimer = null;
+        }
+    }
+
+    /**
+     * Create the pool shared by work units to execute their own tasks, and make it available using {@link Context#submit(java.util.concurrent.Callable)}
+     * in the current thread and in any thread created by it from now on.
+     * Implementations should call this method when starting up if {@link SolverConfig#getAlgorithmThreads()} is greater than 1.
+     *
+     * @param parallelism total number of threads in the pool
+     * @return created pool
+     */
+    protected ForkJoinPool startSharedPool(int parallelism) {
+        this.sharedPool = new ForkJoinPool(parallelism, Context.workerThreadFactory(), null, false);
+        Context.Configurator.setExecutor(this.sharedPool);
+        log.debug("Shared pool for algorithm tasks created with {} threads", parallelism);
+        return this.sharedPool;
+    }
+
+    /**
+     * Shutdown the shared pool if it was created. Implementations should call this method when shutting down.
+     */
+    protected void stopSharedPool() {
+        if (this.sharedPool != null) {
+            Context.Configurator.setExecutor(null);
+            this.sharedPool.shutdown();
+            this.sharedPool = null;
+        }
+    }
+
+    private CancellationHandle<S, I> register(WorkUnit<S, I> workUnit) {
+        var handle = new CancellationHandle<>(workUnit, TimeControl.deadline());
+        synchronized (running) {
+            running.add(handle);
+            if (this.cancellationReason != null) {
+                handle.cancel(this.cancellationReason);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Log how many work units have been skipped due to a cancellation since the last call, if any.
+     * Implementations should call this method after executing each experiment.
+     */
+    protected void logSkipped() {
+        int n = skipped.getAndSet(0);
+        if (n > 0) {
+            log.warn("Skipped {} work units not started before cancellation: {}", n, this.cancellationReason);
+        }
+    }
+
+    private void unregister(CancellationHandle<S, I> handle) {
+        running.remove(handle);
+        if (handle.isCancelled()) {
+            log.debug("Work unit cancelled ({}): instance {}, algorithm {}, iteration {}", handle.reason(), handle.workUnit().instancePath(), handle.workUnit().algorithm().getName(), handle.workUnit().i());
+        }
+    }
+
     /**
      * Execute a single iteration for the given (experiment, instance, algorithm, iterationId)
      *
@@ -125,9 +281,22 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
 
         long startTime = UNDEF_TIME, endTime = UNDEF_TIME;
 
+        if (isCancelled()) {
+            // Do not start new work after a cancellation, report it as failed without running the algorithm
+            skipped.incrementAndGet();
+            log.debug("Work unit skipped ({}): instance {}, algorithm {}, iteration {}", this.cancellationReason, workUnit.instancePath(), algorithm.getName(), workUnit.i());
+            return WorkUnitResult.failure(workUnit, instance.getId(), UNDEF_TIME, UNDEF_TIME, new ComponentTimes());
+        }
+
+        // Worker threads may be reused, each work unit gets its own deadline so it can be cancelled independently
+        TimeControl.remove();
+        var handle = register(workUnit);
         try {
             // Preparate current work unit
             Context.Configurator.resetRandom(solverConfig, workUnit.i());
+            if (this.sharedPool != null) {
+                Context.Configurator.setExecutor(this.sharedPool);
+            }
             if (this.timeLimitCalculator.isPresent()) {
                 long maxDuration = this.timeLimitCalculator.get().timeLimitInMillis(instance, algorithm);
                 TimeControl.setMaxExecutionTime(maxDuration, TimeUnit.MILLISECONDS);
@@ -150,7 +319,7 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
 
             long timeToTarget = solution.getLastModifiedTime() - startTime;
             long executionTime = endTime - startTime;
-            var timeData = Context.Configurator.getAndResetTimeEvents();
+            var timeData = Context.Configurator.getAndResetComponentTimes();
             var metrics = Metrics.areMetricsEnabled()? Metrics.getCurrentThreadMetrics() : null;
             return WorkUnitResult.ok(workUnit, instance.getId(), solution, executionTime, timeToTarget, metrics, timeData);
         } catch (Exception e) {
@@ -163,8 +332,11 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
             }
             exceptionHandler.handleException(workUnit.experimentName(), workUnit.i(), e, Optional.ofNullable(solution), instance, workUnit.algorithm());
             EventPublisher.getInstance().publishEvent(new ErrorEvent(e));
-            var timeData = Context.Configurator.getAndResetTimeEvents();
+            var timeData = Context.Configurator.getAndResetComponentTimes();
             return WorkUnitResult.failure(workUnit, instance.getId(), totalTime, UNDEF_TIME, timeData);
+        } finally {
+            unregister(handle);
+            TimeControl.remove();
         }
     }
 
@@ -227,6 +399,131 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
         return workUnits;
     }
 
+    /**
+     * Count the work units of an experiment
+     *
+     * @param workUnits work units, as returned by {@link #getOrderedWorkUnits(Experiment, List, int)}
+     * @return number of work units
+     */
+    protected static int countWorkUnits(Map<String, ? extends Map<?, ? extends List<?>>> workUnits) {
+        int count = 0;
+        for (var algorithmWork : workUnits.values()) {
+            for (var list : algorithmWork.values()) {
+                count += list.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Solve the given work units, retrieving their results in order.
+     * Default implementation solves each work unit in the calling thread when its result is requested,
+     * executors that solve work units in parallel should override this method.
+     *
+     * @param workUnits work units to solve, results are retrieved in the same order
+     * @return iterator over work unit results
+     */
+    protected Iterator<WorkUnitResult<S, I>> solveInOrder(Map<String, Map<Algorithm<S, I>, List<WorkUnit<S, I>>>> workUnits) {
+        var list = new ArrayList<WorkUnit<S, I>>();
+        for (var algorithmWork : workUnits.values()) {
+            for (var units : algorithmWork.values()) {
+                list.addAll(units);
+            }
+        }
+        return list.stream().map(this::doWork).iterator();
+    }
+
+    /**
+     * Solve the work units of the given experiment assigned to the current shard, see {@link SolverConfig#getShardIndex()},
+     * and store their results so the coordinator can report them. Results are not reported by this process.
+     *
+     * @param experiment    experiment definition
+     * @param instancePaths instance paths, in the same order as in the coordinator
+     * @param storage       where results are stored
+     */
+    public void executeShard(Experiment<S, I> experiment, List<String> instancePaths, ShardStorage storage) {
+        int shard = solverConfig.getShardIndex(), nShards = solverConfig.getShards();
+        var workUnits = getOrderedWorkUnits(experiment, instancePaths, solverConfig.getRepetitions());
+
+        // Keep the same structure, skipping work units solved by other shards
+        var assigned = new LinkedHashMap<String, Map<Algorithm<S, I>, List<WorkUnit<S, I>>>>();
+        var indexes = new ArrayList<Integer>();
+        int index = 0;
+        for (var instanceWork : workUnits.entrySet()) {
+            for (var algorithmWork : instanceWork.getValue().entrySet()) {
+                for (var workUnit : algorithmWork.getValue()) {
+                    if (ShardStorage.isAssigned(index, shard, nShards)) {
+                        assigned.computeIfAbsent(instanceWork.getKey(), k -> new LinkedHashMap<>())
+                                .computeIfAbsent(algorithmWork.getKey(), k -> new ArrayList<>())
+                                .add(workUnit);
+                        indexes.add(index);
+                    }
+                    index++;
+                }
+            }
+        }
+        log.info("Shard {} of {} solving {} of {} work units", shard, nShards, indexes.size(), index);
+
+        try (var writer = storage.writer(experiment.name(), shard); var pb = getGlobalSolvingProgressBar(experiment.name(), assigned)) {
+            var results = solveInOrder(assigned);
+            for (int i : indexes) {
+                var r = results.next();
+                pb.step();
+                if (r.success()) {
+                    io.exportSolution(r, SolutionExportFrequency.ALL);
+                }
+                writer.write(ShardResult.of(i, r));
+            }
+            writer.complete();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Report the results of an experiment solved by shards, triggering the same events in the same order
+     * as if the experiment had been solved by this executor.
+     * Solutions are not available, so the best solutions per instance and per algorithm are not exported,
+     * and the reported instance processing time is the sum of the execution times of its work units.
+     *
+     * @param experiment     experiment definition
+     * @param instancePaths  instance paths, in the same order used by the shards
+     * @param startTimestamp experiment start time, as UNIX timestamp
+     * @param results        results of every work unit, in order, see {@link ShardStorage#merge(String, int, int)}
+     */
+    public void reportShardResults(Experiment<S, I> experiment, List<String> instancePaths, long startTimestamp, List<ShardResult> results) {
+        var events = EventPublisher.getInstance();
+        var experimentName = experiment.name();
+        var workUnits = getOrderedWorkUnits(experiment, instancePaths, solverConfig.getRepetitions());
+        if (countWorkUnits(workUnits) != results.size()) {
+            throw new IllegalArgumentException("Expected %s results for experiment %s, got %s".formatted(countWorkUnits(workUnits), experimentName, results.size()));
+        }
+
+        var it = results.iterator();
+        for (var instanceWork : workUnits.entrySet()) {
+            var instanceName = instanceName(instanceWork.getKey());
+            long totalInstanceTime = 0;
+            var refValues = referenceResultManager.getRefValueForAllObjectives(instanceName, false);
+            events.publishEvent(new InstanceProcessingStartedEvent(experimentName, instanceName, experiment.algorithms(), solverConfig.getRepetitions(), refValues));
+            for (var algorithmWork : instanceWork.getValue().entrySet()) {
+                var algorithm = algorithmWork.getKey();
+                events.publishEvent(new AlgorithmProcessingStartedEvent<>(experimentName, instanceName, algorithm, solverConfig.getRepetitions()));
+                for (var workUnit : algorithmWork.getValue()) {
+                    var r = it.next();
+                    if (!r.instancePath().equals(workUnit.instancePath()) || !r.algorithmName().equals(algorithm.getName())) {
+                        throw new IllegalStateException("Shard result %s does not match work unit (%s, %s), were all shards launched with the same configuration?".formatted(r.index(), workUnit.instancePath(), algorithm.getName()));
+                    }
+                    if (r.executionTime() > 0) {
+                        totalInstanceTime += r.executionTime();
+                    }
+                    events.publishEvent(new SolutionGeneratedEvent<>(r.success(), r.iteration(), r.instancePath(), r.instanceName(), r.objectives(), experimentName, algorithm, r.executionTime(), r.timeToTarget(), null, new ComponentTimes()));
+                }
+                events.publishEvent(new AlgorithmProcessingEndedEvent<>(experimentName, instanceName, algorithm, solverConfig.getRepetitions()));
+            }
+            events.publishEvent(new InstanceProcessingEndedEvent(experimentName, instanceName, totalInstanceTime, startTimestamp));
+        }
+    }
+
     protected boolean improves(WorkUnitResult<S, I> candidate, WorkUnitResult<S, I> best) {
         if (candidate == null) {
             throw new IllegalArgumentException("Null candidate");
@@ -256,14 +553,8 @@ public abstract class Executor<S extends Solution<S, I>, I extends Instance> {
     }
 
     public ProgressBar getGlobalSolvingProgressBar(String expName, Map<String, Map<Algorithm<S, I>, List<WorkUnit<S, I>>>> workUnits) {
-        int totalUnits = 0;
-        for (var v1 : workUnits.values()) {
-            for (var v2 : v1.values()) {
-                totalUnits += v2.size();
-            }
-        }
         return getPBarBuilder(expName)
-                .setInitialMax(totalUnits)
+                .setInitialMax(countWorkUnits(workUnits))
                 .build();
     }
 }
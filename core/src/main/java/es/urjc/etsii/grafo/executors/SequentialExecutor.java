@@ -28,7 +28,7 @@ import java.util.Optional;
  * @param <S> Solution class
  * @param <I> Instance class
  */
-@ConditionalOnExpression(value = "!${solver.parallelExecutor}")
+@ConditionalOnExpression(value = "!${solver.parallelExecutor} and !'${solver.executor:platform}'.equalsIgnoreCase('virtual')")
 public class SequentialExecutor<S extends Solution<S, I>, I extends Instance> extends Executor<S, I> {
 
     private static final Logger logger = LoggerFactory.getLogger(SequentialExecutor.class);
@@ -99,12 +99,18 @@ public class SequentialExecutor<S extends Solution<S, I>, I extends Instance> ex
                 events.publishEvent(new InstanceProcessingEndedEvent(experimentName, instanceName, totalInstanceTime, startTimestamp));
             }
         }
+        logSkipped();
 
     }
 
     @Override
     public void startup() {
-        // Do nothing, as experiments run in the main thread, just return
+        // Experiments run in the main thread, algorithms may use their own threads if configured
+        int algorithmThreads = solverConfig.getAlgorithmThreads();
+        if (algorithmThreads > 1) {
+            startSharedPool(algorithmThreads);
+        }
+        startGlobalTimeLimit();
     }
 
     /**
@@ -112,6 +118,7 @@ public class SequentialExecutor<S extends Solution<S, I>, I extends Instance> ex
      */
     @Override
     public void shutdown() {
-        // Do nothing, as experiments run in the main thread, just return
+        stopGlobalTimeLimit();
+        stopSharedPool();
     }
 }
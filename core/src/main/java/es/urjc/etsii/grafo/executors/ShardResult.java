@@ -0,0 +1,40 @@
+package es.urjc.etsii.grafo.executors;
+
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Solution;
+import es.urjc.etsii.grafo.util.Context;
+
+import java.util.Map;
+
+/**
+ * Result of a work unit solved by a shard, with the data needed by the coordinator to report it.
+ * Solutions, metrics and time stats are not transferred.
+ *
+ * @param index          position of the work unit in the experiment, see {@link Executor#getOrderedWorkUnits}
+ * @param success        true if the work unit ended successfully, false otherwise
+ * @param experimentName experiment name
+ * @param instancePath   instance path
+ * @param instanceName   instance name, or "Unknown" if no solution was generated
+ * @param algorithmName  name of the algorithm used to solve the work unit
+ * @param iteration      work unit iteration
+ * @param objectives     objective values of the generated solution, empty if no solution was generated
+ * @param executionTime  execution time in nanoseconds
+ * @param timeToTarget   time to best in nanoseconds
+ */
+public record ShardResult(int index, boolean success, String experimentName, String instancePath, String instanceName, String algorithmName, String iteration, Map<String, Double> objectives, long executionTime, long timeToTarget) {
+
+    /**
+     * Extract the data reported by the coordinator from a work unit result
+     *
+     * @param index position of the work unit in the experiment
+     * @param r     work unit result
+     * @return shard result
+     */
+    public static <S extends Solution<S, I>, I extends Instance> ShardResult of(int index, WorkUnitResult<S, I> r) {
+        // Same values as the ones calculated by SolutionGeneratedEvent
+        var solution = r.solution();
+        String instanceName = solution == null ? "Unknown" : solution.getInstance().getId();
+        Map<String, Double> objectives = solution == null ? Map.of() : Context.evalSolution(solution);
+        return new ShardResult(index, r.success(), r.experimentName(), r.instancePath(), instanceName, r.algorithm().getName(), r.iteration(), objectives, r.executionTime(), r.timeToTarget());
+    }
+}
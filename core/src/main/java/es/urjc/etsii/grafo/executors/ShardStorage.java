@@ -0,0 +1,252 @@
+package es.urjc.etsii.grafo.executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.urjc.etsii.grafo.util.IOUtil;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the results of each shard in a folder shared by all processes, and merges them back in work unit order.
+ * Each shard writes the results of each experiment to its own file, one JSON object per line.
+ * Files are written with a temporary name, and renamed when the shard finishes the experiment,
+ * so results are only visible to the coordinator when complete.
+ * The first line of each file contains the run id, files written by a different run are ignored.
+ */
+public class ShardStorage {
+
+    private static final String EXTENSION = ".jsonl";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String RUN_ID = "runId";
+
+    private final Path folder;
+    private final String runId;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Create a new shard storage
+     *
+     * @param folder folder where results are stored, must be shared by all processes
+     * @param runId  identifies the current execution, must be the same in all processes
+     */
+    public ShardStorage(String folder, String runId) {
+        if (runId == null || runId.isBlank()) {
+            throw new IllegalArgumentException("Shard run id cannot be empty");
+        }
+        this.folder = Path.of(folder);
+        this.runId = runId;
+    }
+
+    /**
+     * Decide if a work unit is solved by the given shard. Work units are assigned round-robin,
+     * so repetitions of the same (instance, algorithm) pair are spread among all shards.
+     *
+     * @param index   position of the work unit in the experiment
+     * @param shard   shard index
+     * @param nShards number of shards
+     * @return true if the work unit is solved by the given shard, false otherwise
+     */
+    public static boolean isAssigned(int index, int shard, int nShards) {
+        return index % nShards == shard;
+    }
+
+    /**
+     * Path to the results of the given shard for the given experiment
+     *
+     * @param experimentName experiment name
+     * @param shard          shard index
+     * @return path to the results file, which may not exist yet
+     */
+    public Path resultsFile(String experimentName, int shard) {
+        return folder.resolve(experimentName).resolve("shard-" + shard + EXTENSION);
+    }
+
+    /**
+     * Check if every shard has finished the given experiment in the current run
+     *
+     * @param experimentName experiment name
+     * @param nShards        number of shards
+     * @return true if all results files exist and belong to the current run, false otherwise
+     */
+    public boolean isComplete(String experimentName, int nShards) {
+        for (int i = 0; i < nShards; i++) {
+            var file = resultsFile(experimentName, i);
+            if (!Files.exists(file) || !runId.equals(readRunId(file))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the run id of a results file
+     *
+     * @param file results file
+     * @return run id, or null if the file is empty or does not start with a run id
+     */
+    private String readRunId(Path file) {
+        try (var reader = Files.newBufferedReader(file)) {
+            var line = reader.readLine();
+            if (line == null || line.isBlank()) {
+                return null;
+            }
+            var id = mapper.readTree(line).get(RUN_ID);
+            return id == null ? null : id.asText();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Delete the results of every shard for the given experiment, if any
+     *
+     * @param experimentName experiment name
+     * @param nShards        number of shards
+     */
+    public void clear(String experimentName, int nShards) {
+        try {
+            for (int i = 0; i < nShards; i++) {
+                var file = resultsFile(experimentName, i);
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(tempFile(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Start writing the results of a shard for the given experiment, replacing any previous results
+     *
+     * @param experimentName experiment name
+     * @param shard          shard index
+     * @return writer, results are only visible after calling {@link ShardWriter#complete()}
+     */
+    public ShardWriter writer(String experimentName, int shard) {
+        var file = resultsFile(experimentName, shard);
+        IOUtil.createFolder(file.getParent().toString());
+        try {
+            return new ShardWriter(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the results of every shard for the given experiment, and merge them in work unit order
+     *
+     * @param experimentName experiment name
+     * @param nShards        number of shards
+     * @param nWorkUnits     total number of work units in the experiment
+     * @return list of results, where the i-th element is the result of the i-th work unit
+     * @throws IllegalStateException if a shard has not finished, belongs to a different run, or any result is missing or duplicated
+     */
+    public List<ShardResult> merge(String experimentName, int nShards, int nWorkUnits) {
+        var results = new ShardResult[nWorkUnits];
+        for (int i = 0; i < nShards; i++) {
+            var file = resultsFile(experimentName, i);
+            if (!Files.exists(file)) {
+                throw new IllegalStateException("Missing results of shard %s for experiment %s, expected file: %s".formatted(i, experimentName, file.toAbsolutePath()));
+            }
+            var fileRunId = readRunId(file);
+            if (!runId.equals(fileRunId)) {
+                throw new IllegalStateException("Results of shard %s for experiment %s belong to run %s, expected run %s, file: %s".formatted(i, experimentName, fileRunId, runId, file.toAbsolutePath()));
+            }
+            try (var lines = Files.lines(file)) {
+                // First line is the run id
+                for (var line : (Iterable<String>) lines.skip(1)::iterator) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    var r = mapper.readValue(line, ShardResult.class);
+                    if (r.index() < 0 || r.index() >= nWorkUnits || !isAssigned(r.index(), i, nShards)) {
+                        throw new IllegalStateException("Shard %s reported a result for work unit %s, which is not assigned to it. Was it launched with a different configuration?".formatted(i, r.index()));
+                    }
+                    if (results[r.index()] != null) {
+                        throw new IllegalStateException("Duplicated result for work unit %s in shard %s".formatted(r.index(), i));
+                    }
+                    results[r.index()] = r;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                throw new IllegalStateException("Missing result for work unit %s in shard %s, experiment %s".formatted(i, i % nShards, experimentName));
+            }
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private static Path tempFile(Path file) {
+        return file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Writes the results of a shard for a given experiment, one per line
+     */
+    public class ShardWriter implements Closeable {
+        private final Path file;
+        private final Path tempFile;
+        private final BufferedWriter writer;
+        private boolean completed = false;
+
+        private ShardWriter(Path file) throws IOException {
+            this.file = file;
+            this.tempFile = tempFile(file);
+            Files.deleteIfExists(file);
+            this.writer = Files.newBufferedWriter(tempFile);
+            writer.write(mapper.writeValueAsString(Map.of(RUN_ID, runId)));
+            writer.newLine();
+        }
+
+        /**
+         * Write a result. Results are flushed immediately, so progress can be inspected while the shard is running.
+         *
+         * @param result shard result
+         */
+        public void write(ShardResult result) {
+            try {
+                writer.write(mapper.writeValueAsString(result));
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Mark all results as written, making them visible to the coordinator when this writer is closed
+         */
+        public void complete() {
+            this.completed = true;
+        }
+
+        /**
+         * Close the writer. Results are published only if {@link #complete()} has been called,
+         * if not, for example because the shard failed, they are kept in a temporary file.
+         *
+         * @throws IOException if the file cannot be closed or renamed
+         */
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            if (completed) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package es.urjc.etsii.grafo.executors;
+
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+
+/**
+ * Submits tasks lazily to an executor, keeping at most a fixed number of tasks submitted but not yet consumed,
+ * either because they are still running or because they have completed but their results have not been retrieved.
+ * Results are retrieved in the same order as tasks are provided, regardless of the order in which they are submitted or complete.
+ * Tasks may be submitted in a different order than results are retrieved, for example to start the most expensive tasks first.
+ * The window size is always respected: when a single slot is left and the task whose result is retrieved next
+ * has not been submitted yet, it is submitted before any other task, so retrieving results never requires exceeding the limit.
+ * Optionally, the number of tasks running at the same time can be limited using a semaphore, acquired before submitting each task
+ * and released when it ends, useful when the executor has more threads than tasks that should run concurrently.
+ * Not thread safe, must be used from a single thread.
+ *
+ * @param <T> task result type
+ */
+class SubmissionWindow<T> implements Iterator<T> {
+
+    private final ExecutorService executor;
+    private final List<? extends Callable<T>> tasks;
+    private final int[] submissionOrder;
+    private final Future<T>[] futures;
+    private final int size;
+    private final Semaphore running;
+    private final boolean[] submitted;
+    private int nextSubmission = 0;
+    private int nextResult = 0;
+    private int pending = 0;
+
+    /**
+     * Create a new submission window where tasks are submitted in the same order as results are retrieved, and submit the first tasks.
+     *
+     * @param executor executor where tasks are submitted
+     * @param tasks    tasks to submit, in the order their results will be retrieved
+     * @param size     maximum number of tasks submitted but not consumed at any given moment
+     */
+    SubmissionWindow(ExecutorService executor, List<? extends Callable<T>> tasks, int size) {
+        this(executor, tasks, IntStream.range(0, tasks.size()).toArray(), size, null);
+    }
+
+    /**
+     * Create a new submission window, and submit the first tasks.
+     *
+     * @param executor        executor where tasks are submitted
+     * @param tasks           tasks to submit, in the order their results will be retrieved
+     * @param submissionOrder permutation of task indexes, in the order tasks should be submitted
+     * @param size            maximum number of tasks submitted but not consumed at any given moment, see class documentation
+     * @param running         if not null, each task holds a permit while running, and tasks are not submitted until a permit is available
+     */
+    @SuppressWarnings("unchecked")
+    SubmissionWindow(ExecutorService executor, List<? extends Callable<T>> tasks, int[] submissionOrder, int size, Semaphore running) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be greater than 0, got " + size);
+        }
+        if (submissionOrder.length != tasks.size()) {
+            throw new IllegalArgumentException("Submission order length (%s) does not match the number of tasks (%s)".formatted(submissionOrder.length, tasks.size()));
+        }
+        this.executor = executor;
+        this.tasks = tasks;
+        this.submissionOrder = submissionOrder;
+        this.futures = new Future[tasks.size()];
+        this.submitted = new boolean[tasks.size()];
+        this.size = size;
+        this.running = running;
+        fill();
+    }
+
+    /**
+     * Calculate a submission order where tasks are sorted by cost, largest first. Ties keep their original order.
+     *
+     * @param costs estimated cost of each task, in the order their results will be retrieved
+     * @return permutation of task indexes
+     */
+    static int[] largestFirst(double[] costs) {
+        return IntStream.range(0, costs.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> costs[i]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private void fill() {
+        while (pending < size && nextResult < futures.length) {
+            if (pending == size - 1 && !submitted[nextResult]) {
+                // Reserve the last slot for the result retrieved next
+                submit(nextResult);
+                continue;
+            }
+            // Skip tasks already submitted out of order
+            while (nextSubmission < submissionOrder.length && submitted[submissionOrder[nextSubmission]]) {
+                nextSubmission++;
+            }
+            if (nextSubmission == submissionOrder.length) {
+                return;
+            }
+            submit(submissionOrder[nextSubmission++]);
+        }
+    }
+
+    private void submit(int index) {
+        submitted[index] = true;
+        var task = tasks.get(index);
+        if (running == null) {
+            futures[index] = executor.submit(task);
+        } else {
+            running.acquireUninterruptibly();
+            futures[index] = executor.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    running.release();
+                }
+            });
+        }
+        pending++;
+    }
+
+    /**
+     * Check if there are results left to retrieve
+     *
+     * @return true if there are pending results, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return nextResult < futures.length;
+    }
+
+    /**
+     * Wait for the next task in order to complete, and submit new tasks to replace it, if any is left.
+     *
+     * @return result of the next task
+     * @throws NoSuchElementException if all results have been retrieved
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("All results have been retrieved");
+        }
+        assert submitted[nextResult] : "Next task should have been submitted when filling the window";
+        T result = ConcurrencyUtil.await(futures[nextResult]);
+        futures[nextResult] = null;
+        nextResult++;
+        pending--;
+        fill();
+        return result;
+    }
+
+    /**
+     * Number of tasks submitted whose results have not been retrieved yet
+     *
+     * @return number of tasks
+     */
+    int pending() {
+        return pending;
+    }
+}
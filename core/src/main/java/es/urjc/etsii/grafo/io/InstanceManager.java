@@ -38,6 +38,7 @@ public class InstanceManager<I extends Instance> {
 
     protected final Map<String, SoftReference<I>> cacheByPath;
     protected final Map<String, List<String>> solveOrderByExperiment;
+    protected final Map<String, Long> loadTimeByPath;
 
 
     /**
@@ -51,6 +52,7 @@ public class InstanceManager<I extends Instance> {
         this.instanceImporter = instanceImporter;
         this.cacheByPath = new ConcurrentHashMap<>();
         this.solveOrderByExperiment = new ConcurrentHashMap<>();
+        this.loadTimeByPath = new ConcurrentHashMap<>();
     }
 
 
@@ -200,6 +202,7 @@ public class InstanceManager<I extends Instance> {
         I instance = this.instanceImporter.importInstance(path);
         long endLoad = System.nanoTime();
         instance.setProperty(Instance.LOAD_TIME_NANOS, endLoad - startLoad);
+        this.loadTimeByPath.put(path, endLoad - startLoad);
         for(var e: instance.customProperties().entrySet()){
             instance.setProperty(e.getKey(), e.getValue());
         }
@@ -209,6 +212,17 @@ public class InstanceManager<I extends Instance> {
         return instance;
     }
 
+    /**
+     * Get the time it took to load an instance, without loading it
+     *
+     * @param path instance path
+     * @return load time in nanoseconds of the latest load, empty if the instance has not been loaded yet
+     */
+    public OptionalLong getLoadTime(String path) {
+        var loadTime = this.loadTimeByPath.get(path);
+        return loadTime == null ? OptionalLong.empty() : OptionalLong.of(loadTime);
+    }
+
     /**
      * Purge instance cache
      */
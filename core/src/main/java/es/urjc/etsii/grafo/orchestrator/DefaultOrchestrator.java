@@ -9,6 +9,7 @@ import es.urjc.etsii.grafo.events.types.ExperimentEndedEvent;
 import es.urjc.etsii.grafo.events.types.ExperimentStartedEvent;
 import es.urjc.etsii.grafo.exception.ResourceLimitException;
 import es.urjc.etsii.grafo.executors.Executor;
+import es.urjc.etsii.grafo.executors.ShardStorage;
 import es.urjc.etsii.grafo.experiment.Experiment;
 import es.urjc.etsii.grafo.experiment.ExperimentManager;
 import es.urjc.etsii.grafo.io.Instance;
@@ -23,6 +24,8 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static es.urjc.etsii.grafo.util.TimeUtil.nanosToSecs;
 
@@ -33,6 +36,7 @@ public class DefaultOrchestrator<S extends Solution<S, I>, I extends Instance> e
 
     private static final Logger log = LoggerFactory.getLogger(DefaultOrchestrator.class);
     public static final int MAX_WORKLOAD = 1_000_000;
+    private static final long SHARD_SHUTDOWN_SECS = 60;
 
     private final BlockConfig blockConfig;
     private final InstanceManager<I> instanceManager;
@@ -41,6 +45,16 @@ public class DefaultOrchestrator<S extends Solution<S, I>, I extends Instance> e
     private final Executor<S, I> executor;
     private final SolverConfig solverConfig;
 
+    /**
+     * Shard results storage, null if sharding is disabled
+     */
+    private final ShardStorage shardStorage;
+
+    /**
+     * Launches shards and waits for their results, null if this process is not a shard coordinator
+     */
+    private final ShardLauncher shardLauncher;
+
     /**
      * <p>Constructor for UserExperimentOrchestrator.</p>
      *
@@ -63,6 +77,22 @@ public class DefaultOrchestrator<S extends Solution<S, I>, I extends Instance> e
         this.experimentManager = experimentManager;
         this.validator = validator;
         this.executor = executor;
+        if (solverConfig.getShards() > 1 || solverConfig.isShardWorker()) {
+            if (solverConfig.getShardIndex() >= solverConfig.getShards()) {
+                throw new IllegalArgumentException("Invalid shard index %s, must be in range [0, %s)".formatted(solverConfig.getShardIndex(), solverConfig.getShards()));
+            }
+            if (solverConfig.getShardRunId().isBlank()) {
+                if (!solverConfig.isShardCoordinator() || !solverConfig.isLaunchShards()) {
+                    throw new IllegalArgumentException("solver.shard-run-id must be set to the same value in the coordinator and every shard when shards are launched manually");
+                }
+                // Passed to the launched shards, so results of previous executions are ignored
+                solverConfig.setShardRunId(UUID.randomUUID().toString());
+            }
+            this.shardStorage = new ShardStorage(solverConfig.getShardFolder(), solverConfig.getShardRunId());
+        } else {
+            this.shardStorage = null;
+        }
+        this.shardLauncher = solverConfig.isShardCoordinator() ? new ShardLauncher(solverConfig, shardStorage) : null;
     }
 
     protected void runBenchmark() {
@@ -95,13 +125,22 @@ public class DefaultOrchestrator<S extends Solution<S, I>, I extends Instance> e
         }
         EventPublisher.getInstance().publishEvent(new ExecutionStartedEvent(Context.getObjectivesW(), new ArrayList<>(experiments.keySet())));
         long startTime = System.nanoTime();
+        boolean completed = false;
         try {
             executor.startup();
+            if (shardLauncher != null) {
+                shardLauncher.launch(new ArrayList<>(experiments.keySet()));
+            }
             for(var experiment : experiments.values()){
                 experimentWrapper(experiment);
             }
+            completed = true;
         } finally {
             executor.shutdown();
+            if (shardLauncher != null) {
+                // Shards stop by themselves after finishing, kill them if something went wrong
+                shardLauncher.shutdown(completed ? SHARD_SHUTDOWN_SECS : 0, TimeUnit.SECONDS);
+            }
             long totalExecutionTime = System.nanoTime() - startTime;
             EventPublisher.getInstance().publishEvent(new ExecutionEndedEvent(totalExecutionTime));
             log.info("Total execution time: {} (s)", nanosToSecs(totalExecutionTime));
@@ -115,8 +154,21 @@ public class DefaultOrchestrator<S extends Solution<S, I>, I extends Instance> e
 
         var instancePaths = instanceManager.getInstanceSolveOrder(experiment.name());
         verifyWorkloadLimit(solverConfig, instancePaths, experiment.algorithms());
+        if (solverConfig.isShardWorker()) {
+            // Results are reported by the coordinator
+            executor.executeShard(experiment, instancePaths, shardStorage);
+            log.info("Finished running experiment: {}", experiment.name());
+            return;
+        }
         EventPublisher.getInstance().publishEvent(new ExperimentStartedEvent(experiment.name(), instancePaths));
-        executor.executeExperiment(experiment, instancePaths, startTimestamp);
+        if (shardLauncher != null) {
+            shardLauncher.await(experiment.name());
+            int nWorkUnits = instancePaths.size() * experiment.algorithms().size() * solverConfig.getRepetitions();
+            var results = shardStorage.merge(experiment.name(), solverConfig.getShards(), nWorkUnits);
+            executor.reportShardResults(experiment, instancePaths, startTimestamp, results);
+        } else {
+            executor.executeExperiment(experiment, instancePaths, startTimestamp);
+        }
         long experimentExecutionTime = System.nanoTime() - startTime;
         EventPublisher.getInstance().publishEvent(new ExperimentEndedEvent(experiment.name(), experimentExecutionTime, startTimestamp));
         log.info("Finished running experiment: {}", experiment.name());
@@ -0,0 +1,150 @@
+package es.urjc.etsii.grafo.orchestrator;
+
+import es.urjc.etsii.grafo.config.SolverConfig;
+import es.urjc.etsii.grafo.executors.ShardStorage;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.IOUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches a local process for each shard, and waits for their results.
+ * Shards are launched using the same command line as the current process, appending the shard index and the run id.
+ * If shards are launched manually, only waits for their results.
+ */
+public class ShardLauncher {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardLauncher.class);
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+    private static final long LOG_INTERVAL_MILLIS = 60_000;
+
+    private final SolverConfig solverConfig;
+    private final ShardStorage storage;
+    private final List<Process> processes = new ArrayList<>();
+
+    /**
+     * Create a new shard launcher
+     *
+     * @param solverConfig solver configuration
+     * @param storage      where shards store their results
+     */
+    public ShardLauncher(SolverConfig solverConfig, ShardStorage storage) {
+        this.solverConfig = solverConfig;
+        this.storage = storage;
+    }
+
+    /**
+     * Build the command line used to launch a shard, based on the command line of the current process
+     *
+     * @param command current command line, executable first
+     * @param shard   shard index
+     * @param runId   run id generated by the coordinator, see {@link SolverConfig#getShardRunId()}
+     * @return command line for the given shard
+     */
+    static List<String> shardCommand(List<String> command, int shard, String runId) {
+        var result = new ArrayList<String>();
+        for (var arg : command) {
+            // Each shard needs its own shard index and web server port, and the run id of the coordinator
+            if (arg.startsWith("--solver.shard-index") || arg.startsWith("--solver.shardIndex") || arg.startsWith("--solver.shard-run-id") || arg.startsWith("--solver.shardRunId") || arg.startsWith("--server.port")) {
+                continue;
+            }
+            result.add(arg);
+        }
+        result.add("--solver.shard-index=" + shard);
+        result.add("--solver.shard-run-id=" + runId);
+        result.add("--server.port=0");
+        return result;
+    }
+
+    /**
+     * Launch every shard if enabled, see {@link SolverConfig#isLaunchShards()}.
+     * Previous results for the given experiments are deleted before launching.
+     *
+     * @param experimentNames names of the experiments the shards will solve
+     */
+    public void launch(List<String> experimentNames) {
+        int nShards = solverConfig.getShards();
+        if (!solverConfig.isLaunchShards()) {
+            log.info("Waiting for {} manually launched shards with run id {}, results folder: {}", nShards, solverConfig.getShardRunId(), Path.of(solverConfig.getShardFolder()).toAbsolutePath());
+            return;
+        }
+        for (var experimentName : experimentNames) {
+            storage.clear(experimentName, nShards);
+        }
+
+        var info = ProcessHandle.current().info();
+        if (info.command().isEmpty() || info.arguments().isEmpty()) {
+            throw new IllegalStateException("Cannot retrieve the command line of the current process, launch shards manually using solver.launch-shards=false");
+        }
+        var command = new ArrayList<String>();
+        command.add(info.command().get());
+        command.addAll(Arrays.asList(info.arguments().get()));
+
+        IOUtil.createFolder(solverConfig.getShardFolder());
+        for (int i = 0; i < nShards; i++) {
+            var logFile = Path.of(solverConfig.getShardFolder(), "shard-" + i + ".log").toFile();
+            var builder = new ProcessBuilder(shardCommand(command, i, solverConfig.getShardRunId()))
+                    .redirectErrorStream(true)
+                    .redirectOutput(logFile);
+            try {
+                processes.add(builder.start());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to launch shard " + i, e);
+            }
+            log.info("Launched shard {} of {}, output redirected to {}", i, nShards, logFile);
+        }
+    }
+
+    /**
+     * Wait until every shard finishes the given experiment
+     *
+     * @param experimentName experiment name
+     * @throws IllegalStateException if any launched shard ends before finishing the experiment
+     */
+    public void await(String experimentName) {
+        int nShards = solverConfig.getShards();
+        long lastLog = System.nanoTime();
+        while (!storage.isComplete(experimentName, nShards)) {
+            for (int i = 0; i < processes.size(); i++) {
+                var process = processes.get(i);
+                if (!process.isAlive() && !storage.isComplete(experimentName, nShards)) {
+                    throw new IllegalStateException("Shard %s ended with exit code %s before finishing experiment %s, check %s".formatted(i, process.exitValue(), experimentName, Path.of(solverConfig.getShardFolder(), "shard-" + i + ".log")));
+                }
+            }
+            if (System.nanoTime() - lastLog > TimeUnit.MILLISECONDS.toNanos(LOG_INTERVAL_MILLIS)) {
+                log.info("Waiting for shards to finish experiment {}", experimentName);
+                lastLog = System.nanoTime();
+            }
+            ConcurrencyUtil.sleep(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Wait for launched shards to end, destroying them if they are still running
+     *
+     * @param timeout maximum time to wait for each shard
+     * @param unit    time unit
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        for (var process : processes) {
+            try {
+                if (!process.waitFor(timeout, unit)) {
+                    log.warn("Shard process {} did not end in time, destroying it", process.pid());
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+            }
+        }
+        processes.clear();
+    }
+}
@@ -3,7 +3,9 @@ package es.urjc.etsii.grafo.services;
 import es.urjc.etsii.grafo.config.SolverConfig;
 import es.urjc.etsii.grafo.metrics.AbstractMetric;
 import es.urjc.etsii.grafo.metrics.DeclaredObjective;
+import es.urjc.etsii.grafo.metrics.MetricRetention;
 import es.urjc.etsii.grafo.metrics.Metrics;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 import es.urjc.etsii.grafo.util.Context;
 import es.urjc.etsii.grafo.util.ReflectionUtil;
 import jakarta.annotation.PostConstruct;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -33,6 +36,7 @@ public class MetricsInitializer {
         } else {
             Metrics.disableMetrics();
         }
+        ComponentTimes.setSamplingPeriod(solverConfig.getTimeStatsSampling());
         // Find all implemented metrics and register them in the metrics manager
         for(var pckg: packages.split(",")){
             var metricsTypes = ReflectionUtil.findTypesBySuper(pckg, AbstractMetric.class);
@@ -45,8 +49,10 @@ public class MetricsInitializer {
         }
 
         // Register all objectives declared by the user
+        long resolution = solverConfig.getMetricsResolutionMillis();
         for(var obj: Context.getObjectives().values()){
-            Metrics.register(obj.getName(), instant -> new DeclaredObjective(obj.getName(), obj.getFMode(), instant));
+            var retention = resolution > 0 ? MetricRetention.monotone(obj.getFMode(), resolution, TimeUnit.MILLISECONDS) : null;
+            Metrics.register(obj.getName(), instant -> new DeclaredObjective(obj.getName(), obj.getFMode(), instant), retention);
         }
     }
 
@@ -4,12 +4,16 @@ import es.urjc.etsii.grafo.events.EventAsyncConfigurer;
 import es.urjc.etsii.grafo.events.EventWebserverConfig;
 import es.urjc.etsii.grafo.events.MorkEventListener;
 import es.urjc.etsii.grafo.events.types.ExecutionEndedEvent;
+import es.urjc.etsii.grafo.executors.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,6 +27,7 @@ public class ShutdownService {
     private final ConfigurableApplicationContext appContext;
     private final EventAsyncConfigurer eventAsyncConfigurer;
     private final boolean stopOnExperimentEnd;
+    private final List<Executor<?, ?>> executors;
 
     /**
      * <p>Constructor for ShutdownService.</p>
@@ -30,11 +35,26 @@ public class ShutdownService {
      * @param appContext a {@link org.springframework.context.ApplicationContext} object.
      * @param eventAsyncConfigurer a {@link EventAsyncConfigurer} object.
      * @param eventWebserverConfig a {@link EventWebserverConfig} object.
+     * @param executors executors whose running work units are cancelled when shutting down
      */
-    public ShutdownService(ApplicationContext appContext, EventAsyncConfigurer eventAsyncConfigurer, EventWebserverConfig eventWebserverConfig) {
+    public ShutdownService(ApplicationContext appContext, EventAsyncConfigurer eventAsyncConfigurer, EventWebserverConfig eventWebserverConfig, List<Executor<?, ?>> executors) {
         this.appContext = (ConfigurableApplicationContext) appContext;
         this.eventAsyncConfigurer = eventAsyncConfigurer;
         this.stopOnExperimentEnd = eventWebserverConfig.isStopOnExecutionEnd();
+        this.executors = executors;
+    }
+
+    /**
+     * Cancel running work units when the application context is closing,
+     * for example when the JVM receives a SIGTERM. Running algorithms see the time as up and return as soon as possible.
+     *
+     * @param event a {@link ContextClosedEvent} object.
+     */
+    @EventListener
+    public void onContextClosed(ContextClosedEvent event){
+        for(var executor: executors){
+            executor.cancelAll("Application shutting down");
+        }
     }
 
     /**
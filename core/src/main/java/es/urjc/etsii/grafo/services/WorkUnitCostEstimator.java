@@ -0,0 +1,28 @@
+package es.urjc.etsii.grafo.services;
+
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.annotations.InheritedComponent;
+import es.urjc.etsii.grafo.io.Instance;
+import es.urjc.etsii.grafo.solution.Solution;
+
+/**
+ * Estimates how expensive solving an instance with a given algorithm is.
+ * Used by the parallel executor to start the most expensive work units first when using {@link es.urjc.etsii.grafo.config.SchedulingPolicy#LONGEST_FIRST}.
+ * If not implemented, the cost is estimated using the execution time of previous work units for the same instance and algorithm,
+ * or the load time of already loaded instances, scaled by the observed ratio between execution and load time.
+ * If implemented, it is used for every work unit, and instances are loaded to estimate their cost.
+ * @param <S> Solution class
+ * @param <I> Instance class
+ */
+@InheritedComponent
+public abstract class WorkUnitCostEstimator<S extends Solution<S,I>, I extends Instance> {
+
+    /**
+     * Estimate the cost of solving the given instance with the given algorithm.
+     * Only relative values matter, any unit can be used as long as it is consistent between calls.
+     * @param instance instance to solve
+     * @param algorithm algorithm that is going to be executed
+     * @return estimated cost, greater values are executed first
+     */
+    public abstract double estimateCost(I instance, Algorithm<S,I> algorithm);
+}
@@ -0,0 +1,290 @@
+package es.urjc.etsii.grafo.executors;
+
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.algorithms.FMode;
+import es.urjc.etsii.grafo.config.ExecutorType;
+import es.urjc.etsii.grafo.config.SchedulingPolicy;
+import es.urjc.etsii.grafo.config.SolverConfig;
+import es.urjc.etsii.grafo.events.EventPublisher;
+import es.urjc.etsii.grafo.exception.ExceptionHandler;
+import es.urjc.etsii.grafo.experiment.Experiment;
+import es.urjc.etsii.grafo.experiment.reference.ReferenceResultManager;
+import es.urjc.etsii.grafo.io.InstanceManager;
+import es.urjc.etsii.grafo.io.serializers.SolutionExportFrequency;
+import es.urjc.etsii.grafo.services.IOManager;
+import es.urjc.etsii.grafo.solution.Objective;
+import es.urjc.etsii.grafo.testutil.TestInstance;
+import es.urjc.etsii.grafo.testutil.TestMove;
+import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.ConcurrencyUtil;
+import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.random.RandomType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class ConcurrentExecutorTest {
+    private static final Objective<TestMove, TestSolution, TestInstance> OBJ_MIN = Objective.of("Test", FMode.MINIMIZE, TestSolution::getScore, TestMove::getScoreChange);
+    private static final int N_WORKERS = 2;
+    private static final List<String> INSTANCES = List.of("inst1", "inst2", "inst3");
+
+    @BeforeAll
+    static void init() {
+        Context.Configurator.setObjectives(OBJ_MIN);
+        new EventPublisher(mock(ApplicationEventPublisher.class));
+    }
+
+    private static class FailingExceptionHandler extends ExceptionHandler<TestSolution, TestInstance> {
+        @Override
+        public void handleException(String experimentName, int iteration, Exception e, Optional<TestSolution> testSolution, TestInstance testInstance, Algorithm<TestSolution, TestInstance> algorithm) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Generates a random solution, optionally blocking for a while, and tracks how many instances run at the same time
+     */
+    private static class RandomAlgorithm extends Algorithm<TestSolution, TestInstance> {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final boolean block;
+        private final boolean submitTasks;
+
+        protected RandomAlgorithm(boolean block) {
+            this(block, false);
+        }
+
+        protected RandomAlgorithm(boolean block, boolean submitTasks) {
+            super("Random");
+            this.block = block;
+            this.submitTasks = submitTasks;
+        }
+
+        @Override
+        public TestSolution algorithm(TestInstance instance) {
+            if (block) {
+                // Waiting for an external resource does not count as running
+                ConcurrencyUtil.blocking(() -> ConcurrencyUtil.sleep(20, TimeUnit.MILLISECONDS));
+            }
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            ConcurrencyUtil.sleep(5, TimeUnit.MILLISECONDS);
+            // Context must be available to work units
+            assertSame(OBJ_MIN, Context.getMainObjective());
+            var solution = new TestSolution(instance, Context.getRandom().nextInt(1000));
+            if (submitTasks) {
+                // Tasks must run in the shared pool, and results must not depend on where they run
+                var futures = new ArrayList<Future<Boolean>>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(Context.submit(() -> Thread.currentThread() instanceof ForkJoinWorkerThread));
+                }
+                for (var f : futures) {
+                    assertTrue(ConcurrencyUtil.await(f));
+                }
+            }
+            solution.notifyUpdate();
+            running.decrementAndGet();
+            return solution;
+        }
+    }
+
+    /**
+     * Submits tasks to the shared pool that generate random numbers
+     */
+    private static class TaskAlgorithm extends Algorithm<TestSolution, TestInstance> {
+        protected TaskAlgorithm() {
+            super("Tasks");
+        }
+
+        @Override
+        public TestSolution algorithm(TestInstance instance) {
+            var futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(Context.submit(() -> Context.getRandom().nextInt(1000)));
+            }
+            double score = 0;
+            for (var f : futures) {
+                score += ConcurrencyUtil.await(f);
+            }
+            var solution = new TestSolution(instance, score);
+            solution.notifyUpdate();
+            return solution;
+        }
+    }
+
+    private List<Double> execute(ExecutorType type, SchedulingPolicy scheduling, RandomAlgorithm algorithm) {
+        return execute(type, scheduling, 1, algorithm);
+    }
+
+    private static SolverConfig solverConfig(ExecutorType type, SchedulingPolicy scheduling, int algorithmThreads) {
+        var solverConfig = new SolverConfig();
+        solverConfig.setAlgorithmThreads(algorithmThreads);
+        solverConfig.setRandomType(RandomType.DEFAULT);
+        solverConfig.setRepetitions(5);
+        solverConfig.setnWorkers(N_WORKERS);
+        solverConfig.setExecutor(type);
+        solverConfig.setScheduling(scheduling);
+        return solverConfig;
+    }
+
+    private static ConcurrentExecutor<TestSolution, TestInstance> executor(SolverConfig solverConfig, IOManager<TestSolution, TestInstance> io) {
+        InstanceManager<TestInstance> instanceManager = mock(InstanceManager.class);
+        for (var name : INSTANCES) {
+            when(instanceManager.getInstance(name)).thenReturn(new TestInstance(name));
+        }
+        return new ConcurrentExecutor<>(solverConfig, Optional.empty(), Optional.empty(), io, instanceManager, List.of(new FailingExceptionHandler()), new ReferenceResultManager(List.of()), Optional.empty());
+    }
+
+    private List<Double> execute(ExecutorType type, SchedulingPolicy scheduling, int algorithmThreads, Algorithm<TestSolution, TestInstance> algorithm) {
+        IOManager<TestSolution, TestInstance> io = mock(IOManager.class);
+        var executor = executor(solverConfig(type, scheduling, algorithmThreads), io);
+        executor.startup();
+        try {
+            executor.executeExperiment(new Experiment<>("Test", ConcurrentExecutorTest.class, List.of(algorithm)), INSTANCES, System.nanoTime());
+        } finally {
+            executor.shutdown();
+        }
+
+        var captor = ArgumentCaptor.forClass(WorkUnitResult.class);
+        verify(io, times(15)).exportSolution(captor.capture(), eq(SolutionExportFrequency.ALL));
+        return captor.getAllValues().stream().map(r -> {
+            assertTrue(r.success());
+            return ((TestSolution) r.solution()).getScore();
+        }).toList();
+    }
+
+    @Test
+    void virtualThreadsSameResults() {
+        var platform = execute(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, new RandomAlgorithm(false));
+        var virtual = execute(ExecutorType.VIRTUAL, SchedulingPolicy.ORDERED, new RandomAlgorithm(false));
+        var longestFirst = execute(ExecutorType.VIRTUAL, SchedulingPolicy.LONGEST_FIRST, new RandomAlgorithm(false));
+        assertTrue(platform.stream().distinct().count() > 1);
+        assertEquals(platform, virtual);
+        assertEquals(platform, longestFirst);
+    }
+
+    @Test
+    void comparableCostEstimates() {
+        var executor = executor(solverConfig(ExecutorType.PLATFORM, SchedulingPolicy.LONGEST_FIRST, 1), mock(IOManager.class));
+        when(executor.instanceManager.getLoadTime("inst1")).thenReturn(OptionalLong.of(100));
+        when(executor.instanceManager.getLoadTime("inst2")).thenReturn(OptionalLong.of(1000));
+        var algorithm = new RandomAlgorithm(false);
+
+        // No runtimes yet, load times are used as they are
+        assertEquals(1, executor.runtimePerLoadTime());
+        assertEquals(100, executor.estimateCost("inst1", algorithm, 1));
+        assertTrue(Double.isNaN(executor.estimateCost("inst3", algorithm, 1)));
+
+        executor.startup();
+        try {
+            executor.executeExperiment(new Experiment<>("Test", ConcurrentExecutorTest.class, List.of(algorithm)), List.of("inst1"), System.nanoTime());
+        } finally {
+            executor.shutdown();
+        }
+        // Load times are scaled to runtimes, so instances with and without runtimes can be compared
+        double ratio = executor.runtimePerLoadTime();
+        double inst1 = executor.estimateCost("inst1", algorithm, ratio);
+        double inst2 = executor.estimateCost("inst2", algorithm, ratio);
+        assertTrue(inst1 >= TimeUnit.MILLISECONDS.toNanos(5), "Runtime: " + inst1);
+        assertEquals(10 * inst1, inst2, 1e-6 * inst2);
+        // Instances are never loaded to estimate costs
+        verify(executor.instanceManager, never()).getInstance("inst2");
+    }
+
+    @Test
+    void invalidNumberOfWorkers() {
+        for (var type : ExecutorType.values()) {
+            var config = spy(solverConfig(type, SchedulingPolicy.ORDERED, 1));
+            // Automatic value in a machine with a single processor
+            when(config.getnWorkers()).thenReturn(0);
+            var executor = executor(config, mock(IOManager.class));
+            assertThrows(IllegalArgumentException.class, executor::startup);
+            // Called by the orchestrator even if startup fails
+            assertDoesNotThrow(executor::shutdown);
+        }
+    }
+
+    @Test
+    void virtualThreadsLimitCpuUsage() {
+        var algorithm = new RandomAlgorithm(true);
+        execute(ExecutorType.VIRTUAL, SchedulingPolicy.ORDERED, algorithm);
+        assertTrue(algorithm.maxRunning.get() <= N_WORKERS, "Max running: " + algorithm.maxRunning.get());
+    }
+
+    @Test
+    void sharedPoolForAlgorithmTasks() {
+        var platform = execute(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, new RandomAlgorithm(false));
+        var algorithm = new RandomAlgorithm(false, true);
+        var shared = execute(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, 3, algorithm);
+        assertEquals(platform, shared);
+        assertTrue(algorithm.maxRunning.get() <= N_WORKERS, "Max running: " + algorithm.maxRunning.get());
+
+        var virtual = execute(ExecutorType.VIRTUAL, SchedulingPolicy.LONGEST_FIRST, 3, new RandomAlgorithm(false, true));
+        assertEquals(platform, virtual);
+        // Pool is removed from the context after shutting down
+        assertFalse(Context.isExecutionQueueAvailable());
+    }
+
+    @Test
+    void sharedPoolTasksReproducible() {
+        var inline = execute(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, 1, new TaskAlgorithm());
+        var shared = execute(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, 3, new TaskAlgorithm());
+        var sharedAgain = execute(ExecutorType.VIRTUAL, SchedulingPolicy.LONGEST_FIRST, 3, new TaskAlgorithm());
+        assertTrue(inline.stream().distinct().count() > 1);
+        // Random numbers generated by tasks do not depend on where they run
+        assertEquals(inline, shared);
+        assertEquals(inline, sharedAgain);
+    }
+
+    @Test
+    void shardsSameResults(@TempDir Path folder) {
+        var single = execute(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, new RandomAlgorithm(false));
+
+        int nShards = 3;
+        var storage = new ShardStorage(folder.toString(), "run");
+        var experiment = new Experiment<>("Test", ConcurrentExecutorTest.class, List.<Algorithm<TestSolution, TestInstance>>of(new RandomAlgorithm(false)));
+        for (int i = 0; i < nShards; i++) {
+            // Shards may use different executors
+            var config = solverConfig(i % 2 == 0 ? ExecutorType.PLATFORM : ExecutorType.VIRTUAL, SchedulingPolicy.LONGEST_FIRST, 1);
+            config.setShards(nShards);
+            config.setShardIndex(i);
+            var executor = executor(config, mock(IOManager.class));
+            executor.startup();
+            try {
+                assertFalse(storage.isComplete("Test", nShards));
+                executor.executeShard(experiment, INSTANCES, storage);
+            } finally {
+                executor.shutdown();
+            }
+        }
+        assertTrue(storage.isComplete("Test", nShards));
+
+        var results = storage.merge("Test", nShards, single.size());
+        var sharded = results.stream().map(r -> r.objectives().get(OBJ_MIN.getName())).toList();
+        assertEquals(single, sharded);
+
+        var coordinatorConfig = solverConfig(ExecutorType.PLATFORM, SchedulingPolicy.ORDERED, 1);
+        coordinatorConfig.setShards(nShards);
+        var coordinator = executor(coordinatorConfig, mock(IOManager.class));
+        assertDoesNotThrow(() -> coordinator.reportShardResults(experiment, INSTANCES, System.currentTimeMillis(), results));
+        // Instances in a different order than the one used by shards
+        assertThrows(IllegalStateException.class, () -> coordinator.reportShardResults(experiment, INSTANCES.reversed(), System.currentTimeMillis(), results));
+    }
+}
@@ -18,6 +18,9 @@ import es.urjc.etsii.grafo.testutil.TestInstance;
 import es.urjc.etsii.grafo.testutil.TestMove;
 import es.urjc.etsii.grafo.testutil.TestSolution;
 import es.urjc.etsii.grafo.util.Context;
+import es.urjc.etsii.grafo.util.TimeControl;
+import es.urjc.etsii.grafo.util.TimeUtil;
+import es.urjc.etsii.grafo.util.random.RandomType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -81,12 +84,14 @@ class ExecutorTest {
         when(validator.validate(any(TestSolution.class))).thenReturn(ValidationResult.ok());
         Context.Configurator.setValidator(this.validator);
 
+        var solverConfig = new SolverConfig();
+        solverConfig.setRandomType(RandomType.DEFAULT);
         this.executor = new TestExecutor(
                 Optional.of(this.validator),
                 Optional.of(this.timeLimitCalculator),
                 this.ioManager,
                 this.instanceManager,
-                new SolverConfig(), // Not relevant for this test? leave with default values
+                solverConfig, // Not relevant for this test? leave with default values
                 List.of(new NopExceptionHandler()),
                 referenceResultManager);
     }
@@ -130,8 +135,55 @@ class ExecutorTest {
         verify(this.validator, atLeastOnce()).validate(solution);
     }
 
+    private static class BusyAlgorithm extends Algorithm<TestSolution, TestInstance> {
+        protected BusyAlgorithm() {
+            super("Busy");
+        }
 
+        @Override
+        public TestSolution algorithm(TestInstance instance) {
+            while (!TimeControl.isTimeUp()) {
+                Thread.onSpinWait();
+            }
+            var solution = new TestSolution(instance);
+            solution.setScore(10.0);
+            solution.notifyUpdate();
+            return solution;
+        }
+    }
 
+    @Test
+    public void cancelRunningWorkUnit() throws InterruptedException {
+        when(timeLimitCalculator.timeLimitInMillis(any(TestInstance.class), any(Algorithm.class))).thenReturn(60_000L);
+        var workUnit = new WorkUnit<>("Exp", "inst1", new BusyAlgorithm(), 0);
+        var canceller = new Thread(() -> {
+            while (executor.getRunning().isEmpty()) {
+                Thread.onSpinWait();
+            }
+            executor.cancelAll("Test");
+        });
+        canceller.start();
+        long start = System.nanoTime();
+        var result = executor.doWork(workUnit);
+        canceller.join();
+        assertTrue(result.success());
+        assertTrue(System.nanoTime() - start < TimeUtil.secsToNanos(30));
+        assertTrue(executor.isCancelled());
+        assertTrue(executor.getRunning().isEmpty());
+        assertFalse(TimeControl.isTimeUp());
+    }
+
+    @Test
+    public void cancelBeforeStarting() {
+        when(timeLimitCalculator.timeLimitInMillis(any(TestInstance.class), any(Algorithm.class))).thenReturn(60_000L);
+        executor.cancelAll("Test");
+        var result = executor.doWork(new WorkUnit<>("Exp", "inst1", new BusyAlgorithm(), 0));
+        // Work units not started before the cancellation are skipped and reported as failed
+        assertFalse(result.success());
+        assertNull(result.solution());
+        assertEquals(Executor.UNDEF_TIME, result.executionTime());
+        assertTrue(executor.getRunning().isEmpty());
+    }
 
     public static class TestExecutor extends Executor<TestSolution, TestInstance>{
         /**
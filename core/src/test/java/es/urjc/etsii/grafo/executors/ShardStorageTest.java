@@ -0,0 +1,139 @@
+package es.urjc.etsii.grafo.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardStorageTest {
+
+    private static ShardResult result(int index) {
+        return new ShardResult(index, true, "Exp", "inst" + index / 4, "inst" + index / 4, "Alg", String.valueOf(index % 4), Map.of("Obj", (double) index), index * 10L, index * 5L);
+    }
+
+    private static void writeShard(ShardStorage storage, int shard, int nShards, int nWorkUnits) throws IOException {
+        try (var writer = storage.writer("Exp", shard)) {
+            for (int i = 0; i < nWorkUnits; i++) {
+                if (ShardStorage.isAssigned(i, shard, nShards)) {
+                    writer.write(result(i));
+                }
+            }
+            writer.complete();
+        }
+    }
+
+    @Test
+    void roundRobinAssignment() {
+        int nShards = 3;
+        for (int i = 0; i < 20; i++) {
+            int assigned = 0;
+            for (int shard = 0; shard < nShards; shard++) {
+                if (ShardStorage.isAssigned(i, shard, nShards)) {
+                    assigned++;
+                }
+            }
+            assertEquals(1, assigned);
+        }
+    }
+
+    @Test
+    void mergeInOrder(@TempDir Path folder) throws IOException {
+        var storage = new ShardStorage(folder.toString(), "run");
+        int nShards = 3, nWorkUnits = 10;
+        // Shards may finish in any order
+        for (int shard = nShards - 1; shard >= 0; shard--) {
+            assertFalse(storage.isComplete("Exp", nShards));
+            writeShard(storage, shard, nShards, nWorkUnits);
+        }
+        assertTrue(storage.isComplete("Exp", nShards));
+        var merged = storage.merge("Exp", nShards, nWorkUnits);
+        assertEquals(nWorkUnits, merged.size());
+        for (int i = 0; i < nWorkUnits; i++) {
+            assertEquals(result(i), merged.get(i));
+        }
+
+        storage.clear("Exp", nShards);
+        assertFalse(storage.isComplete("Exp", nShards));
+    }
+
+    @Test
+    void ignoreResultsOfOtherRuns(@TempDir Path folder) throws IOException {
+        int nShards = 2, nWorkUnits = 10;
+        var previous = new ShardStorage(folder.toString(), "previous");
+        for (int shard = 0; shard < nShards; shard++) {
+            writeShard(previous, shard, nShards, nWorkUnits);
+        }
+        assertTrue(previous.isComplete("Exp", nShards));
+
+        // Results left by a previous run are not complete for the current one
+        var storage = new ShardStorage(folder.toString(), "run");
+        assertFalse(storage.isComplete("Exp", nShards));
+        assertThrows(IllegalStateException.class, () -> storage.merge("Exp", nShards, nWorkUnits));
+
+        writeShard(storage, 0, nShards, nWorkUnits);
+        assertFalse(storage.isComplete("Exp", nShards));
+        writeShard(storage, 1, nShards, nWorkUnits);
+        assertTrue(storage.isComplete("Exp", nShards));
+        assertEquals(nWorkUnits, storage.merge("Exp", nShards, nWorkUnits).size());
+
+        assertThrows(IllegalArgumentException.class, () -> new ShardStorage(folder.toString(), ""));
+    }
+
+    @Test
+    void specialValues(@TempDir Path folder) throws IOException {
+        var storage = new ShardStorage(folder.toString(), "run");
+        var failed = new ShardResult(0, false, "Exp", "path/inst", "Unknown", "Alg", "0", Map.of(), 10, -1);
+        var nan = new ShardResult(1, true, "Exp", "path/inst", "inst", "Alg", "1", Map.of("A", Double.NaN, "B", Double.POSITIVE_INFINITY), 10, 10);
+        try (var writer = storage.writer("Exp", 0)) {
+            writer.write(failed);
+            writer.write(nan);
+            writer.complete();
+        }
+        var merged = storage.merge("Exp", 1, 2);
+        assertEquals(failed, merged.get(0));
+        assertEquals(nan, merged.get(1));
+    }
+
+    @Test
+    void incompleteShard(@TempDir Path folder) throws IOException {
+        var storage = new ShardStorage(folder.toString(), "run");
+        writeShard(storage, 0, 2, 10);
+        try (var writer = storage.writer("Exp", 1)) {
+            writer.write(result(1));
+            // Shard fails before completing
+        }
+        assertFalse(storage.isComplete("Exp", 2));
+        assertThrows(IllegalStateException.class, () -> storage.merge("Exp", 2, 10));
+
+        // Completed but missing results
+        try (var writer = storage.writer("Exp", 1)) {
+            writer.write(result(1));
+            writer.complete();
+        }
+        assertTrue(storage.isComplete("Exp", 2));
+        assertThrows(IllegalStateException.class, () -> storage.merge("Exp", 2, 10));
+    }
+
+    @Test
+    void invalidResults(@TempDir Path folder) throws IOException {
+        var storage = new ShardStorage(folder.toString(), "run");
+        // Result assigned to a different shard
+        try (var writer = storage.writer("Exp", 0)) {
+            writer.write(result(1));
+            writer.complete();
+        }
+        assertThrows(IllegalStateException.class, () -> storage.merge("Exp", 2, 2));
+
+        // Duplicated result
+        try (var writer = storage.writer("Exp", 0)) {
+            writer.write(result(0));
+            writer.write(result(0));
+            writer.complete();
+        }
+        assertThrows(IllegalStateException.class, () -> storage.merge("Exp", 1, 1));
+    }
+}
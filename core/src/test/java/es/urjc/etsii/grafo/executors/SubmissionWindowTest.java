@@ -0,0 +1,144 @@
+package es.urjc.etsii.grafo.executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionWindowTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void invalidSize() {
+        var tasks = List.<Callable<Integer>>of(() -> 1);
+        assertThrows(IllegalArgumentException.class, () -> new SubmissionWindow<>(executor, tasks, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SubmissionWindow<>(executor, tasks, new int[]{0, 1}, 1, null));
+    }
+
+    @Test
+    void resultsInOrderAndBounded() {
+        int nTasks = 50, size = 3;
+        var started = new AtomicInteger();
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < nTasks; i++) {
+            int id = i;
+            tasks.add(() -> {
+                started.incrementAndGet();
+                // Later tasks finish before earlier ones
+                Thread.sleep((nTasks - id) % 5);
+                return id;
+            });
+        }
+
+        var window = new SubmissionWindow<>(executor, tasks, size);
+        for (int i = 0; i < nTasks; i++) {
+            assertTrue(window.hasNext());
+            assertTrue(window.pending() <= size);
+            // Tasks are only submitted when previous results are consumed
+            assertTrue(started.get() <= i + size);
+            assertEquals(i, window.next());
+        }
+        assertFalse(window.hasNext());
+        assertEquals(0, window.pending());
+        assertEquals(nTasks, started.get());
+        assertThrows(NoSuchElementException.class, window::next);
+    }
+
+    @Test
+    void fewerTasksThanSize() {
+        var tasks = List.<Callable<Integer>>of(() -> 1, () -> 2);
+        var window = new SubmissionWindow<>(executor, tasks, 10);
+        assertEquals(2, window.pending());
+        assertEquals(1, window.next());
+        assertEquals(2, window.next());
+        assertFalse(window.hasNext());
+    }
+
+    @Test
+    void largestFirst() {
+        assertArrayEquals(new int[]{2, 0, 3, 1}, SubmissionWindow.largestFirst(new double[]{5, 1, 10, 5}));
+        assertArrayEquals(new int[]{}, SubmissionWindow.largestFirst(new double[]{}));
+    }
+
+    @Test
+    void reorderedSubmissionKeepsResultOrder() {
+        int nTasks = 10;
+        var submitted = Collections.synchronizedList(new ArrayList<Integer>());
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < nTasks; i++) {
+            int id = i;
+            tasks.add(() -> {
+                submitted.add(id);
+                return id;
+            });
+        }
+        // Reverse order, the first result would only be available after submitting every task
+        var order = new int[nTasks];
+        for (int i = 0; i < nTasks; i++) {
+            order[i] = nTasks - 1 - i;
+        }
+        int size = 3;
+        // Single thread, tasks start in submission order
+        var sequential = Executors.newSingleThreadExecutor();
+        try {
+            var window = new SubmissionWindow<>(sequential, tasks, order, size, null);
+            assertEquals(size, window.pending());
+            for (int i = 0; i < nTasks; i++) {
+                assertTrue(window.pending() <= size);
+                assertEquals(i, window.next());
+            }
+            assertFalse(window.hasNext());
+            assertEquals(0, window.pending());
+        } finally {
+            sequential.shutdownNow();
+        }
+        // Most expensive tasks are started first, but the last slot is always reserved for the next result
+        assertEquals(List.of(9, 8, 0, 1, 2, 3, 4, 5, 6, 7), submitted);
+    }
+
+    @Test
+    void limitRunningTasks() {
+        int nTasks = 30, maxRunning = 2;
+        var running = new AtomicInteger();
+        var maxObserved = new AtomicInteger();
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < nTasks; i++) {
+            int id = i;
+            tasks.add(() -> {
+                maxObserved.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(2);
+                running.decrementAndGet();
+                return id;
+            });
+        }
+        var permits = new Semaphore(maxRunning);
+        var window = new SubmissionWindow<>(executor, tasks, SubmissionWindow.largestFirst(new double[nTasks]), 10, permits);
+        for (int i = 0; i < nTasks; i++) {
+            assertEquals(i, window.next());
+        }
+        assertTrue(maxObserved.get() <= maxRunning);
+        assertEquals(maxRunning, permits.availablePermits());
+    }
+}
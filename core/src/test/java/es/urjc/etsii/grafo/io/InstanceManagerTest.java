@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class InstanceManagerTest {
@@ -122,14 +123,18 @@ class InstanceManagerTest {
         var manager = buildManager(false, instancePath);
         var instances = manager.getInstanceSolveOrder(TEST_EXPERIMENT);
         verifyNoInteractions(instanceImporter);
+        assertTrue(manager.getLoadTime(instances.get(0)).isEmpty());
         manager.getInstance(instances.get(0));
         verify(instanceImporter, times(1)).importInstance(any());
+        // Load time is known without loading the instance again, even after purging the cache
+        assertTrue(manager.getLoadTime(instances.get(0)).isPresent());
         manager.getInstance(instances.get(1));
         verify(instanceImporter, times(2)).importInstance(any());
         manager.getInstance(instances.get(1));
         verify(instanceImporter, times(2)).importInstance(any());
 
         manager.purgeCache();
+        assertTrue(manager.getLoadTime(instances.get(0)).isPresent());
         manager.getInstance(instances.get(1));
         verify(instanceImporter, times(3)).importInstance(any());
 
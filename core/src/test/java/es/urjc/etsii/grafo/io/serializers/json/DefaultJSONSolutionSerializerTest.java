@@ -1,13 +1,19 @@
 package es.urjc.etsii.grafo.io.serializers.json;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import es.urjc.etsii.grafo.algorithms.Algorithm;
 import es.urjc.etsii.grafo.algorithms.EmptyAlgorithm;
+import es.urjc.etsii.grafo.algorithms.FMode;
 import es.urjc.etsii.grafo.executors.WorkUnitResult;
 import es.urjc.etsii.grafo.io.serializers.SolutionExportFrequency;
+import es.urjc.etsii.grafo.metrics.DeclaredObjective;
+import es.urjc.etsii.grafo.metrics.MetricRetention;
+import es.urjc.etsii.grafo.metrics.Metrics;
 import es.urjc.etsii.grafo.metrics.MetricsStorage;
 import es.urjc.etsii.grafo.testutil.TestAssertions;
 import es.urjc.etsii.grafo.testutil.TestInstance;
 import es.urjc.etsii.grafo.testutil.TestSolution;
+import es.urjc.etsii.grafo.util.ComponentTimes;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,7 +24,6 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -76,11 +81,69 @@ class DefaultJSONSolutionSerializerTest {
         Assertions.assertTrue(content.contains("\"testName\":\"testValue\""));
     }
 
+    @Test
+    void exportComponentTimes() throws IOException {
+        config.setPretty(false);
+        var times = new ComponentTimes();
+        int id = ComponentTimes.callId(ComponentTimes.ROOT, ComponentTimes.componentId(DefaultJSONSolutionSerializerTest.class, "testMethod"));
+        times.enter(id);
+        times.record(id, 10);
+        times.enter(id);
+        times.record(id, 30);
+        var content = doExport(times);
+
+        var timeData = new ObjectMapper().readTree(content).get("timeData");
+        Assertions.assertTrue(timeData.isArray());
+        Assertions.assertEquals(1, timeData.size());
+        var entry = timeData.get(0);
+        Assertions.assertEquals("DefaultJSONSolutionSerializerTest", entry.get("clazz").asText());
+        Assertions.assertEquals("testMethod", entry.get("method").asText());
+        Assertions.assertEquals("", entry.get("parent").asText());
+        Assertions.assertEquals(2, entry.get("calls").asLong());
+        Assertions.assertEquals(2, entry.get("timedCalls").asLong());
+        Assertions.assertEquals(40, entry.get("totalNanos").asLong());
+        Assertions.assertEquals(10, entry.get("minNanos").asLong());
+        Assertions.assertEquals(30, entry.get("maxNanos").asLong());
+    }
+
+    @Test
+    void exportMetricsWithRetention() throws IOException {
+        config.setPretty(false);
+        MetricsStorage metrics;
+        try {
+            Metrics.enableMetrics();
+            Metrics.register("TestMetric", ref -> new DeclaredObjective("TestMetric", FMode.MINIMIZE, ref), MetricRetention.monotone(FMode.MINIMIZE));
+            Metrics.resetMetrics();
+            Metrics.add("TestMetric", 10);
+            Metrics.add("TestMetric", 20);
+            Metrics.add("TestMetric", 5);
+            metrics = Metrics.getCurrentThreadMetrics();
+        } finally {
+            Metrics.disableMetrics();
+        }
+        var content = doExport(metrics, new ComponentTimes());
+
+        var metric = new ObjectMapper().readTree(content).get("metrics").get("metrics").get("TestMetric");
+        // Only improvements are kept
+        Assertions.assertEquals(2, metric.get("values").size());
+        Assertions.assertNull(metric.get("retention"));
+        Assertions.assertNull(metric.get("offered"));
+        Assertions.assertNull(metric.get("empty"));
+    }
+
     private String doExport() throws IOException {
+        return doExport(new MetricsStorage(), new ComponentTimes());
+    }
+
+    private String doExport(ComponentTimes times) throws IOException {
+        return doExport(new MetricsStorage(), times);
+    }
+
+    private String doExport(MetricsStorage metrics, ComponentTimes times) throws IOException {
         var serializer = new DefaultJSONSolutionSerializer<TestSolution, TestInstance>(config);
         TestAssertions.toStringImpl(serializer);
         Assertions.assertTrue(serializer.isEnabled());
-        var wur = new WorkUnitResult<>(true, "testExperiment", this.solution.getInstance().getPath(), this.solution.getInstance().getId(), this.algorithm, "bestIteration", this.solution, -1, -1, new MetricsStorage(), new ArrayList<>());
+        var wur = new WorkUnitResult<>(true, "testExperiment", this.solution.getInstance().getPath(), this.solution.getInstance().getId(), this.algorithm, "bestIteration", this.solution, -1, -1, metrics, times);
         Assertions.assertThrows(UnsupportedOperationException.class, () -> serializer.export(new BufferedWriter(new StringWriter()), wur));
         serializer.exportSolution(wur);
         var paths = Files.list(this.tempDir).toList();
@@ -0,0 +1,19 @@
+package es.urjc.etsii.grafo.orchestrator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardLauncherTest {
+
+    @Test
+    void shardCommand() {
+        var command = List.of("java", "-Xmx4G", "-jar", "app.jar", "--solver.shards=4", "--server.port=8080", "--solver.shard-index=1", "--solver.shard-run-id=old");
+        assertEquals(
+                List.of("java", "-Xmx4G", "-jar", "app.jar", "--solver.shards=4", "--solver.shard-index=2", "--solver.shard-run-id=run", "--server.port=0"),
+                ShardLauncher.shardCommand(command, 2, "run")
+        );
+    }
+}
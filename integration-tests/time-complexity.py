@@ -7,8 +7,6 @@ import argparse
 import os
 import json
 
-from collections import defaultdict
-from statistics import mean
 
 from os.path import join
 import numpy as np
@@ -91,9 +89,6 @@ def get_functions() -> list[ComplexityFunction]:
     ]
 
 
-def get_full_name(stack: list[tuple[str, int]]) -> str:
-    return "/".join(name for name, _ in stack)
-
 def fold_profiler_data(path: str) -> DataFrame:
     """
     List all json files in data folder and load them
@@ -108,31 +103,17 @@ def fold_profiler_data(path: str) -> DataFrame:
 
         print("Processing", f)
         with open(join(path, f)) as json_file:
-            data = []
             jsondata = json.load(json_file)
 
+        # Component times are aggregated per component method and caller while the algorithm runs
         for i in jsondata['timeData']:
-            data.append({'when': i['when'], 'enter': i['enter'], 'clazz': i['clazz'], 'method': i['method']})
-        data.sort(key=lambda x: x['when'])
-
-        dict_data = defaultdict(list)
-        stack = []
-
-        for i in data:
-            name = f"{i['clazz']}::{i['method']}"
-            if i['enter']:
-                stack.append((name, i['when']))
-            else:
-                current = get_full_name(stack)
-                start = stack.pop()
-                if name != start[0]:
-                    raise Exception(f"Unexpected stack frame: {name} != {start[0]}")
-                dict_data[current].append((i['when'] - start[1])/1000000) # Convert nanos to millis
-
-        for k, v in dict_data.items():
-            parent, child = k.rsplit("/", 1) if "/" in k else ("", k)
-            # TODO usaba mean, pero tiene sentido? o mejor max min etc
-            timestats.append({"instance": jsondata['instanceId'], "component": k, "parent": parent, "child": child, "time": mean(v)})
+            if i['timedCalls'] == 0:
+                continue
+            child = f"{i['clazz']}::{i['method']}"
+            parent = i['parent']
+            component = f"{parent}/{child}" if parent else child
+            mean_millis = i['totalNanos'] / i['timedCalls'] / 1000000 # Convert nanos to millis
+            timestats.append({"instance": jsondata['instanceId'], "component": component, "parent": parent, "child": child, "time": mean_millis})
 
     return pd.DataFrame(timestats).sort_values(by=['instance', 'component'])
 